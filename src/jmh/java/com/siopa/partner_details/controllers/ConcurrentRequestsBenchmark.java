@@ -0,0 +1,126 @@
+package com.siopa.partner_details.controllers;
+
+import com.siopa.partner_details.PartnerDetailsApplication;
+import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.models.Store;
+import com.siopa.partner_details.repositories.OwnerRepository;
+import com.siopa.partner_details.repositories.StoreRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires a burst of concurrent requests at a running server on a random port,
+ * once on the platform thread pool and once with virtual threads, against
+ * both the blocking and the reactive keyset page of stores.
+ * Each request reads the page after a different cursor, which is not cached,
+ * so every request takes a pooled connection and runs a query.
+ * The virtual run needs a Java 21+ JVM and fails its setup on older runtimes.
+ * Each operation is a whole burst, so its time is the time to drain the burst.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrentRequestsBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtual;
+
+    @Param({"blocking", "reactive"})
+    private String api;
+
+    @Param({"1000", "2000"})
+    private int concurrency;
+
+    @Param("50")
+    private int owners;
+
+    @Param("20")
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private List<URI> uris;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later, running on "
+                    + Runtime.version());
+        }
+        context = new SpringApplicationBuilder(PartnerDetailsApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "spring.datasource.url=jdbc:h2:mem:partner-details-load;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.flyway.enabled=false",
+                        "partner.zones.shapefile=",
+                        "logging.level.root=WARN")
+                .run();
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+
+        OwnerRepository ownerRepository = context.getBean(OwnerRepository.class);
+        StoreRepository storeRepository = context.getBean(StoreRepository.class);
+        String prefix = "http://localhost:" + port
+                + ("reactive".equals(api) ? "/api/reactive/stores" : "/api/stores")
+                + "?limit=" + pageSize + "&after=";
+        uris = new ArrayList<>(owners * 20);
+        for (int o = 0; o < owners; o++) {
+            Owner owner = ownerRepository.save(Owner.builder()
+                    .name("Owner " + o)
+                    .email("owner" + o + "@example.com")
+                    .build());
+            List<Store> stores = new ArrayList<>(20);
+            for (int s = 0; s < 20; s++) {
+                stores.add(Store.builder()
+                        .name("Store " + o + "-" + s)
+                        .address(s + " Main Street, Dublin")
+                        .isActive(true)
+                        .owner(owner)
+                        .build());
+            }
+            storeRepository.saveAll(stores).forEach(store -> uris.add(URI.create(prefix + store.getId())));
+        }
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long burst() {
+        List<CompletableFuture<HttpResponse<byte[]>>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            HttpRequest request = HttpRequest.newBuilder(uris.get(i % uris.size())).GET().build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()));
+        }
+        long bytes = 0;
+        for (CompletableFuture<HttpResponse<byte[]>> response : responses) {
+            bytes += response.join().body().length;
+        }
+        return bytes;
+    }
+}
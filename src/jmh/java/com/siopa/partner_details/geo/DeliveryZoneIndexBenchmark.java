@@ -0,0 +1,71 @@
+package com.siopa.partner_details.geo;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.Polygon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures point-in-zone lookups against irregular, overlapping zone polygons.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DeliveryZoneIndexBenchmark {
+
+    @Param({"1000", "5000"})
+    private int zones;
+
+    @Param("64")
+    private int verticesPerZone;
+
+    private DeliveryZoneIndex index;
+    private double[][] points;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(11);
+        GeometryFactory factory = new GeometryFactory();
+        List<DeliveryZone> polygons = new ArrayList<>(zones);
+        for (int z = 0; z < zones; z++) {
+            double centreLat = 51.4 + random.nextDouble() * 4;
+            double centreLon = -10.4 + random.nextDouble() * 4.4;
+            Coordinate[] ring = new Coordinate[verticesPerZone + 1];
+            for (int v = 0; v < verticesPerZone; v++) {
+                double angle = 2 * Math.PI * v / verticesPerZone;
+                double radius = 0.05 + random.nextDouble() * 0.1;
+                ring[v] = new Coordinate(centreLon + radius * Math.cos(angle), centreLat + radius * Math.sin(angle));
+            }
+            ring[verticesPerZone] = ring[0];
+            Polygon polygon = factory.createPolygon(ring);
+            polygons.add(new DeliveryZone("zone-" + z, "Zone " + z, polygon));
+        }
+        index = new DeliveryZoneIndex(path -> List.of(), "");
+        index.replaceAll(polygons);
+
+        points = new double[1024][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new double[] {51.4 + random.nextDouble() * 4, -10.4 + random.nextDouble() * 4.4};
+        }
+    }
+
+    @Benchmark
+    public List<DeliveryZoneIndex.IndexedZone> zonesAt() {
+        next = (next + 1) & (points.length - 1);
+        return index.zonesAt(points[next][0], points[next][1]);
+    }
+}
@@ -0,0 +1,112 @@
+package com.siopa.partner_details.geo;
+
+import com.siopa.partner_details.dto.NearbyStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the spatial index against a linear scan of every store.
+ * Stores are spread uniformly over a box roughly the size of Ireland.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StoreLocationIndexBenchmark {
+
+    @Param("100000")
+    private int stores;
+
+    private StoreLocationIndex index;
+    private List<StoreLocation> locations;
+    private double[][] points;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(7);
+        locations = new ArrayList<>(stores);
+        for (long id = 1; id <= stores; id++) {
+            locations.add(new StoreLocation(id, id % 500, "Store " + id,
+                    51.4 + random.nextDouble() * 4, -10.4 + random.nextDouble() * 4.4, random.nextInt(10) > 0));
+        }
+        index = new StoreLocationIndex(null);
+        index.replaceAll(locations);
+
+        points = new double[1024][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new double[] {51.4 + random.nextDouble() * 4, -10.4 + random.nextDouble() * 4.4};
+        }
+    }
+
+    private double[] point() {
+        next = (next + 1) & (points.length - 1);
+        return points[next];
+    }
+
+    @Benchmark
+    public List<NearbyStore> indexNearest10() {
+        double[] p = point();
+        return index.nearest(p[0], p[1], 10, true);
+    }
+
+    @Benchmark
+    public List<NearbyStore> indexWithin2Km() {
+        double[] p = point();
+        return index.withinRadius(p[0], p[1], 2, 50, true);
+    }
+
+    @Benchmark
+    public List<NearbyStore> linearScanNearest10() {
+        double[] p = point();
+        PriorityQueue<NearbyStore> best = new PriorityQueue<>(
+                Comparator.comparingDouble(NearbyStore::distanceKm).reversed());
+        for (StoreLocation location : locations) {
+            if (!location.active()) {
+                continue;
+            }
+            double distance = StoreLocationIndex.distanceKm(p[0], p[1], location.latitude(), location.longitude());
+            if (best.size() < 10 || distance < best.peek().distanceKm()) {
+                best.add(toNearby(location, distance));
+                if (best.size() > 10) {
+                    best.poll();
+                }
+            }
+        }
+        List<NearbyStore> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(NearbyStore::distanceKm));
+        return result;
+    }
+
+    @Benchmark
+    public List<NearbyStore> linearScanWithin2Km() {
+        double[] p = point();
+        List<NearbyStore> result = new ArrayList<>();
+        for (StoreLocation location : locations) {
+            double distance = StoreLocationIndex.distanceKm(p[0], p[1], location.latitude(), location.longitude());
+            if (location.active() && distance <= 2) {
+                result.add(toNearby(location, distance));
+            }
+        }
+        result.sort(Comparator.comparingDouble(NearbyStore::distanceKm));
+        return result.size() > 50 ? result.subList(0, 50) : result;
+    }
+
+    private static NearbyStore toNearby(StoreLocation location, double distance) {
+        return new NearbyStore(location.storeId(), location.ownerId(), location.name(),
+                location.latitude(), location.longitude(), distance);
+    }
+}
@@ -0,0 +1,104 @@
+package com.siopa.partner_details.models;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares encode time and encoded size of a store listing in JSON, Smile and CBOR,
+ * with and without gzip, using the mappers the HTTP converters are built with.
+ * The {@code bytes} counter is reported as a rate alongside the operation rate;
+ * their ratio is the body size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BinaryFormatBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private ObjectMapper objectMapper;
+    private List<Store> stores;
+
+    /**
+     * Bytes encoded, reported as a secondary result.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class EncodedSize {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JsonFactory factory = switch (format) {
+            case "smile" -> SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+        objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory).build();
+        stores = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Owner owner = Owner.builder()
+                    .id(id % 50 + 1)
+                    .name("Owner " + (id % 50 + 1))
+                    .email("owner" + (id % 50 + 1) + "@example.com")
+                    .phoneNumber("0871234567")
+                    .build();
+            stores.add(Store.builder()
+                    .id(id)
+                    .name("Store " + id)
+                    .address(id + " Main Street, Dublin")
+                    .isActive(true)
+                    .phoneNumber("0871234567")
+                    .email("store" + id + "@example.com")
+                    .latitude(53.35)
+                    .longitude(-6.26)
+                    .owner(owner)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeStores(EncodedSize encodedSize) throws IOException {
+        byte[] body;
+        if (gzip) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                objectMapper.writeValue(out, stores);
+            }
+            body = buffer.toByteArray();
+        } else {
+            body = objectMapper.writeValueAsBytes(stores);
+        }
+        encodedSize.bytes += body.length;
+        return body;
+    }
+}
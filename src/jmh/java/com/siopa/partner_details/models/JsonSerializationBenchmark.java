@@ -0,0 +1,71 @@
+package com.siopa.partner_details.models;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serializing store and owner listings the way the controllers return them.
+ * Stores carry their owner, as {@code GET /api/stores} does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Store> stores;
+    private List<Owner> owners;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        owners = new ArrayList<>(size);
+        stores = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Owner owner = Owner.builder()
+                    .id(id)
+                    .name("Owner " + id)
+                    .email("owner" + id + "@example.com")
+                    .phoneNumber("0871234567")
+                    .build();
+            owners.add(owner);
+            stores.add(Store.builder()
+                    .id(id)
+                    .name("Store " + id)
+                    .address(id + " Main Street, Dublin")
+                    .isActive(true)
+                    .phoneNumber("0871234567")
+                    .email("store" + id + "@example.com")
+                    .latitude(53.35)
+                    .longitude(-6.26)
+                    .owner(owner)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeStores() throws Exception {
+        return objectMapper.writeValueAsBytes(stores);
+    }
+
+    @Benchmark
+    public byte[] serializeOwners() throws Exception {
+        return objectMapper.writeValueAsBytes(owners);
+    }
+}
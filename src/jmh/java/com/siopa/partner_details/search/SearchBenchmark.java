@@ -0,0 +1,112 @@
+package com.siopa.partner_details.search;
+
+import com.siopa.partner_details.dto.SearchPage;
+import com.siopa.partner_details.dto.StoreView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the in-memory n-gram index with the {@code LIKE '%q%'} scan it replaces,
+ * over the same generated store names and addresses in an in-memory H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SearchBenchmark {
+
+    private static final String[] WORDS = {
+            "corner", "market", "bakery", "deli", "pharmacy", "books", "garden", "harbour", "quay",
+            "castle", "river", "station", "mill", "abbey", "bridge", "green", "park", "hill", "cross", "square"};
+
+    private static final String[] QUERIES = {"mark", "bak", "ha", "river st", "abbey", "qu", "cross", "zz"};
+
+    @Param({"10000", "50000"})
+    private int stores;
+
+    private TextIndex<StoreView> index;
+    private Connection connection;
+    private PreparedStatement like;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        SplittableRandom random = new SplittableRandom(7);
+        List<StoreView> views = new ArrayList<>(stores);
+        for (long id = 1; id <= stores; id++) {
+            String name = capitalise(WORDS[random.nextInt(WORDS.length)]) + " " + capitalise(WORDS[random.nextInt(WORDS.length)]);
+            String address = random.nextInt(1, 200) + " " + capitalise(WORDS[random.nextInt(WORDS.length)]) + " Street";
+            views.add(new StoreView(id, name, address, true, null, null, 1L, "Owner"));
+        }
+        index = new TextIndex<>(StoreView::id, view -> Arrays.asList(view.name(), view.address()));
+        index.replaceAll(views);
+
+        connection = DriverManager.getConnection("jdbc:h2:mem:search-bench;DB_CLOSE_DELAY=-1");
+        connection.createStatement().execute(
+                "create table stores (id bigint primary key, name varchar(255), address varchar(255))");
+        try (PreparedStatement insert = connection.prepareStatement("insert into stores values (?, ?, ?)")) {
+            for (StoreView view : views) {
+                insert.setLong(1, view.id());
+                insert.setString(2, view.name());
+                insert.setString(3, view.address());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        like = connection.prepareStatement(
+                "select id, name, address from stores where lower(name) like ? or lower(address) like ? "
+                        + "order by name, id offset 0 rows fetch next 20 rows only");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.createStatement().execute("drop all objects");
+        connection.close();
+    }
+
+    private static String capitalise(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private String nextQuery() {
+        next = (next + 1) % QUERIES.length;
+        return QUERIES[next];
+    }
+
+    @Benchmark
+    public SearchPage<StoreView> textIndex() {
+        return index.search(nextQuery(), 0, 20);
+    }
+
+    @Benchmark
+    public int likeScan() throws SQLException {
+        String pattern = "%" + nextQuery() + "%";
+        like.setString(1, pattern);
+        like.setString(2, pattern);
+        int rows = 0;
+        try (ResultSet results = like.executeQuery()) {
+            while (results.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
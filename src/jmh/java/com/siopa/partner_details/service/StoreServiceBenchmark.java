@@ -0,0 +1,151 @@
+package com.siopa.partner_details.service;
+
+import com.siopa.partner_details.PartnerDetailsApplication;
+import com.siopa.partner_details.config.CacheConfig;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.models.Store;
+import com.siopa.partner_details.repositories.OwnerRepository;
+import com.siopa.partner_details.repositories.StoreRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the store service end to end against an in-memory H2 database,
+ * so results do not depend on a local Postgres.
+ * The dataset is rebuilt for every trial from fixed names and sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StoreServiceBenchmark {
+
+    @Param("500")
+    private int owners;
+
+    @Param("20")
+    private int storesPerOwner;
+
+    private ConfigurableApplicationContext context;
+    private StoreService storeService;
+    private Cache storesByOwner;
+    private List<Long> ownerIds;
+    private List<Store> seeded;
+    private int nextOwner;
+    private int nextStore;
+    private long created;
+    private long updated;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(PartnerDetailsApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:partner-details-bench;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                        "spring.jpa.properties.hibernate.order_inserts=true",
+                        "spring.flyway.enabled=false",
+                        "partner.zones.shapefile=",
+                        "logging.level.root=WARN")
+                .run();
+        storeService = context.getBean(StoreService.class);
+        storesByOwner = context.getBean(CacheManager.class)
+                .getCache(CacheConfig.STORES_BY_OWNER);
+
+        OwnerRepository ownerRepository = context.getBean(OwnerRepository.class);
+        StoreRepository storeRepository = context.getBean(StoreRepository.class);
+        ownerIds = new ArrayList<>(owners);
+        seeded = new ArrayList<>(owners * storesPerOwner);
+        for (int o = 0; o < owners; o++) {
+            Owner owner = ownerRepository.save(Owner.builder()
+                    .name("Owner " + o)
+                    .email("owner" + o + "@example.com")
+                    .build());
+            ownerIds.add(owner.getId());
+            List<Store> stores = new ArrayList<>(storesPerOwner);
+            for (int s = 0; s < storesPerOwner; s++) {
+                stores.add(Store.builder()
+                        .name("Store " + o + "-" + s)
+                        .address(s + " Main Street, Dublin")
+                        .isActive(s % 10 != 0)
+                        .latitude(53.0 + o * 0.001)
+                        .longitude(-6.0 - s * 0.001)
+                        .owner(owner)
+                        .build());
+            }
+            seeded.addAll(storeRepository.saveAll(stores));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private Long ownerId() {
+        nextOwner = (nextOwner + 1) % ownerIds.size();
+        return ownerIds.get(nextOwner);
+    }
+
+    @Benchmark
+    public List<StoreResponse> getAllStores() {
+        return storeService.getAllStores();
+    }
+
+    /**
+     * Reads an owner's stores from the database, bypassing the cache.
+     */
+    @Benchmark
+    public List<StoreResponse> getStoresByOwnerIdUncached() {
+        Long ownerId = ownerId();
+        storesByOwner.evict(ownerId);
+        return storeService.getStoresByOwnerId(ownerId);
+    }
+
+    @Benchmark
+    public List<StoreResponse> getStoresByOwnerIdCached() {
+        return storeService.getStoresByOwnerId(ownerId());
+    }
+
+    @Benchmark
+    public StoreResponse createStore() {
+        return storeService.createStore(Store.builder()
+                .name("Bench Store " + created++)
+                .address("1 Benchmark Road")
+                .isActive(true)
+                .build(), ownerId());
+    }
+
+    @Benchmark
+    public StoreResponse updateStore() {
+        nextStore = (nextStore + 1) % seeded.size();
+        Store store = seeded.get(nextStore);
+        return storeService.updateStore(store.getId(), Store.builder()
+                .name(store.getName())
+                .address(store.getAddress())
+                .isActive(updated++ % 2 == 0)
+                .latitude(store.getLatitude())
+                .longitude(store.getLongitude())
+                .build(), null);
+    }
+}
@@ -0,0 +1,123 @@
+package com.siopa.partner_details.snapshot;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.partner_details.dto.StoreChange;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.repositories.StoreRepository;
+import com.siopa.partner_details.repositories.StoreTombstoneRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Compares answering a store lookup from the JSON snapshot with serializing a
+ * cached response object, as the store cache does. Run with {@code -prof gc}
+ * to compare allocation per lookup; the heap retained by each approach is the
+ * difference in live set after setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StoreSnapshotBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private StoreSnapshot snapshot;
+    private Map<Long, StoreResponse> cache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<StoreResponse> stores = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> new StoreResponse(id, "Store " + id, id + " Main Street, Dublin", id % 10 != 0,
+                        "0871234567", "store" + id + "@example.com", 53.35, -6.26, 0L, id % 500 + 1,
+                        "Owner " + (id % 500 + 1)))
+                .toList();
+        cache = new HashMap<>(size * 2);
+        stores.forEach(store -> cache.put(store.id(), store));
+
+        // Serves the stores as change feed pages, as the repository would, each store
+        // changed once in ID order; nothing has been deleted
+        StoreRepository repository = (StoreRepository) Proxy.newProxyInstance(
+                StoreRepository.class.getClassLoader(), new Class<?>[]{StoreRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("findChangedAfter")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    int after = ((Long) args[1]).intValue();
+                    int limit = ((Limit) args[2]).max();
+                    return stores.subList(Math.min(after, size), Math.min(after + limit, size)).stream()
+                            .map(store -> new StoreChange(store.id(), Instant.EPOCH, store))
+                            .toList();
+                });
+        StoreTombstoneRepository tombstones = (StoreTombstoneRepository) Proxy.newProxyInstance(
+                StoreTombstoneRepository.class.getClassLoader(), new Class<?>[]{StoreTombstoneRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("findChangedAfter")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return List.of();
+                });
+        PlatformTransactionManager transactionManager = new AbstractPlatformTransactionManager() {
+            @Override
+            protected Object doGetTransaction() {
+                return new Object();
+            }
+
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+            }
+
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+            }
+
+            @Override
+            protected void doRollback(DefaultTransactionStatus status) {
+            }
+        };
+        snapshot = new StoreSnapshot(true, Duration.ofSeconds(10), repository, tombstones, transactionManager,
+                objectMapper, new SimpleMeterRegistry());
+        snapshot.loadFromDatabase();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, size + 1);
+    }
+
+    @Benchmark
+    public byte[] snapshotLookup() {
+        return snapshot.find(randomId()).orElseThrow().json();
+    }
+
+    @Benchmark
+    public byte[] cachedObjectSerialized() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cache.get(randomId()));
+    }
+}
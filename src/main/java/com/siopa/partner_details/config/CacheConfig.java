@@ -0,0 +1,52 @@
+package com.siopa.partner_details.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Local read-through caches for owners and stores.
+ * Caffeine statistics are recorded so hit, miss and eviction counts are
+ * published as {@code cache.*} metrics on the actuator.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Owners by owner ID.
+     */
+    public static final String OWNERS = "owners";
+
+    /**
+     * Stores by store ID.
+     */
+    public static final String STORES = "stores";
+
+    /**
+     * Store lists by owner ID.
+     */
+    public static final String STORES_BY_OWNER = "storesByOwner";
+
+    /**
+     * Creates the cache manager.
+     * Puts and evictions are deferred until the surrounding transaction commits
+     * so a rolled back write never leaves its data in the cache.
+     * @param spec The Caffeine specification bounding size and TTL.
+     * @return The cache manager.
+     */
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${spring.cache.caffeine.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}") String spec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setCacheSpecification(spec);
+        caffeineCacheManager.setCacheNames(List.of(OWNERS, STORES, STORES_BY_OWNER));
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -0,0 +1,47 @@
+package com.siopa.partner_details.config;
+
+import com.siopa.partner_details.metrics.SqlStatementCounter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Latency and query metrics, exported on {@code /actuator/prometheus}.
+ * HTTP endpoints, repository calls and the Hikari pool are timed by Spring Boot;
+ * this adds {@code @Timed} support for services and per-request SQL statement counts.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Times methods of classes annotated with {@code @Timed}.
+     * @param meterRegistry The registry the timers are published to.
+     * @return The aspect.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Creates the counter Hibernate reports each prepared statement to.
+     * @return The statement counter.
+     */
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    /**
+     * Registers the statement counter with Hibernate.
+     * @param sqlStatementCounter The statement counter.
+     * @return The customizer.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+}
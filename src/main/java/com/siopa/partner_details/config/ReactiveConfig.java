@@ -0,0 +1,29 @@
+package com.siopa.partner_details.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Scheduler for the reactive read API.
+ * Repository calls block, so they are moved off the calling thread onto a
+ * bounded-elastic scheduler. Its thread cap defaults to the connection pool size,
+ * so requests queue for a thread rather than for a connection.
+ */
+@Configuration
+public class ReactiveConfig {
+
+    /**
+     * Creates the scheduler that runs blocking reads for reactive endpoints.
+     * @param threadCap The maximum number of threads.
+     * @param queueCap The maximum number of reads queued for a thread before new ones are rejected.
+     * @return The scheduler, disposed when the context closes.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(@Value("${partner.reactive.thread-cap:10}") int threadCap,
+                                   @Value("${partner.reactive.queue-cap:10000}") int queueCap) {
+        return Schedulers.newBoundedElastic(threadCap, queueCap, "partner-jdbc");
+    }
+}
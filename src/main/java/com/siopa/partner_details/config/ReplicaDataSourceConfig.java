@@ -0,0 +1,113 @@
+package com.siopa.partner_details.config;
+
+import com.siopa.partner_details.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Routes read-only transactions to a read replica when
+ * {@code partner.datasource.replica.url} is set.
+ * The primary pool is configured by {@code spring.datasource.*} as usual and the
+ * replica pool by {@code partner.datasource.replica.*}. Both pools are beans,
+ * so each publishes its own Hikari metrics.
+ */
+@Configuration
+@ConditionalOnProperty(name = "partner.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    /**
+     * Lag of a PostgreSQL standby: zero when it has replayed everything it has
+     * received, otherwise the age of the last replayed commit.
+     */
+    static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+            + "THEN 0 ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    /**
+     * Creates the primary pool, which takes all writes.
+     * @param properties The {@code spring.datasource} properties.
+     * @return The primary pool.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Creates the replica pool, which takes read-only transactions.
+     * @return The replica pool.
+     */
+    @Bean
+    @ConfigurationProperties("partner.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${partner.datasource.replica.url}") String url,
+                                              @Value("${partner.datasource.replica.username:${spring.datasource.username:}}")
+                                              String username,
+                                              @Value("${partner.datasource.replica.password:${spring.datasource.password:}}")
+                                              String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Creates the monitor that takes the replica out of rotation while it lags.
+     * @param replica The replica pool.
+     * @param lagQuery A query returning the replica's lag in seconds; defaults to the PostgreSQL standby query.
+     * @param maxLag The largest lag at which reads still go to the replica.
+     * @param meterRegistry The registry the lag gauge is published to.
+     * @return The monitor.
+     */
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${partner.datasource.replica.lag-query:}") String lagQuery,
+            @Value("${partner.datasource.replica.max-lag:PT5S}") Duration maxLag,
+            MeterRegistry meterRegistry) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica,
+                lagQuery.isBlank() ? POSTGRES_LAG_QUERY : lagQuery, maxLag);
+        Gauge.builder("partner.datasource.replica.lag", monitor, ReplicaLagMonitor::getLagSeconds)
+                .description("Replica lag found by the last check, NaN if unknown")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        return monitor;
+    }
+
+    /**
+     * Creates the data source used by JPA, Flyway and everything else.
+     * Connections are only taken from a pool at the first statement, when the
+     * transaction's read-only flag is known; read-only connections come from the
+     * replica unless the lag monitor has taken it out of rotation.
+     * @param primary The primary pool.
+     * @param lagMonitor The replica lag monitor.
+     * @return The routing data source.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary, ReplicaLagMonitor lagMonitor) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(lagMonitor.readOnlyDataSource(primary));
+        return dataSource;
+    }
+}
@@ -0,0 +1,29 @@
+package com.siopa.partner_details.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Scheduler for writing Server-Sent Events to subscribers.
+ * Writes block on slow clients, so they get threads of their own rather than
+ * sharing the application task executor with {@code @Async} work and async requests.
+ */
+@Configuration
+public class StreamConfig {
+
+    /**
+     * Creates the scheduler that writes queued SSE messages out.
+     * Each subscriber has at most one write task queued or running.
+     * @param threadCap The maximum number of writer threads.
+     * @param queueCap The maximum number of subscribers waiting for a writer before new ones are disconnected.
+     * @return The scheduler, disposed when the context closes.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler sseScheduler(@Value("${partner.stream.writer-threads:16}") int threadCap,
+                                  @Value("${partner.stream.writer-queue-cap:100000}") int queueCap) {
+        return Schedulers.newBoundedElastic(threadCap, queueCap, "partner-sse", 60, true);
+    }
+}
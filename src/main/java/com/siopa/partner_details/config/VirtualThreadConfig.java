@@ -0,0 +1,121 @@
+package com.siopa.partner_details.config;
+
+import com.siopa.partner_details.datasource.BoundedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Opt-in virtual-thread execution, enabled with {@code spring.threads.virtual.enabled=true}
+ * on a Java 21 or later runtime. Spring Boot then runs every request, {@code @Async}
+ * and {@code @Scheduled} task on a virtual thread.
+ * Requests are no longer limited by Tomcat's thread pool, so each connection pool is
+ * fronted by a {@link BoundedDataSource} with one permit per pooled connection.
+ * <p>
+ * The pools stay {@link HikariDataSource} beans, so they can still be injected by type
+ * and Spring Boot still binds their metrics, health and JMX beans. Each is replaced by a
+ * class-based proxy that takes its connections through the semaphore, and which unwraps
+ * to the {@link BoundedDataSource}.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * Bounds every Hikari pool with a semaphore of the pool's maximum size, waiting
+     * at most the pool's connection timeout.
+     * @return The post-processor.
+     */
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof HikariDataSource pool ? bound(pool) : bean;
+            }
+        };
+    }
+
+    /**
+     * Proxies a pool so {@code getConnection} goes through a {@link BoundedDataSource}
+     * and every other call goes to the pool itself.
+     */
+    static HikariDataSource bound(HikariDataSource pool) {
+        BoundedDataSource bounded = new BoundedDataSource(pool, maximumPoolSize(pool),
+                Duration.ofMillis(pool.getConnectionTimeout()));
+        ProxyFactory proxyFactory = new ProxyFactory(pool);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            Object[] args = invocation.getArguments();
+            switch (invocation.getMethod().getName()) {
+                case "getConnection":
+                    return args.length == 0 ? bounded.getConnection()
+                            : bounded.getConnection((String) args[0], (String) args[1]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(bounded) || pool.isWrapperFor((Class<?>) args[0]);
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(bounded) ? bounded : invocation.proceed();
+                default:
+                    return invocation.proceed();
+            }
+        });
+        return (HikariDataSource) proxyFactory.getProxy(pool.getClass().getClassLoader());
+    }
+
+    /**
+     * The size the pool will have once started. An unset maximum is only resolved when the
+     * pool starts, to the minimum idle count if set and otherwise to Hikari's default of 10.
+     */
+    static int maximumPoolSize(HikariDataSource pool) {
+        if (pool.getMaximumPoolSize() > 0) {
+            return pool.getMaximumPoolSize();
+        }
+        return pool.getMinimumIdle() > 0 ? pool.getMinimumIdle() : DEFAULT_POOL_SIZE;
+    }
+
+    /**
+     * Publishes each bounded pool's available permits and waiting callers, tagged by pool name.
+     * @param beanFactory The bean factory the bounded pools are looked up in.
+     * @return The binder.
+     */
+    @Bean
+    public MeterBinder boundedDataSourceMetrics(ListableBeanFactory beanFactory) {
+        return registry -> {
+            for (Map.Entry<String, HikariDataSource> bean : beanFactory.getBeansOfType(HikariDataSource.class).entrySet()) {
+                HikariDataSource hikari = bean.getValue();
+                BoundedDataSource dataSource;
+                try {
+                    if (!hikari.isWrapperFor(BoundedDataSource.class)) {
+                        continue;
+                    }
+                    dataSource = hikari.unwrap(BoundedDataSource.class);
+                } catch (SQLException e) {
+                    continue;
+                }
+                String pool = hikari.getPoolName() != null ? hikari.getPoolName() : bean.getKey();
+                Gauge.builder("partner.jdbc.permits.available", dataSource, BoundedDataSource::getAvailablePermits)
+                        .description("Connection permits not in use")
+                        .tag("pool", pool)
+                        .register(registry);
+                Gauge.builder("partner.jdbc.permits.waiting", dataSource, BoundedDataSource::getWaiting)
+                        .description("Callers waiting for a connection permit")
+                        .tag("pool", pool)
+                        .register(registry);
+            }
+        };
+    }
+}
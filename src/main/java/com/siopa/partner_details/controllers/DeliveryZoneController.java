@@ -0,0 +1,48 @@
+package com.siopa.partner_details.controllers;
+
+import com.siopa.partner_details.dto.ServingZone;
+import com.siopa.partner_details.service.DeliveryZoneService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * API Endpoints for delivery zones.
+ */
+@RestController
+@RequestMapping("/api/zones")
+public class DeliveryZoneController {
+
+    private final DeliveryZoneService deliveryZoneService;
+
+    public DeliveryZoneController(DeliveryZoneService deliveryZoneService) {
+        this.deliveryZoneService = deliveryZoneService;
+    }
+
+    /**
+     * Gets the delivery zones covering a point and the active stores serving them.
+     * @param lat The latitude of the point in degrees.
+     * @param lon The longitude of the point in degrees.
+     * @return The serving zones, or 400 Bad Request for invalid coordinates.
+     */
+    @GetMapping("/serving")
+    public ResponseEntity<List<ServingZone>> getServingZones(@RequestParam double lat, @RequestParam double lon) {
+        if (Math.abs(lat) > 90 || Math.abs(lon) > 180) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(deliveryZoneService.findServingZones(lat, lon));
+    }
+
+    /**
+     * Reloads the delivery zones from the configured shapefile.
+     * @return The number of zones loaded.
+     * @throws IOException If the shapefile cannot be read.
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<Map<String, Integer>> reloadZones() throws IOException {
+        return ResponseEntity.ok(Map.of("zones", deliveryZoneService.reloadZones()));
+    }
+}
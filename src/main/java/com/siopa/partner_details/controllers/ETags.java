@@ -0,0 +1,93 @@
+package com.siopa.partner_details.controllers;
+
+import com.siopa.partner_details.dto.CollectionVersion;
+import com.siopa.partner_details.exceptions.PreconditionFailedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Helpers for version based ETags and conditional requests.
+ * Entity ETags are the quoted entity version; collection ETags combine the
+ * row count, change sequence sum and deletion count of the table behind the listing.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Builds the ETag for an entity version.
+     * @param version The entity version.
+     * @return The quoted ETag.
+     */
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Builds the ETag for a listing.
+     * @param version The collection version of the table behind the listing.
+     * @return The quoted ETag.
+     */
+    static String of(CollectionVersion version) {
+        return "\"" + version.count() + "-" + version.changeSeqSum() + "-" + version.deletions() + "\"";
+    }
+
+    /**
+     * Checks an If-None-Match header against an ETag using weak comparison.
+     * @param ifNoneMatch The header value, possibly a comma separated list or {@code *}.
+     * @param etag The current ETag.
+     * @return True if the client's copy is current.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the version a conditional update expects from an If-Match header.
+     * @param ifMatch The header value, or null if absent.
+     * @return The expected version, or null if the update is unconditional.
+     * @throws PreconditionFailedException If the header is not a single strong version ETag.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match must be a single strong ETag");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match must be a single strong ETag");
+        }
+    }
+
+    /**
+     * Answers 304 Not Modified with the current ETag.
+     * @param etag The current ETag.
+     * @return The response.
+     */
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    /**
+     * Answers 200 OK with the entity and, when it has one, its version ETag.
+     * @param body The entity.
+     * @param version The entity version, or null if unknown.
+     * @return The response.
+     */
+    static <T> ResponseEntity<T> ok(T body, Long version) {
+        return version == null
+                ? ResponseEntity.ok(body)
+                : ResponseEntity.ok().eTag(of(version)).body(body);
+    }
+}
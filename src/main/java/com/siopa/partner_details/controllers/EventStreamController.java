@@ -0,0 +1,32 @@
+package com.siopa.partner_details.controllers;
+
+import com.siopa.partner_details.events.SseOutboxSink;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Streams owner and store changes relayed from the outbox.
+ */
+@RestController
+@RequestMapping("/api/events")
+public class EventStreamController {
+
+    private final SseOutboxSink sseOutboxSink;
+
+    public EventStreamController(SseOutboxSink sseOutboxSink) {
+        this.sseOutboxSink = sseOutboxSink;
+    }
+
+    /**
+     * Subscribes to owner and store changes as Server-Sent Events.
+     * Delivery is at-least-once; use the event ID to skip duplicates.
+     * Events are only sent by the instance that runs the outbox relay
+     * ({@code partner.outbox.relay-enabled}), so clients must be routed to it.
+     * @return The event stream.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return sseOutboxSink.subscribe();
+    }
+}
@@ -0,0 +1,103 @@
+package com.siopa.partner_details.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.partner_details.dto.CursorPage;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.function.BiFunction;
+
+/**
+ * Helpers for streaming keyset-paginated listings to the client.
+ */
+final class KeysetStreams {
+
+    /**
+     * Number of rows loaded per page while streaming.
+     */
+    static final int STREAM_PAGE_SIZE = 500;
+
+    /**
+     * Largest page a client may request with {@code limit}.
+     */
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private KeysetStreams() {
+    }
+
+    /**
+     * Clamps a client supplied page size to the supported range.
+     * @param limit The requested page size.
+     * @return The page size to use.
+     */
+    static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Writes the rows after a cursor as newline-delimited JSON, loading one page at a time,
+     * so only a single page is held in memory regardless of table size.
+     * A limit is not capped, since streaming holds no more than a page whatever its value.
+     * @param objectMapper The mapper used to serialize each row.
+     * @param pageLoader Loads the page after the given cursor with the given size.
+     * @param after The ID of the last row already seen, or null to start from the first.
+     * @param limit The maximum number of rows to write, or null for all of them.
+     * @return A streaming body writing one JSON document per line.
+     */
+    static <T> StreamingResponseBody ndjson(ObjectMapper objectMapper,
+                                            BiFunction<Long, Integer, CursorPage<T>> pageLoader,
+                                            Long after, Integer limit) {
+        return out -> {
+            Long cursor = after;
+            long remaining = limit == null ? Long.MAX_VALUE : Math.max(1, limit);
+            do {
+                CursorPage<T> page = pageLoader.apply(cursor, (int) Math.min(STREAM_PAGE_SIZE, remaining));
+                for (T item : page.items()) {
+                    out.write(objectMapper.writeValueAsBytes(item));
+                    out.write('\n');
+                }
+                out.flush();
+                remaining -= page.items().size();
+                cursor = page.nextCursor();
+            } while (cursor != null && remaining > 0);
+        };
+    }
+
+    /**
+     * Publishes every row, loading the next page only once the subscriber has
+     * requested past the current one, so at most two pages are held at a time.
+     * Pages are loaded on the given scheduler because the loader blocks.
+     * @param pageLoader Loads the page after the given cursor with the given size.
+     * @param scheduler The scheduler blocking page loads run on.
+     * @return The rows in ID order.
+     */
+    static <T> Flux<T> flux(BiFunction<Long, Integer, CursorPage<T>> pageLoader, Scheduler scheduler) {
+        return flux(pageLoader, null, null, scheduler);
+    }
+
+    /**
+     * Publishes the rows after a cursor the same way, stopping after {@code limit} rows.
+     * @param pageLoader Loads the page after the given cursor with the given size.
+     * @param after The ID of the last row already seen, or null to start from the first.
+     * @param limit The maximum number of rows to publish, or null for all of them.
+     * @param scheduler The scheduler blocking page loads run on.
+     * @return The rows in ID order.
+     */
+    static <T> Flux<T> flux(BiFunction<Long, Integer, CursorPage<T>> pageLoader, Long after, Integer limit,
+                            Scheduler scheduler) {
+        int pageSize = limit == null ? STREAM_PAGE_SIZE : Math.max(1, Math.min(limit, STREAM_PAGE_SIZE));
+        Flux<T> rows = loadPage(pageLoader, after, pageSize, scheduler)
+                .expand(page -> page.nextCursor() == null
+                        ? Mono.empty()
+                        : loadPage(pageLoader, page.nextCursor(), pageSize, scheduler))
+                .concatMapIterable(CursorPage::items, 1);
+        return limit == null ? rows : rows.take(Math.max(1, limit));
+    }
+
+    private static <T> Mono<CursorPage<T>> loadPage(BiFunction<Long, Integer, CursorPage<T>> pageLoader,
+                                                    Long after, int pageSize, Scheduler scheduler) {
+        return Mono.fromCallable(() -> pageLoader.apply(after, pageSize)).subscribeOn(scheduler);
+    }
+}
@@ -1,63 +1,188 @@
 package com.siopa.partner_details.controllers;
 
-import com.siopa.partner_details.models.Owner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.partner_details.dto.BatchResult;
+import com.siopa.partner_details.dto.CursorPage;
+import com.siopa.partner_details.dto.OwnerRequest;
+import com.siopa.partner_details.dto.OwnerResponse;
+import com.siopa.partner_details.dto.OwnerWithStores;
+import com.siopa.partner_details.dto.SearchPage;
 import com.siopa.partner_details.service.OwnerService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/owners")
 public class OwnerController {
 
+    private static final int MAX_BATCH_IDS = 100;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_OWNERS_WITH_STORES = 100;
+
     private final OwnerService ownerService;
+    private final ObjectMapper objectMapper;
 
-    public OwnerController(OwnerService ownerService) {
+    public OwnerController(OwnerService ownerService, ObjectMapper objectMapper) {
         this.ownerService = ownerService;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Gets all owners.
-     * @return List of all owners.
+     * Gets a page of owners ordered by ID using keyset pagination.
+     * Without a limit the first page holds 100 owners, so no request reads the whole table.
+     * The collection ETag is computed before the page is read, so a concurrent
+     * write can only make the next revalidation miss, never serve stale data.
+     * @param limit The maximum number of owners to return (default 100, capped at 1000).
+     * @param after The ID of the last owner from the previous page, if any.
+     * @param ifNoneMatch The ETag of the client's copy, if any.
+     * @return The page of owners and the cursor for the next page, or 304 Not Modified
+     * if the client's copy is current.
      */
     @GetMapping
-    public ResponseEntity<List<Owner>> getAllOwners() {
-        return ResponseEntity.ok(ownerService.getAllOwners());
+    public ResponseEntity<CursorPage<OwnerResponse>> getOwnersPage(
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.of(ownerService.getOwnersVersion());
+        if (ifNoneMatch != null && ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).body(ownerService.getOwnersPage(after, KeysetStreams.clampLimit(limit)));
+    }
+
+    /**
+     * Gets a page of owners with their store counts and stores, ordered by ID.
+     * Owners with more than {@value OwnerService#MAX_EMBEDDED_STORES} stores get only their counts.
+     * @param limit The maximum number of owners to return (capped at 100).
+     * @param after The ID of the last owner from the previous page, if any.
+     * @return The page of owners with their stores and the cursor for the next page.
+     */
+    @GetMapping(params = "include=stores")
+    public ResponseEntity<CursorPage<OwnerWithStores>> getOwnersWithStoresPage(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) Long after) {
+        int capped = Math.max(1, Math.min(limit, MAX_OWNERS_WITH_STORES));
+        return ResponseEntity.ok(ownerService.getOwnersWithStoresPage(after, capped));
+    }
+
+    /**
+     * Streams owners as newline-delimited JSON, one page at a time.
+     * @param limit The maximum number of owners to stream, or all of them if absent.
+     * @param after The ID of the last owner already seen, if any.
+     * @return A streaming response with one owner per line.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamOwners(@RequestParam(required = false) Integer limit,
+                                                              @RequestParam(required = false) Long after) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(KeysetStreams.ndjson(objectMapper, ownerService::getOwnersPage, after, limit));
+    }
+
+    /**
+     * Searches owners by a name or email fragment, best match first, for type-ahead.
+     * @param q The text to find; one or two characters match the start of words.
+     * @param offset The number of results to skip.
+     * @param limit The maximum number of results to return (capped at 100).
+     * @return The page of matching owners, or 400 Bad Request for a blank query or negative offset.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<SearchPage<OwnerResponse>> searchOwners(@RequestParam String q,
+                                                                  @RequestParam(defaultValue = "0") int offset,
+                                                                  @RequestParam(defaultValue = "20") int limit) {
+        if (q.isBlank() || offset < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        int capped = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        return ResponseEntity.ok(ownerService.searchOwners(q, offset, capped));
+    }
+
+    /**
+     * Gets many owners by ID in one call.
+     * @param ids The IDs of the owners (at most 100).
+     * @return One owner per requested ID in request order, null where not found, and the IDs not found,
+     * or 400 Bad Request if no IDs, a null ID or too many IDs are given.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult<OwnerResponse>> getOwnersByIds(@RequestBody List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_IDS || ids.stream().anyMatch(Objects::isNull)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(ownerService.getOwnersByIds(ids));
     }
 
     /**
      * Gets an owner by ID.
+     * Revalidation with If-None-Match only looks up the owner's version.
      * @param id The ID of the owner.
-     * @return The owner if found, else 404 Not Found.
+     * @param ifNoneMatch The ETag of the client's copy, if any.
+     * @return The owner if found, 304 Not Modified if the client's copy is current, else 404 Not Found.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Owner> getOwnerById(@PathVariable Long id) {
-        Optional<Owner> owner = ownerService.getOwnerById(id);
-        return owner.map(ResponseEntity::ok)
+    public ResponseEntity<OwnerResponse> getOwnerById(@PathVariable Long id,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                      String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<Long> version = ownerService.getOwnerVersion(id);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            String etag = ETags.of(version.get());
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
+            }
+        }
+        Optional<OwnerResponse> owner = ownerService.getOwnerById(id);
+        return owner.map(o -> ETags.ok(o, o.version()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Gets an owner with its store counts and stores, for rendering a dashboard in one request.
+     * Owners with more than {@value OwnerService#MAX_EMBEDDED_STORES} stores get only their counts.
+     * @param id The ID of the owner.
+     * @return The owner with its stores if found, else 404 Not Found.
+     */
+    @GetMapping(path = "/{id}", params = "include=stores")
+    public ResponseEntity<OwnerWithStores> getOwnerWithStores(@PathVariable Long id) {
+        return ownerService.getOwnerWithStores(id)
+                .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
      * Creates a new owner.
-     * @param owner The owner object to be created.
-     * @return The created owner.
+     * @param owner The owner details.
+     * @return The created owner, or 400 Bad Request if the details are invalid.
      */
     @PostMapping
-    public ResponseEntity<Owner> createOwner(@RequestBody Owner owner) {
-        return ResponseEntity.ok(ownerService.createOwner(owner));
+    public ResponseEntity<OwnerResponse> createOwner(@Valid @RequestBody OwnerRequest owner) {
+        return ResponseEntity.ok(ownerService.createOwner(owner.toOwner()));
     }
 
     /**
      * Updates an existing owner.
      * @param id The ID of the owner to update.
      * @param updatedOwner The new owner details.
-     * @return The updated owner if found, else 404 Not Found.
+     * @param ifMatch The ETag the client last saw; if given, the update only applies to that version.
+     * @return The updated owner if found, 400 Bad Request if the details are invalid,
+     * 412 Precondition Failed if it has changed, else 404 Not Found.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Owner> updateOwner(@PathVariable Long id, @RequestBody Owner updatedOwner) {
-        return ResponseEntity.ok(ownerService.updateOwner(id, updatedOwner));
+    public ResponseEntity<OwnerResponse> updateOwner(@PathVariable Long id,
+                                                     @Valid @RequestBody OwnerRequest updatedOwner,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                     String ifMatch) {
+        OwnerResponse owner = ownerService.updateOwner(id, updatedOwner.toOwner(), ETags.expectedVersion(ifMatch));
+        return ETags.ok(owner, owner.version());
     }
 
     /**
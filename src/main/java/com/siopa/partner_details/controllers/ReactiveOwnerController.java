@@ -0,0 +1,52 @@
+package com.siopa.partner_details.controllers;
+
+import com.siopa.partner_details.dto.OwnerResponse;
+import com.siopa.partner_details.service.OwnerService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Non-blocking read endpoints for owner entity.
+ */
+@RestController
+@RequestMapping("/api/reactive/owners")
+public class ReactiveOwnerController {
+
+    private final OwnerService ownerService;
+    private final Scheduler jdbcScheduler;
+
+    public ReactiveOwnerController(OwnerService ownerService, @Qualifier("jdbcScheduler") Scheduler jdbcScheduler) {
+        this.ownerService = ownerService;
+        this.jdbcScheduler = jdbcScheduler;
+    }
+
+    /**
+     * Streams all owners, one page at a time.
+     * @return The owners in ID order, one per line.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OwnerResponse> streamOwners() {
+        return KeysetStreams.flux(ownerService::getOwnersPage, jdbcScheduler);
+    }
+
+    /**
+     * Gets an owner by ID.
+     * @param id The ID of the owner.
+     * @return The owner if found, else 404 Not Found.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<OwnerResponse>> getOwnerById(@PathVariable Long id) {
+        return Mono.fromCallable(() -> ownerService.getOwnerById(id))
+                .subscribeOn(jdbcScheduler)
+                .map(owner -> owner.map(o -> ETags.ok(o, o.version()))
+                        .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+}
@@ -0,0 +1,94 @@
+package com.siopa.partner_details.controllers;
+
+import com.siopa.partner_details.dto.CursorPage;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.dto.StoreView;
+import com.siopa.partner_details.service.StoreService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Non-blocking read endpoints for store entity.
+ * Request threads are released while reads run on the JDBC scheduler, and
+ * listings are written as newline-delimited JSON as the client consumes them.
+ */
+@RestController
+@RequestMapping("/api/reactive/stores")
+public class ReactiveStoreController {
+
+    private final StoreService storeService;
+    private final Scheduler jdbcScheduler;
+
+    public ReactiveStoreController(StoreService storeService, @Qualifier("jdbcScheduler") Scheduler jdbcScheduler) {
+        this.storeService = storeService;
+        this.jdbcScheduler = jdbcScheduler;
+    }
+
+    /**
+     * Streams stores, one page at a time.
+     * @param limit The maximum number of stores to stream, or all of them if absent.
+     * @param after The ID of the last store already seen, if any.
+     * @return The stores in ID order, one per line.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<StoreResponse> streamStores(@RequestParam(required = false) Integer limit,
+                                            @RequestParam(required = false) Long after) {
+        return KeysetStreams.flux(storeService::getStoresPage, after, limit, jdbcScheduler);
+    }
+
+    /**
+     * Gets a page of stores ordered by ID using keyset pagination.
+     * @param limit The maximum number of stores to return (default 100, capped at 1000).
+     * @param after The ID of the last store from the previous page, if any.
+     * @return The page of stores and the cursor for the next page.
+     */
+    @GetMapping
+    public Mono<CursorPage<StoreResponse>> getStoresPage(@RequestParam(defaultValue = "100") int limit,
+                                                         @RequestParam(required = false) Long after) {
+        return Mono.fromCallable(() -> storeService.getStoresPage(after, KeysetStreams.clampLimit(limit)))
+                .subscribeOn(jdbcScheduler);
+    }
+
+    /**
+     * Streams active stores as lean views, one page at a time.
+     * @return The active store views in ID order, one per line.
+     */
+    @GetMapping(path = "/active", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<StoreView> streamActiveStores() {
+        return KeysetStreams.flux(storeService::getActiveStoreViewsPage, jdbcScheduler);
+    }
+
+    /**
+     * Gets a store by ID.
+     * @param id The ID of the store.
+     * @return The store if found, else 404 Not Found.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<StoreResponse>> getStoreById(@PathVariable Long id) {
+        return Mono.fromCallable(() -> storeService.getStoreById(id))
+                .subscribeOn(jdbcScheduler)
+                .map(store -> store.map(s -> ETags.ok(s, s.version()))
+                        .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+
+    /**
+     * Gets all stores belonging to an owner.
+     * @param ownerId The ID of the owner.
+     * @return The stores owned by the given owner.
+     */
+    @GetMapping("/owner/{ownerId}")
+    public Flux<StoreResponse> getStoresByOwner(@PathVariable Long ownerId) {
+        return Mono.fromCallable(() -> storeService.getStoresByOwnerId(ownerId))
+                .subscribeOn(jdbcScheduler)
+                .flatMapIterable(stores -> stores);
+    }
+}
@@ -0,0 +1,45 @@
+package com.siopa.partner_details.controllers;
+
+import com.siopa.partner_details.dto.OwnerStoreCounts;
+import com.siopa.partner_details.dto.PartnerStats;
+import com.siopa.partner_details.stats.PartnerStatistics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * API Endpoints for partner statistics, answered from memory.
+ */
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final PartnerStatistics partnerStatistics;
+
+    public StatsController(PartnerStatistics partnerStatistics) {
+        this.partnerStatistics = partnerStatistics;
+    }
+
+    /**
+     * Gets the number of owners and of active and inactive stores.
+     * @return The totals.
+     */
+    @GetMapping
+    public ResponseEntity<PartnerStats> getStats() {
+        return ResponseEntity.ok(partnerStatistics.getStats());
+    }
+
+    /**
+     * Gets the number of active and inactive stores of an owner.
+     * @param ownerId The ID of the owner.
+     * @return The owner's store counts, or 404 Not Found if the owner does not exist.
+     */
+    @GetMapping("/owners/{ownerId}")
+    public ResponseEntity<OwnerStoreCounts> getOwnerStats(@PathVariable long ownerId) {
+        return partnerStatistics.getOwnerStats(ownerId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
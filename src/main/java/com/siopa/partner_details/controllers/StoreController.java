@@ -1,11 +1,37 @@
 package com.siopa.partner_details.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.partner_details.config.BinaryFormatsConfig;
+import com.siopa.partner_details.dto.BatchResult;
+import com.siopa.partner_details.dto.BulkImportResult;
+import com.siopa.partner_details.dto.CursorPage;
+import com.siopa.partner_details.dto.NearbyStore;
+import com.siopa.partner_details.dto.SearchPage;
+import com.siopa.partner_details.dto.StoreChanges;
+import com.siopa.partner_details.dto.StoreRequest;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.dto.StoreView;
+import com.siopa.partner_details.events.StoreStream;
 import com.siopa.partner_details.models.Store;
+import com.siopa.partner_details.service.ChangeFeedService;
 import com.siopa.partner_details.service.StoreService;
+import com.siopa.partner_details.snapshot.StoreSnapshot;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -15,63 +41,322 @@ import java.util.Optional;
 @RequestMapping("/api/stores")
 public class StoreController {
 
+    private static final int MAX_NEARBY_STORES = 100;
+    private static final int MAX_BATCH_IDS = 100;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private final StoreService storeService;
+    private final ChangeFeedService changeFeedService;
+    private final ObjectMapper objectMapper;
+    private final StoreStream storeStream;
+    private final StoreSnapshot storeSnapshot;
 
-    public StoreController(StoreService storeService) {
+    public StoreController(StoreService storeService, ChangeFeedService changeFeedService,
+                           ObjectMapper objectMapper, StoreStream storeStream, StoreSnapshot storeSnapshot) {
         this.storeService = storeService;
+        this.changeFeedService = changeFeedService;
+        this.objectMapper = objectMapper;
+        this.storeStream = storeStream;
+        this.storeSnapshot = storeSnapshot;
     }
 
     /**
-     * Gets all stores.
-     * @return List of all stores.
+     * Gets a page of stores ordered by ID using keyset pagination.
+     * Without a limit the first page holds 100 stores, so no request reads the whole table.
+     * The collection ETag is computed before the page is read, so a concurrent
+     * write can only make the next revalidation miss, never serve stale data.
+     * @param limit The maximum number of stores to return (default 100, capped at 1000).
+     * @param after The ID of the last store from the previous page, if any.
+     * @param ifNoneMatch The ETag of the client's copy, if any.
+     * @return The page of stores and the cursor for the next page, or 304 Not Modified
+     * if the client's copy is current.
      */
     @GetMapping
-    public ResponseEntity<List<Store>> getAllStores() {
-        return ResponseEntity.ok(storeService.getAllStores());
+    public ResponseEntity<CursorPage<StoreResponse>> getStoresPage(
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.of(storeService.getStoresVersion());
+        if (ifNoneMatch != null && ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).body(storeService.getStoresPage(after, KeysetStreams.clampLimit(limit)));
+    }
+
+    /**
+     * Streams stores as newline-delimited JSON, one page at a time.
+     * @param limit The maximum number of stores to stream, or all of them if absent.
+     * @param after The ID of the last store already seen, if any.
+     * @return A streaming response with one store per line.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamStores(@RequestParam(required = false) Integer limit,
+                                                              @RequestParam(required = false) Long after) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(KeysetStreams.ndjson(objectMapper, storeService::getStoresPage, after, limit));
+    }
+
+    /**
+     * Gets all stores as lean views carrying only the owner's ID and name.
+     * @return List of store views.
+     */
+    @GetMapping("/views")
+    public ResponseEntity<List<StoreView>> getAllStoreViews() {
+        return ResponseEntity.ok(storeService.getAllStoreViews());
+    }
+
+    /**
+     * Gets a page of active stores as lean views using keyset pagination.
+     * @param limit The maximum number of stores to return (capped at 1000).
+     * @param after The ID of the last store from the previous page, if any.
+     * @return The page of active store views and the cursor for the next page.
+     */
+    @GetMapping("/active")
+    public ResponseEntity<CursorPage<StoreView>> getActiveStores(@RequestParam(defaultValue = "100") int limit,
+                                                                 @RequestParam(required = false) Long after) {
+        return ResponseEntity.ok(storeService.getActiveStoreViewsPage(after, KeysetStreams.clampLimit(limit)));
+    }
+
+    /**
+     * Gets the stores created, updated or deleted since a change token.
+     * Consumers keep a copy in sync by passing back {@code next} until {@code hasMore} is false.
+     * @param since The token from the previous response; omit for a full initial sync.
+     * @param limit The maximum number of changes to return (capped at 1000).
+     * @return The changes, or 400 Bad Request for a malformed token.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<StoreChanges> getStoreChanges(@RequestParam(required = false) String since,
+                                                        @RequestParam(defaultValue = "500") int limit) {
+        try {
+            return ResponseEntity.ok(changeFeedService.getStoreChanges(since, KeysetStreams.clampLimit(limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Subscribes to live store changes as Server-Sent Events, such as stores opening or closing.
+     * A {@code resync} event means changes were dropped because the client fell behind;
+     * catch up from {@code /changes} using the last event ID received.
+     * @param ownerId The owner whose stores to follow; omit for all stores.
+     * @return The event stream.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStoreChanges(@RequestParam(required = false) Long ownerId) {
+        return storeStream.subscribe(ownerId);
+    }
+
+    /**
+     * Searches stores by a name or address fragment, best match first.
+     * @param q The text to find; one or two characters match the start of words.
+     * @param offset The number of results to skip.
+     * @param limit The maximum number of results to return (capped at 100).
+     * @return The page of matching stores, or 400 Bad Request for a blank query or negative offset.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<SearchPage<StoreView>> searchStores(@RequestParam String q,
+                                                              @RequestParam(defaultValue = "0") int offset,
+                                                              @RequestParam(defaultValue = "20") int limit) {
+        if (q.isBlank() || offset < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        int capped = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        return ResponseEntity.ok(storeService.searchStores(q, offset, capped));
+    }
+
+    /**
+     * Finds active stores near a point, nearest first.
+     * @param lat The latitude of the point in degrees.
+     * @param lon The longitude of the point in degrees.
+     * @param radiusKm The search radius in kilometres; if omitted, the nearest stores are returned.
+     * @param limit The maximum number of stores to return (capped at 100).
+     * @return The stores found, or 400 Bad Request for invalid coordinates.
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyStore>> getNearbyStores(@RequestParam double lat,
+                                                             @RequestParam double lon,
+                                                             @RequestParam(required = false) Double radiusKm,
+                                                             @RequestParam(defaultValue = "10") int limit) {
+        if (Math.abs(lat) > 90 || Math.abs(lon) > 180 || (radiusKm != null && radiusKm < 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        int capped = Math.max(1, Math.min(limit, MAX_NEARBY_STORES));
+        return ResponseEntity.ok(storeService.findNearbyStores(lat, lon, radiusKm, capped));
+    }
+
+    /**
+     * Gets many stores by ID in one call.
+     * Cached stores are served from the cache and the rest are loaded in one query.
+     * @param ids The IDs of the stores (at most 100).
+     * @return One store per requested ID in request order, null where not found, and the IDs not found,
+     * or 400 Bad Request if no IDs, a null ID or too many IDs are given.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult<StoreResponse>> getStoresByIds(@RequestBody List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_IDS || ids.stream().anyMatch(Objects::isNull)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(storeService.getStoresByIds(ids));
     }
 
     /**
      * Gets a store by ID.
+     * When the store snapshot is enabled and JSON is the preferred response type, including
+     * when no {@code Accept} header is sent, the store's pre-serialized bytes are written
+     * from the snapshot. Otherwise, or if the snapshot does not hold the store, it is read
+     * through the service, and revalidation with If-None-Match only looks up its version.
      * @param id The ID of the store.
-     * @return The store if found, else 404 Not Found.
+     * @param ifNoneMatch The ETag of the client's copy, if any.
+     * @param accept The response types the client accepts, if given.
+     * @return The store if found, 304 Not Modified if the client's copy is current, else 404 Not Found.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Store> getStoreById(@PathVariable Long id) {
-        Optional<Store> store = storeService.getStoreById(id);
-        return store.map(ResponseEntity::ok)
+    public ResponseEntity<?> getStoreById(@PathVariable Long id,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                          String ifNoneMatch,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false)
+                                          String accept) {
+        if (storeSnapshot.isEnabled() && prefersJson(accept)) {
+            Optional<StoreSnapshot.Entry> cached = storeSnapshot.find(id);
+            if (cached.isPresent()) {
+                String etag = ETags.of(cached.get().version());
+                if (ifNoneMatch != null && ETags.matches(ifNoneMatch, etag)) {
+                    return ETags.notModified(etag);
+                }
+                return ResponseEntity.ok()
+                        .eTag(etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(cached.get().json());
+            }
+        }
+        if (ifNoneMatch != null) {
+            Optional<Long> version = storeService.getStoreVersion(id);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            String etag = ETags.of(version.get());
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
+            }
+        }
+        Optional<StoreResponse> store = storeService.getStoreById(id);
+        return store.map(s -> ETags.ok(s, s.version()))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * Checks whether JSON would be negotiated for an {@code Accept} header. JSON is the
+     * default, so it wins when the header is missing or rates it as high as Smile and CBOR.
+     * @param accept The {@code Accept} header, if any.
+     * @return True if the response would be JSON.
+     */
+    static boolean prefersJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            // Left to the usual content negotiation to reject
+            return false;
+        }
+        double json = quality(accepted, MediaType.APPLICATION_JSON);
+        return json > 0 && json >= quality(accepted, BinaryFormatsConfig.APPLICATION_SMILE)
+                && json >= quality(accepted, MediaType.APPLICATION_CBOR);
+    }
+
+    /**
+     * Gets the quality the most specific matching media range gives a type.
+     */
+    private static double quality(List<MediaType> accepted, MediaType type) {
+        MediaType match = null;
+        for (MediaType range : accepted) {
+            if (range.includes(type) && (match == null || range.isMoreSpecific(match))) {
+                match = range;
+            }
+        }
+        return match == null ? 0 : match.getQualityValue();
+    }
+
     /**
      * Gets all stores belonging to an owner.
      * @param ownerId The ID of the owner.
      * @return List of stores owned by the given owner.
      */
     @GetMapping("/owner/{ownerId}")
-    public ResponseEntity<List<Store>> getStoresByOwner(@PathVariable Long ownerId) {
+    public ResponseEntity<List<StoreResponse>> getStoresByOwner(@PathVariable Long ownerId) {
         return ResponseEntity.ok(storeService.getStoresByOwnerId(ownerId));
     }
 
+    /**
+     * Gets the stores of an owner as lean views.
+     * @param ownerId The ID of the owner.
+     * @return List of store views owned by the given owner.
+     */
+    @GetMapping("/owner/{ownerId}/views")
+    public ResponseEntity<List<StoreView>> getStoreViewsByOwner(@PathVariable Long ownerId) {
+        return ResponseEntity.ok(storeService.getStoreViewsByOwnerId(ownerId));
+    }
+
     /**
      * Creates a new store for an owner.
      * @param ownerId The ID of the owner.
-     * @param store The store object to be created.
-     * @return The created store.
+     * @param store The store details.
+     * @return The created store, or 400 Bad Request if the details are invalid.
      */
     @PostMapping("/owner/{ownerId}")
-    public ResponseEntity<Store> createStore(@PathVariable Long ownerId, @RequestBody Store store) {
-        return ResponseEntity.ok(storeService.createStore(store, ownerId));
+    public ResponseEntity<StoreResponse> createStore(@PathVariable Long ownerId,
+                                                     @Valid @RequestBody StoreRequest store) {
+        return ResponseEntity.ok(storeService.createStore(store.toStore(), ownerId));
+    }
+
+    /**
+     * Creates many stores for an owner in one call.
+     * Rows are validated individually, so invalid rows are reported rather than failing the request.
+     * @param ownerId The ID of the owner.
+     * @param stores The details of the stores to create.
+     * @return The import report with created IDs and per-row errors.
+     */
+    @PostMapping(value = "/owner/{ownerId}/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkImportResult> createStores(@PathVariable Long ownerId,
+                                                         @RequestBody List<StoreRequest> stores) {
+        List<Store> rows = stores.stream().map(row -> row == null ? null : row.toStore()).toList();
+        return ResponseEntity.ok(storeService.createStores(rows, ownerId));
+    }
+
+    /**
+     * Creates many stores for an owner from an uploaded CSV file.
+     * @param ownerId The ID of the owner.
+     * @param file The CSV file with a header line naming the columns.
+     * @return The import report with created IDs and per-row errors,
+     * or 400 Bad Request if the header lacks the name or address column.
+     * @throws IOException If the upload cannot be read.
+     */
+    @PostMapping(value = "/owner/{ownerId}/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BulkImportResult> importStoresCsv(@PathVariable Long ownerId,
+                                                            @RequestParam("file") MultipartFile file) throws IOException {
+        try (Reader csv = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(storeService.createStoresFromCsv(csv, ownerId));
+        }
     }
 
     /**
      * Updates an existing store.
      * @param id The ID of the store to update.
      * @param updatedStore The new store details.
-     * @return The updated store if found, else 404 Not Found.
+     * @param ifMatch The ETag the client last saw; if given, the update only applies to that version.
+     * @return The updated store if found, 400 Bad Request if the details are invalid,
+     * 412 Precondition Failed if it has changed, else 404 Not Found.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Store> updateStore(@PathVariable Long id, @RequestBody Store updatedStore) {
-        return ResponseEntity.ok(storeService.updateStore(id, updatedStore));
+    public ResponseEntity<StoreResponse> updateStore(@PathVariable Long id,
+                                                     @Valid @RequestBody StoreRequest updatedStore,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                     String ifMatch) {
+        StoreResponse store = storeService.updateStore(id, updatedStore.toStore(), ETags.expectedVersion(ifMatch));
+        return ETags.ok(store, store.version());
     }
 
     /**
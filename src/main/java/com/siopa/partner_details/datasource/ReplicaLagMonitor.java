@@ -0,0 +1,99 @@
+package com.siopa.partner_details.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Periodically measures how far the replica is behind the primary.
+ * The replica is only used for reads while the last check succeeded and found
+ * the lag within the limit; until the first check it is not used at all.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replicaDataSource;
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+
+    private volatile boolean replicaUsable;
+    private volatile double lagSeconds = Double.NaN;
+
+    /**
+     * @param replica The replica data source.
+     * @param lagQuery A query returning the replica's lag in seconds, or null if unknown.
+     * @param maxLag The largest lag at which reads still go to the replica.
+     */
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag) {
+        this.replicaDataSource = replica;
+        this.replica = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    /**
+     * Measures the replica's lag and decides whether reads may use it.
+     */
+    @Scheduled(fixedDelayString = "${partner.datasource.replica.lag-check-interval:PT1S}")
+    public void check() {
+        boolean wasUsable = replicaUsable;
+        try {
+            Double lag = replica.queryForObject(lagQuery, Double.class);
+            lagSeconds = lag == null ? Double.NaN : lag;
+            replicaUsable = lag != null && lag * 1000 <= maxLag.toMillis();
+        } catch (DataAccessException e) {
+            lagSeconds = Double.NaN;
+            replicaUsable = false;
+        }
+        if (wasUsable != replicaUsable) {
+            log.info("Replica reads {} (lag {}s, limit {})", replicaUsable ? "enabled" : "disabled", lagSeconds, maxLag);
+        }
+    }
+
+    /**
+     * Checks whether read-only transactions may use the replica.
+     * @return True if the last check found the replica within the lag limit.
+     */
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    /**
+     * Creates the data source for read-only connections, to be set as a
+     * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}'s read-only data source.
+     * Each connection comes from the replica while it is usable and from the primary otherwise.
+     * @param primary The primary data source.
+     * @return The read-only data source.
+     */
+    public DataSource readOnlyDataSource(DataSource primary) {
+        return new DelegatingDataSource(replicaDataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return (replicaUsable ? replicaDataSource : primary).getConnection();
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return (replicaUsable ? replicaDataSource : primary).getConnection(username, password);
+            }
+        };
+    }
+
+    /**
+     * Gets the lag found by the last check.
+     * @return The lag in seconds, or NaN if it could not be measured.
+     */
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+}
@@ -0,0 +1,13 @@
+package com.siopa.partner_details.dto;
+
+import java.util.List;
+
+/**
+ * The result of looking up many entities by ID at once.
+ * @param items One entity per requested ID, in request order and including repeats;
+ *              null where the ID does not exist.
+ * @param missing The requested IDs that do not exist, once each, in request order.
+ * @param <T> The type of entity.
+ */
+public record BatchResult<T>(List<T> items, List<Long> missing) {
+}
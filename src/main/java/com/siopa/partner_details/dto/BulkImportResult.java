@@ -0,0 +1,23 @@
+package com.siopa.partner_details.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk store import.
+ * Valid rows are created, invalid rows are skipped and reported individually.
+ * @param received The number of rows received.
+ * @param created The number of stores created.
+ * @param createdIds The IDs of the created stores, in row order.
+ * @param errors The problems found, one entry per invalid field or row.
+ */
+public record BulkImportResult(int received, int created, List<Long> createdIds, List<RowError> errors) {
+
+    /**
+     * A problem with a single row of the import.
+     * @param row The 1-based row number (excluding any CSV header).
+     * @param field The offending field, or null if the problem concerns the whole row.
+     * @param message A description of the problem.
+     */
+    public record RowError(int row, String field, String message) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.siopa.partner_details.dto;
+
+/**
+ * Position in the change feed: the change sequence and ID of the last row seen.
+ * Rows written together share a change sequence, so the ID breaks ties.
+ * @param changeSeq The change sequence of the last row seen.
+ * @param id The ID of the last row seen.
+ */
+public record ChangeToken(long changeSeq, long id) {
+
+    /**
+     * The position before every change.
+     */
+    public static final ChangeToken START = new ChangeToken(0, 0);
+
+    /**
+     * Parses a token in the form {@code <changeSeq>:<id>}.
+     * @param token The token, or null or blank to start from the beginning.
+     * @return The parsed token.
+     * @throws IllegalArgumentException If the token is malformed.
+     */
+    public static ChangeToken parse(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        int colon = token.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Invalid change token: " + token);
+        }
+        try {
+            return new ChangeToken(Long.parseLong(token.substring(0, colon)), Long.parseLong(token.substring(colon + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid change token: " + token);
+        }
+    }
+
+    /**
+     * Checks whether a row lies after this position.
+     * @param changeSeq The row's change sequence.
+     * @param id The row's ID.
+     * @return True if the row comes after this position in feed order.
+     */
+    public boolean isBefore(long changeSeq, long id) {
+        return this.changeSeq < changeSeq || (this.changeSeq == changeSeq && this.id < id);
+    }
+
+    @Override
+    public String toString() {
+        return changeSeq + ":" + id;
+    }
+}
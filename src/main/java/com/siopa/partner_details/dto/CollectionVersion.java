@@ -0,0 +1,14 @@
+package com.siopa.partner_details.dto;
+
+/**
+ * Summarises the state of a whole table for collection ETags.
+ * Every write stamps its rows with a fresh change sequence larger than any before it,
+ * so inserts and updates raise the sum and deletes lower the count and leave a tombstone.
+ * Two states with the same count and sum would need the rows a write added to sum to
+ * no more than the rows it replaced, which the sequence rules out.
+ * @param count The number of rows.
+ * @param changeSeqSum The sum of the rows' change sequences.
+ * @param deletions The number of tombstones deletes have left, or zero if the table keeps none.
+ */
+public record CollectionVersion(Long count, Long changeSeqSum, Long deletions) {
+}
@@ -0,0 +1,29 @@
+package com.siopa.partner_details.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of results from a keyset (cursor) paginated query.
+ * @param items The items in this page, ordered by ID.
+ * @param nextCursor The cursor to pass as {@code after} for the next page, or null if this is the last page.
+ * @param <T> The type of item in the page.
+ */
+public record CursorPage<T>(List<T> items, Long nextCursor) {
+
+    /**
+     * Builds a page from a query that fetched up to {@code limit + 1} rows.
+     * The extra row only signals that another page exists and is not returned.
+     * @param rows The rows fetched, ordered by ID.
+     * @param limit The page size requested by the caller.
+     * @param idOf Extracts the ID used as the cursor.
+     * @return The page of at most {@code limit} items.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, Long> idOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, idOf.apply(items.get(limit - 1)));
+    }
+}
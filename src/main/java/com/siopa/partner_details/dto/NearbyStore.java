@@ -0,0 +1,14 @@
+package com.siopa.partner_details.dto;
+
+/**
+ * A store found by a proximity search.
+ * @param storeId The ID of the store.
+ * @param ownerId The ID of the store's owner.
+ * @param name The store name.
+ * @param latitude The latitude in degrees.
+ * @param longitude The longitude in degrees.
+ * @param distanceKm The great-circle distance from the search point in kilometres.
+ */
+public record NearbyStore(long storeId, long ownerId, String name,
+                          double latitude, double longitude, double distanceKm) {
+}
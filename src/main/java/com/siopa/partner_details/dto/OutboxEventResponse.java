@@ -0,0 +1,32 @@
+package com.siopa.partner_details.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.siopa.partner_details.events.AggregateType;
+import com.siopa.partner_details.events.ChangeType;
+import com.siopa.partner_details.models.OutboxEvent;
+
+import java.time.Instant;
+
+/**
+ * An outbox event as sent to stream subscribers.
+ * @param payload The entity after the change as JSON, embedded as is, or null if it was deleted.
+ */
+public record OutboxEventResponse(
+        Long id,
+        long changeSeq,
+        AggregateType aggregateType,
+        Long aggregateId,
+        ChangeType changeType,
+        @JsonRawValue String payload,
+        Instant createdAt) {
+
+    /**
+     * Builds the response for an outbox event.
+     * @param event The outbox event.
+     * @return The response.
+     */
+    public static OutboxEventResponse of(OutboxEvent event) {
+        return new OutboxEventResponse(event.getId(), event.getChangeSeq(), event.getAggregateType(),
+                event.getAggregateId(), event.getChangeType(), event.getPayload(), event.getCreatedAt());
+    }
+}
@@ -0,0 +1,35 @@
+package com.siopa.partner_details.dto;
+
+import com.siopa.partner_details.models.Owner;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * The owner details a client may create or update.
+ */
+public record OwnerRequest(
+        @NotBlank(message = "Owner name is required")
+        @Size(min = 2, max = 100, message = "Owner name must be between 2 and 100 characters")
+        String name,
+
+        @Email(message = "Invalid email format")
+        @NotBlank(message = "Email is required")
+        @Size(max = 100, message = "Email must be at most 100 characters")
+        String email,
+
+        @Size(max = 15, message = "Phone number must be at most 15 characters")
+        String phoneNumber) {
+
+    /**
+     * Builds a new, unsaved owner with these details.
+     * @return The owner.
+     */
+    public Owner toOwner() {
+        return Owner.builder()
+                .name(name)
+                .email(email)
+                .phoneNumber(phoneNumber)
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.siopa.partner_details.dto;
+
+import com.siopa.partner_details.models.Owner;
+
+/**
+ * An owner as returned by the API.
+ * @param version The owner's version, also sent as its ETag.
+ */
+public record OwnerResponse(
+        Long id,
+        String name,
+        String email,
+        String phoneNumber,
+        Long version) {
+
+    /**
+     * Builds the response for an owner.
+     * @param owner The owner.
+     * @return The response.
+     */
+    public static OwnerResponse of(Owner owner) {
+        return new OwnerResponse(owner.getId(), owner.getName(), owner.getEmail(), owner.getPhoneNumber(),
+                owner.getVersion());
+    }
+}
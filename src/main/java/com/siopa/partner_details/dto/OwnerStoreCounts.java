@@ -0,0 +1,10 @@
+package com.siopa.partner_details.dto;
+
+/**
+ * The number of active and inactive stores an owner has.
+ * @param ownerId The ID of the owner.
+ * @param activeStores The number of active stores.
+ * @param inactiveStores The number of inactive stores.
+ */
+public record OwnerStoreCounts(long ownerId, long activeStores, long inactiveStores) {
+}
@@ -0,0 +1,30 @@
+package com.siopa.partner_details.dto;
+
+/**
+ * An owner with the number of active and inactive stores it has,
+ * counted in the same query that reads the owner.
+ * @param id The owner's ID.
+ * @param name The owner's name.
+ * @param email The owner's email.
+ * @param phoneNumber The owner's phone number.
+ * @param version The owner's version, also its ETag.
+ * @param activeStores The number of the owner's active stores.
+ * @param inactiveStores The number of the owner's inactive stores.
+ */
+public record OwnerSummary(
+        Long id,
+        String name,
+        String email,
+        String phoneNumber,
+        Long version,
+        Long activeStores,
+        Long inactiveStores) {
+
+    /**
+     * Gets the total number of the owner's stores.
+     * @return The store count.
+     */
+    public long storeCount() {
+        return activeStores + inactiveStores;
+    }
+}
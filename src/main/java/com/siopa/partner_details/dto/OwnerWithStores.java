@@ -0,0 +1,18 @@
+package com.siopa.partner_details.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.util.List;
+
+/**
+ * An owner with its store counts and, unless it has too many, its stores,
+ * so a dashboard needs a single request.
+ * Serialized as the owner's fields followed by {@code stores}.
+ * @param owner The owner and its store counts.
+ * @param stores The owner's stores ordered by ID, or null if the owner has too many to embed.
+ */
+public record OwnerWithStores(
+        @JsonUnwrapped OwnerSummary owner,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<StoreView> stores) {
+}
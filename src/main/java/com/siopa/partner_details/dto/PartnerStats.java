@@ -0,0 +1,14 @@
+package com.siopa.partner_details.dto;
+
+import java.time.Instant;
+
+/**
+ * Catalogue-wide partner totals.
+ * @param owners The number of owners.
+ * @param stores The number of stores.
+ * @param activeStores The number of active stores.
+ * @param inactiveStores The number of inactive stores.
+ * @param reconciledAt When the totals were last checked against the database, or null if never.
+ */
+public record PartnerStats(long owners, long stores, long activeStores, long inactiveStores, Instant reconciledAt) {
+}
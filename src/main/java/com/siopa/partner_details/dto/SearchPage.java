@@ -0,0 +1,13 @@
+package com.siopa.partner_details.dto;
+
+import java.util.List;
+
+/**
+ * A page of ranked search results.
+ * @param items The results in this page, best match first.
+ * @param total The number of results across all pages.
+ * @param nextOffset The offset to pass for the next page, or null if this is the last page.
+ * @param <T> The type of result.
+ */
+public record SearchPage<T>(List<T> items, int total, Integer nextOffset) {
+}
@@ -0,0 +1,12 @@
+package com.siopa.partner_details.dto;
+
+import java.util.List;
+
+/**
+ * A delivery zone covering a point, with the active stores inside it.
+ * @param zoneId The zone ID.
+ * @param zoneName The zone name.
+ * @param stores The active stores located in the zone, nearest to the point first.
+ */
+public record ServingZone(String zoneId, String zoneName, List<NearbyStore> stores) {
+}
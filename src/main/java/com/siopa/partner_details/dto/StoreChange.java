@@ -0,0 +1,22 @@
+package com.siopa.partner_details.dto;
+
+import java.time.Instant;
+
+/**
+ * A changed store as read by the change feed: its response and where the change sits in the feed.
+ * @param changeSeq The change sequence of the store's last write.
+ * @param updatedAt The time of the store's last write.
+ * @param store The store's current state.
+ */
+public record StoreChange(long changeSeq, Instant updatedAt, StoreResponse store) {
+
+    /**
+     * Builds a change from the columns selected by the change feed query.
+     */
+    public StoreChange(long changeSeq, Instant updatedAt, Long id, String name, String address, boolean active,
+                       String phoneNumber, String email, Double latitude, Double longitude, Long version,
+                       Long ownerId, String ownerName) {
+        this(changeSeq, updatedAt, new StoreResponse(id, name, address, active, phoneNumber, email,
+                latitude, longitude, version, ownerId, ownerName));
+    }
+}
@@ -0,0 +1,14 @@
+package com.siopa.partner_details.dto;
+
+import java.util.List;
+
+/**
+ * A page of the store change feed.
+ * A store appears at most once per page, either as changed or as deleted.
+ * @param changed Stores created or updated since the token, with their current state.
+ * @param deleted Stores deleted since the token.
+ * @param next The token to pass as {@code since} for the next page.
+ * @param hasMore True if further changes are already available.
+ */
+public record StoreChanges(List<StoreResponse> changed, List<StoreDeletion> deleted, String next, boolean hasMore) {
+}
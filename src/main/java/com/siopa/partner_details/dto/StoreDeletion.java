@@ -0,0 +1,13 @@
+package com.siopa.partner_details.dto;
+
+import java.time.Instant;
+
+/**
+ * A deleted store as read by the change feed.
+ * @param storeId The ID of the deleted store.
+ * @param ownerId The ID of the store's owner at deletion.
+ * @param changeSeq The change sequence of the deletion.
+ * @param deletedAt The time of the deletion.
+ */
+public record StoreDeletion(Long storeId, Long ownerId, long changeSeq, Instant deletedAt) {
+}
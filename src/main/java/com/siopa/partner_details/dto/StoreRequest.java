@@ -0,0 +1,55 @@
+package com.siopa.partner_details.dto;
+
+import com.siopa.partner_details.models.Store;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * The store details a client may create or update.
+ * @param active Whether the store is open for orders; defaults to true if omitted.
+ */
+public record StoreRequest(
+        @NotBlank(message = "Store name is required")
+        @Size(min = 2, max = 100, message = "Store name must be between 2 and 100 characters")
+        String name,
+
+        @NotBlank(message = "Address is required")
+        @Size(min = 5, max = 255, message = "Address must be between 5 and 255 characters")
+        String address,
+
+        Boolean active,
+
+        @Size(max = 15, message = "Phone number must be at most 15 characters")
+        String phoneNumber,
+
+        @Email(message = "Invalid email format")
+        @Size(max = 100, message = "Email must be at most 100 characters")
+        String email,
+
+        @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+        @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+        Double latitude,
+
+        @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+        @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+        Double longitude) {
+
+    /**
+     * Builds a new, unsaved store with these details.
+     * @return The store, without an owner.
+     */
+    public Store toStore() {
+        return Store.builder()
+                .name(name)
+                .address(address)
+                .isActive(active == null || active)
+                .phoneNumber(phoneNumber)
+                .email(email)
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.siopa.partner_details.dto;
+
+import com.siopa.partner_details.models.Store;
+
+/**
+ * A store as returned by the API.
+ * Refers to its owner by ID and name instead of embedding the owner.
+ * @param version The store's version, also sent as its ETag.
+ */
+public record StoreResponse(
+        Long id,
+        String name,
+        String address,
+        boolean active,
+        String phoneNumber,
+        String email,
+        Double latitude,
+        Double longitude,
+        Long version,
+        Long ownerId,
+        String ownerName) {
+
+    /**
+     * Builds the response for a store.
+     * @param store The store, with its owner.
+     * @return The response.
+     */
+    public static StoreResponse of(Store store) {
+        return new StoreResponse(store.getId(), store.getName(), store.getAddress(), store.isActive(),
+                store.getPhoneNumber(), store.getEmail(), store.getLatitude(), store.getLongitude(),
+                store.getVersion(), store.getOwner().getId(), store.getOwner().getName());
+    }
+}
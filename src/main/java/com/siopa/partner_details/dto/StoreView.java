@@ -0,0 +1,28 @@
+package com.siopa.partner_details.dto;
+
+import com.siopa.partner_details.models.Store;
+
+/**
+ * Lean read model of a store for listings.
+ * Carries only the owner's ID and name instead of the whole owner.
+ */
+public record StoreView(
+        Long id,
+        String name,
+        String address,
+        boolean active,
+        String phoneNumber,
+        String email,
+        Long ownerId,
+        String ownerName) {
+
+    /**
+     * Builds the view of a store.
+     * @param store The store, with its owner.
+     * @return The view.
+     */
+    public static StoreView of(Store store) {
+        return new StoreView(store.getId(), store.getName(), store.getAddress(), store.isActive(),
+                store.getPhoneNumber(), store.getEmail(), store.getOwner().getId(), store.getOwner().getName());
+    }
+}
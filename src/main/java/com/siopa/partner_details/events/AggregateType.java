@@ -0,0 +1,9 @@
+package com.siopa.partner_details.events;
+
+/**
+ * The kind of entity an outbox event describes.
+ */
+public enum AggregateType {
+    OWNER,
+    STORE
+}
@@ -0,0 +1,10 @@
+package com.siopa.partner_details.events;
+
+/**
+ * The kind of change made to an owner or store.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,74 @@
+package com.siopa.partner_details.events;
+
+import com.siopa.partner_details.models.OutboxEvent;
+import com.siopa.partner_details.repositories.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drains the outbox in batches, handing each event to every sink in change sequence order.
+ * Delivered events are deleted; if a sink fails, the rest of the batch is left
+ * for the next poll so later changes never overtake an undelivered one.
+ * Runs on one scheduler thread, so an instance delivers in order. Rows are not
+ * claimed, so two relays would deliver every event twice; the relay is therefore
+ * off unless {@code partner.outbox.relay-enabled} is set, which should be done on
+ * exactly one instance.
+ */
+@Component
+@ConditionalOnProperty(name = "partner.outbox.relay-enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxRepository;
+    private final List<OutboxSink> sinks;
+
+    @Value("${partner.outbox.batch-size:100}")
+    private int batchSize = 100;
+
+    public OutboxRelay(OutboxEventRepository outboxRepository, List<OutboxSink> sinks) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = sinks;
+    }
+
+    /**
+     * Delivers batches until the outbox is empty or a sink fails.
+     */
+    @Scheduled(fixedDelayString = "${partner.outbox.poll-interval:PT0.5S}")
+    public void relay() {
+        while (relayBatch() == batchSize) {
+            // A full batch means more events may be waiting
+        }
+    }
+
+    /**
+     * Delivers one batch of events.
+     * @return The number of events delivered; less than the batch size if the outbox is drained or a sink failed.
+     */
+    int relayBatch() {
+        List<OutboxEvent> events = outboxRepository.findOldest(Limit.of(batchSize));
+        List<Long> delivered = new ArrayList<>(events.size());
+        try {
+            for (OutboxEvent event : events) {
+                for (OutboxSink sink : sinks) {
+                    sink.deliver(event);
+                }
+                delivered.add(event.getId());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Outbox delivery failed at event {}; retrying on the next poll", events.get(delivered.size()).getId(), e);
+        }
+        if (!delivered.isEmpty()) {
+            outboxRepository.deleteDelivered(delivered);
+        }
+        return delivered.size();
+    }
+}
@@ -0,0 +1,20 @@
+package com.siopa.partner_details.events;
+
+import com.siopa.partner_details.models.OutboxEvent;
+
+/**
+ * A destination for relayed outbox events, such as a message broker.
+ * Delivery is at-least-once: if the relay stops before recording an event as
+ * delivered, every sink sees it again, so consumers should ignore event IDs
+ * they have already processed.
+ */
+public interface OutboxSink {
+
+    /**
+     * Delivers one event. Events arrive in outbox order, so changes to the same
+     * owner or store arrive in the order they were committed.
+     * @param event The event to deliver.
+     * @throws RuntimeException If the event could not be delivered; it is retried on the next poll.
+     */
+    void deliver(OutboxEvent event);
+}
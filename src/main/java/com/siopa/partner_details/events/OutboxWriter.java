@@ -0,0 +1,107 @@
+package com.siopa.partner_details.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.partner_details.dto.OwnerResponse;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.models.OutboxEvent;
+import com.siopa.partner_details.repositories.OutboxEventRepository;
+import com.siopa.partner_details.service.ChangeSequence;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records owner and store changes in the outbox, inside the transaction that made them.
+ * Events are collected while the transaction runs and saved just before it commits,
+ * so a transaction adds a single batched insert however many changes it makes, and
+ * the insert is not split up by the bulk statements that flush mid-transaction.
+ * A rolled-back transaction leaves nothing in the outbox.
+ * <p>
+ * The events are stamped with a change sequence value taken at that point, once the
+ * transaction holds every row lock it needs. Two transactions changing the same
+ * aggregate are serialised by its row lock, so the later one always takes the higher
+ * value and its events are relayed after the earlier one's, whichever instance wrote them.
+ */
+@Component
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final ChangeSequence changeSequence;
+
+    public OutboxWriter(OutboxEventRepository outboxRepository, ObjectMapper objectMapper,
+                        ChangeSequence changeSequence) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.changeSequence = changeSequence;
+    }
+
+    @EventListener
+    public void onStoreChanged(StoreChangedEvent event) {
+        append(AggregateType.STORE, event.storeId(), event.type(),
+                event.store() == null ? null : StoreResponse.of(event.store()));
+    }
+
+    @EventListener
+    public void onOwnerChanged(OwnerChangedEvent event) {
+        append(AggregateType.OWNER, event.ownerId(), event.type(),
+                event.owner() == null ? null : OwnerResponse.of(event.owner()));
+    }
+
+    private void append(AggregateType aggregateType, Long aggregateId, ChangeType changeType, Object entity) {
+        OutboxEvent event = OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .changeType(changeType)
+                .payload(entity == null ? null : toJson(entity))
+                .createdAt(Instant.now())
+                .build();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            event.setChangeSeq(changeSequence.next());
+            outboxRepository.save(event);
+            return;
+        }
+        pendingEvents().add(event);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OutboxEvent> pendingEvents() {
+        List<OutboxEvent> pending = (List<OutboxEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        List<OutboxEvent> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // Pending entity writes take their row locks first
+                outboxRepository.flush();
+                long changeSeq = changeSequence.next();
+                created.forEach(event -> event.setChangeSeq(changeSeq));
+                outboxRepository.saveAll(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(OutboxWriter.this);
+            }
+        });
+        return created;
+    }
+
+    private String toJson(Object entity) {
+        try {
+            return objectMapper.writeValueAsString(entity);
+        } catch (JsonProcessingException e) {
+            // Failing here rolls back the change, so it is never committed without its event
+            throw new IllegalStateException("Could not serialise outbox payload", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.siopa.partner_details.events;
+
+import com.siopa.partner_details.models.Owner;
+
+/**
+ * Published by the owner service whenever an owner is written.
+ * Deleting an owner also deletes all of their stores; no separate
+ * store events are published for those.
+ * @param type The kind of change.
+ * @param ownerId The ID of the owner.
+ * @param owner The owner after the change, or null if it was deleted.
+ */
+public record OwnerChangedEvent(ChangeType type, Long ownerId, Owner owner) {
+}
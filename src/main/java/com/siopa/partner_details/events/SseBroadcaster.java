@@ -0,0 +1,209 @@
+package com.siopa.partner_details.events;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Fans messages out to Server-Sent Events subscribers without a thread per subscriber.
+ * Subscriber requests are asynchronous, so an idle subscriber holds no thread.
+ * Publishing only offers a message to each matching subscriber's bounded queue;
+ * queues are written out on an executor reserved for streams, one task per
+ * subscriber at a time. A subscriber that falls a full queue behind has its backlog
+ * dropped and is sent a {@code resync} event, after which it should reload whatever
+ * it mirrors. Writes block, so a subscriber whose write has not finished within the
+ * send timeout is disconnected by {@link #evictStalled()}, which gives its thread back
+ * once the container aborts the write.
+ */
+public class SseBroadcaster {
+
+    /**
+     * A message to send.
+     * @param id The SSE event ID, or null for none.
+     * @param name The SSE event name, or null for a comment.
+     * @param data The JSON data, or the comment text.
+     */
+    public record Message(String id, String name, String data) {
+    }
+
+    static final Message RESYNC = new Message(null, "resync", "{}");
+    private static final Message HEARTBEAT = new Message(null, null, "heartbeat");
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Executor executor;
+    private final int bufferSize;
+    private final long sendTimeoutNanos;
+
+    /**
+     * @param executor Writes queued messages out; a slow subscriber occupies one of its threads while writing.
+     * @param bufferSize The number of messages a subscriber may fall behind before it must resync.
+     * @param sendTimeout How long one write may take before the subscriber counts as stalled.
+     */
+    public SseBroadcaster(Executor executor, int bufferSize, Duration sendTimeout) {
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+    }
+
+    /**
+     * Registers a new subscriber.
+     * @param filter Selects the messages this subscriber receives, by the key they are published with.
+     * @return The emitter to return from the controller; it never times out.
+     */
+    public SseEmitter subscribe(Predicate<Object> filter) {
+        return subscribe(new SseEmitter(0L), filter);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Predicate<Object> filter) {
+        Subscriber subscriber = new Subscriber(emitter, filter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Queues a message for every subscriber whose filter accepts the key. Never blocks.
+     * @param key The key subscribers filter on.
+     * @param message The message.
+     */
+    public void publish(Object key, Message message) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.filter.test(key)) {
+                subscriber.offer(message);
+            }
+        }
+    }
+
+    /**
+     * Sends a comment to idle subscribers so proxies keep their connections open
+     * and closed connections are noticed.
+     */
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.isEmpty()) {
+                subscriber.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    /**
+     * Disconnects subscribers whose current write has taken longer than the send timeout,
+     * such as clients that stopped reading without closing their connection.
+     */
+    public void evictStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.sending && now - subscriber.sendStarted >= sendTimeoutNanos) {
+                subscriber.close(new IOException("Send timed out"));
+            }
+        }
+    }
+
+    /**
+     * Gets the number of connected subscribers.
+     * @return The subscriber count.
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final Predicate<Object> filter;
+        private final ArrayBlockingQueue<Message> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean overflowed;
+        private volatile long sendStarted;
+        private volatile boolean sending;
+
+        private Subscriber(SseEmitter emitter, Predicate<Object> filter) {
+            this.emitter = emitter;
+            this.filter = filter;
+        }
+
+        void offer(Message message) {
+            if (!queue.offer(message)) {
+                queue.clear();
+                overflowed = true;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    close(e);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed.get()) {
+                    if (overflowed) {
+                        overflowed = false;
+                        send(RESYNC);
+                    }
+                    Message message = queue.poll();
+                    if (message == null) {
+                        break;
+                    }
+                    send(message);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close(e);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            // A message offered after the last poll may have seen this task still scheduled
+            if (!closed.get() && (!queue.isEmpty() || overflowed)) {
+                schedule();
+            }
+        }
+
+        private void send(Message message) throws IOException {
+            SseEmitter.SseEventBuilder event = SseEmitter.event();
+            if (message.name() == null) {
+                event.comment(message.data());
+            } else {
+                if (message.id() != null) {
+                    event.id(message.id());
+                }
+                event.name(message.name()).data(message.data(), MediaType.APPLICATION_JSON);
+            }
+            sendStarted = System.nanoTime();
+            sending = true;
+            try {
+                emitter.send(event);
+            } finally {
+                sending = false;
+            }
+        }
+
+        private void close(Exception e) {
+            subscribers.remove(this);
+            queue.clear();
+            if (closed.compareAndSet(false, true)) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.siopa.partner_details.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.partner_details.dto.OutboxEventResponse;
+import com.siopa.partner_details.models.OutboxEvent;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Relays outbox events to Server-Sent Events subscribers in this instance.
+ * Each event is sent with its outbox ID as the SSE id and a name such as
+ * {@code store.updated}. Subscribers only see events relayed while they are
+ * connected, and only if they are connected to the instance running the
+ * {@link OutboxRelay}; on every other instance the stream carries heartbeats only.
+ * Sending never blocks the relay: a subscriber that falls behind is sent
+ * {@code resync} instead of the events it missed.
+ */
+@Component
+public class SseOutboxSink implements OutboxSink {
+
+    private final SseBroadcaster broadcaster;
+    private final ObjectMapper objectMapper;
+
+    public SseOutboxSink(@Qualifier("sseScheduler") Scheduler scheduler, ObjectMapper objectMapper,
+                         @Value("${partner.stream.buffer-size:64}") int bufferSize,
+                         @Value("${partner.stream.send-timeout:PT10S}") Duration sendTimeout) {
+        this.broadcaster = new SseBroadcaster(scheduler::schedule, bufferSize, sendTimeout);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Registers a new subscriber.
+     * @return The emitter to return from the controller; it never times out.
+     */
+    public SseEmitter subscribe() {
+        return broadcaster.subscribe(key -> true);
+    }
+
+    /**
+     * Gets the number of connected subscribers.
+     * @return The subscriber count.
+     */
+    public int subscriberCount() {
+        return broadcaster.subscriberCount();
+    }
+
+    @Override
+    public void deliver(OutboxEvent event) {
+        String name = (event.getAggregateType() + "." + event.getChangeType()).toLowerCase(Locale.ROOT);
+        try {
+            broadcaster.publish(null, new SseBroadcaster.Message(
+                    String.valueOf(event.getId()), name, objectMapper.writeValueAsString(OutboxEventResponse.of(event))));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise outbox event " + event.getId(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${partner.stream.heartbeat-interval:PT30S}")
+    public void heartbeat() {
+        broadcaster.heartbeat();
+    }
+
+    @Scheduled(fixedDelayString = "${partner.stream.send-timeout:PT10S}")
+    public void evictStalled() {
+        broadcaster.evictStalled();
+    }
+}
@@ -0,0 +1,14 @@
+package com.siopa.partner_details.events;
+
+import com.siopa.partner_details.models.Store;
+
+/**
+ * Published by the store service whenever a store is written.
+ * Listeners that maintain in-memory views of the catalogue should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ * @param type The kind of change.
+ * @param storeId The ID of the store.
+ * @param store The store after the change, or null if it was deleted.
+ */
+public record StoreChangedEvent(ChangeType type, Long storeId, Store store) {
+}
@@ -0,0 +1,102 @@
+package com.siopa.partner_details.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.partner_details.dto.ChangeToken;
+import com.siopa.partner_details.dto.OwnerResponse;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.models.Store;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Pushes committed store changes to live subscribers, optionally for one owner.
+ * Events are named {@code store.created}, {@code store.updated}, {@code store.deleted},
+ * {@code owner.updated} and {@code owner.deleted}. Store events carry the change feed
+ * token as their ID, so after a {@code resync} a subscriber can catch up from
+ * {@code /api/stores/changes} with the last ID it saw.
+ * Deletes do not say which owner the store belonged to, so every subscriber receives them.
+ */
+@Component
+public class StoreStream {
+
+    private final SseBroadcaster broadcaster;
+    private final ObjectMapper objectMapper;
+
+    public StoreStream(@Qualifier("sseScheduler") Scheduler scheduler, ObjectMapper objectMapper,
+                       @Value("${partner.stream.buffer-size:64}") int bufferSize,
+                       @Value("${partner.stream.send-timeout:PT10S}") Duration sendTimeout) {
+        this.broadcaster = new SseBroadcaster(scheduler::schedule, bufferSize, sendTimeout);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Registers a new subscriber.
+     * @param ownerId The owner whose stores to follow, or null for all stores.
+     * @return The event stream.
+     */
+    public SseEmitter subscribe(Long ownerId) {
+        if (ownerId == null) {
+            return broadcaster.subscribe(key -> true);
+        }
+        return broadcaster.subscribe(key -> key == null || ownerId.equals(key));
+    }
+
+    /**
+     * Gets the number of connected subscribers.
+     * @return The subscriber count.
+     */
+    public int subscriberCount() {
+        return broadcaster.subscriberCount();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStoreChanged(StoreChangedEvent event) {
+        String name = "store." + event.type().name().toLowerCase(Locale.ROOT);
+        Store store = event.store();
+        if (store == null) {
+            broadcaster.publish(null, new SseBroadcaster.Message(null, name, toJson(Map.of("id", event.storeId()))));
+            return;
+        }
+        String token = new ChangeToken(store.getChangeSeq(), store.getId()).toString();
+        broadcaster.publish(store.getOwner().getId(), new SseBroadcaster.Message(token, name, toJson(StoreResponse.of(store))));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOwnerChanged(OwnerChangedEvent event) {
+        if (event.type() == ChangeType.CREATED) {
+            return;
+        }
+        String name = "owner." + event.type().name().toLowerCase(Locale.ROOT);
+        Object data = event.owner() != null ? OwnerResponse.of(event.owner()) : Map.of("id", event.ownerId());
+        broadcaster.publish(event.ownerId(), new SseBroadcaster.Message(null, name, toJson(data)));
+    }
+
+    @Scheduled(fixedDelayString = "${partner.stream.heartbeat-interval:PT30S}")
+    public void heartbeat() {
+        broadcaster.heartbeat();
+    }
+
+    @Scheduled(fixedDelayString = "${partner.stream.send-timeout:PT10S}")
+    public void evictStalled() {
+        broadcaster.evictStalled();
+    }
+
+    // Serialised once per change, not once per subscriber
+    private String toJson(Object data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialise store event", e);
+        }
+    }
+}
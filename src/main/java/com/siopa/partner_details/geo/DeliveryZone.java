@@ -0,0 +1,12 @@
+package com.siopa.partner_details.geo;
+
+import com.vividsolutions.jts.geom.Geometry;
+
+/**
+ * A delivery or service area polygon.
+ * @param id The zone ID.
+ * @param name The zone name.
+ * @param geometry The zone polygon in WGS84 longitude/latitude.
+ */
+public record DeliveryZone(String id, String name, Geometry geometry) {
+}
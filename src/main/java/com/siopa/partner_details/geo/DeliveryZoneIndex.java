@@ -0,0 +1,163 @@
+package com.siopa.partner_details.geo;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.Point;
+import com.vividsolutions.jts.geom.prep.PreparedGeometry;
+import com.vividsolutions.jts.geom.prep.PreparedGeometryFactory;
+import com.vividsolutions.jts.index.strtree.STRtree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spatial index of delivery zones for point-in-polygon lookups.
+ * <p>
+ * Zones are held as prepared geometries in an STRtree, so a lookup only tests
+ * the zones whose envelope contains the point, and each test reuses the
+ * polygon's precomputed edge index. The index is an immutable snapshot that is
+ * swapped atomically when the shapefile changes, so readers never block on a reload.
+ */
+@Component
+public class DeliveryZoneIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DeliveryZoneIndex.class);
+
+    private final ZoneLoader zoneLoader;
+    private final String shapefile;
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+    private volatile Snapshot snapshot = new Snapshot(List.of(), -1);
+
+    public DeliveryZoneIndex(ZoneLoader zoneLoader, @Value("${partner.zones.shapefile:}") String shapefile) {
+        this.zoneLoader = zoneLoader;
+        this.shapefile = shapefile;
+    }
+
+    /**
+     * A zone with its prepared geometry.
+     * @param zone The zone.
+     * @param prepared The prepared polygon used for containment tests.
+     */
+    public record IndexedZone(DeliveryZone zone, PreparedGeometry prepared) {
+    }
+
+    private static final class Snapshot {
+
+        private final STRtree tree = new STRtree();
+        private final int size;
+        private final long lastModified;
+
+        private Snapshot(Collection<DeliveryZone> zones, long lastModified) {
+            for (DeliveryZone zone : zones) {
+                PreparedGeometry prepared = PreparedGeometryFactory.prepare(zone.geometry());
+                // Force the lazily built edge and point-location indexes now, not on the first request
+                prepared.covers(zone.geometry().getInteriorPoint());
+                tree.insert(zone.geometry().getEnvelopeInternal(), new IndexedZone(zone, prepared));
+            }
+            tree.build();
+            this.size = zones.size();
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * Loads the configured shapefile once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!shapefile.isBlank()) {
+            reloadIfChanged();
+        }
+    }
+
+    /**
+     * Reloads the shapefile if it was modified since it was last loaded.
+     */
+    @Scheduled(fixedDelayString = "${partner.zones.reload-interval:PT30S}")
+    public void reloadIfChanged() {
+        if (shapefile.isBlank()) {
+            return;
+        }
+        try {
+            Path path = Path.of(shapefile);
+            if (Files.getLastModifiedTime(path).toMillis() != snapshot.lastModified) {
+                reload();
+            }
+        } catch (IOException e) {
+            log.warn("Could not check delivery zone shapefile {}: {}", shapefile, e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads the configured shapefile and swaps in the new zones.
+     * Lookups keep using the previous zones until the new ones are ready.
+     * @return The number of zones loaded.
+     * @throws IOException If the shapefile cannot be read.
+     */
+    public synchronized int reload() throws IOException {
+        if (shapefile.isBlank()) {
+            throw new IllegalStateException("No delivery zone shapefile configured (partner.zones.shapefile)");
+        }
+        Path path = Path.of(shapefile);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        List<DeliveryZone> zones = zoneLoader.load(path);
+        snapshot = new Snapshot(zones, lastModified);
+        log.info("Loaded {} delivery zones from {}", zones.size(), path);
+        return zones.size();
+    }
+
+    /**
+     * Replaces the indexed zones.
+     * @param zones The zones to index.
+     */
+    public synchronized void replaceAll(Collection<DeliveryZone> zones) {
+        snapshot = new Snapshot(zones, -1);
+    }
+
+    /**
+     * @return The number of indexed zones.
+     */
+    public int size() {
+        return snapshot.size;
+    }
+
+    /**
+     * Finds the zones covering a point.
+     * @param latitude The latitude in degrees.
+     * @param longitude The longitude in degrees.
+     * @return The zones covering the point, boundary included.
+     */
+    public List<IndexedZone> zonesAt(double latitude, double longitude) {
+        Point point = geometryFactory.createPoint(new Coordinate(longitude, latitude));
+        List<IndexedZone> matches = new ArrayList<>();
+        snapshot.tree.query(point.getEnvelopeInternal(), item -> {
+            IndexedZone zone = (IndexedZone) item;
+            if (zone.prepared().covers(point)) {
+                matches.add(zone);
+            }
+        });
+        return matches;
+    }
+
+    /**
+     * Tests whether a prepared zone covers a point.
+     * @param zone The zone.
+     * @param latitude The latitude in degrees.
+     * @param longitude The longitude in degrees.
+     * @return True if the point is inside the zone or on its boundary.
+     */
+    public boolean covers(IndexedZone zone, double latitude, double longitude) {
+        return zone.prepared().covers(geometryFactory.createPoint(new Coordinate(longitude, latitude)));
+    }
+}
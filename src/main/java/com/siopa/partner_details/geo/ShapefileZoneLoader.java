@@ -0,0 +1,64 @@
+package com.siopa.partner_details.geo;
+
+import com.vividsolutions.jts.geom.Geometry;
+import org.geotools.data.shapefile.ShapefileDataStore;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.opengis.feature.simple.SimpleFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads delivery zones from an ESRI shapefile with GeoTools.
+ * Geometries are expected in WGS84 longitude/latitude. The zone ID and name are
+ * read from configurable attributes, falling back to the feature ID.
+ */
+@Component
+public class ShapefileZoneLoader implements ZoneLoader {
+
+    private final String idAttribute;
+    private final String nameAttribute;
+
+    public ShapefileZoneLoader(@Value("${partner.zones.id-attribute:zone_id}") String idAttribute,
+                               @Value("${partner.zones.name-attribute:name}") String nameAttribute) {
+        this.idAttribute = idAttribute;
+        this.nameAttribute = nameAttribute;
+    }
+
+    @Override
+    public List<DeliveryZone> load(Path path) throws IOException {
+        ShapefileDataStore dataStore = new ShapefileDataStore(path.toUri().toURL());
+        try {
+            List<DeliveryZone> zones = new ArrayList<>();
+            SimpleFeatureIterator features = dataStore.getFeatureSource().getFeatures().features();
+            try {
+                while (features.hasNext()) {
+                    SimpleFeature feature = features.next();
+                    if (!(feature.getDefaultGeometry() instanceof Geometry geometry) || geometry.isEmpty()) {
+                        continue;
+                    }
+                    String id = attribute(feature, idAttribute);
+                    String name = attribute(feature, nameAttribute);
+                    zones.add(new DeliveryZone(id != null ? id : feature.getID(), name, geometry));
+                }
+            } finally {
+                features.close();
+            }
+            return zones;
+        } finally {
+            dataStore.dispose();
+        }
+    }
+
+    private static String attribute(SimpleFeature feature, String name) {
+        if (feature.getFeatureType().getDescriptor(name) == null) {
+            return null;
+        }
+        Object value = feature.getAttribute(name);
+        return value == null ? null : value.toString().trim();
+    }
+}
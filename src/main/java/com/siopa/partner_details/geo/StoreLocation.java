@@ -0,0 +1,29 @@
+package com.siopa.partner_details.geo;
+
+import com.siopa.partner_details.models.Store;
+
+/**
+ * The location of a store as held in the spatial index.
+ * @param storeId The ID of the store.
+ * @param ownerId The ID of the store's owner.
+ * @param name The store name.
+ * @param latitude The latitude in degrees (WGS84).
+ * @param longitude The longitude in degrees (WGS84).
+ * @param active Whether the store is active.
+ */
+public record StoreLocation(long storeId, long ownerId, String name,
+                            double latitude, double longitude, boolean active) {
+
+    /**
+     * Builds the index entry for a store.
+     * @param store The store.
+     * @return The location, or null if the store has no coordinates.
+     */
+    public static StoreLocation of(Store store) {
+        if (store.getLatitude() == null || store.getLongitude() == null) {
+            return null;
+        }
+        return new StoreLocation(store.getId(), store.getOwner().getId(), store.getName(),
+                store.getLatitude(), store.getLongitude(), store.isActive());
+    }
+}
@@ -0,0 +1,312 @@
+package com.siopa.partner_details.geo;
+
+import com.siopa.partner_details.dto.NearbyStore;
+import com.siopa.partner_details.events.ChangeType;
+import com.siopa.partner_details.events.OwnerChangedEvent;
+import com.siopa.partner_details.events.StoreChangedEvent;
+import com.siopa.partner_details.models.Store;
+import com.siopa.partner_details.repositories.StoreRepository;
+import com.vividsolutions.jts.geom.Envelope;
+import com.vividsolutions.jts.index.strtree.STRtree;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * In-memory spatial index of store locations for proximity queries.
+ * <p>
+ * Locations live in an immutable STRtree that is rebuilt from the database at
+ * startup. Committed store writes are applied incrementally: the authoritative
+ * location of each store is kept in a map, new and moved stores are kept in a
+ * small pending set that queries scan alongside the tree, and tree entries that
+ * no longer match the map are ignored. Once enough changes accumulate the tree
+ * is rebuilt in the background and swapped in, so readers never block.
+ */
+@Component
+public class StoreLocationIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(StoreLocationIndex.class);
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    static final double MAX_DISTANCE_KM = Math.PI * EARTH_RADIUS_KM;
+    static final int REBUILD_THRESHOLD = 1024;
+    private static final double INITIAL_KNN_RADIUS_KM = 2;
+
+    private final StoreRepository storeRepository;
+    private final Map<Long, StoreLocation> current = new ConcurrentHashMap<>();
+    private final Map<Long, StoreLocation> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger changesSinceBuild = new AtomicInteger();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "store-location-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile STRtree tree = build(List.of());
+
+    public StoreLocationIndex(StoreRepository storeRepository) {
+        this.storeRepository = storeRepository;
+    }
+
+    /**
+     * Loads every located store from the database once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromDatabase() {
+        List<StoreLocation> locations = storeRepository.findAllLocations();
+        replaceAll(locations);
+        log.info("Indexed {} store locations", locations.size());
+    }
+
+    /**
+     * Replaces the contents of the index.
+     * @param locations The locations to index.
+     */
+    public void replaceAll(Collection<StoreLocation> locations) {
+        STRtree built = build(locations);
+        synchronized (this) {
+            current.clear();
+            pending.clear();
+            locations.forEach(location -> current.put(location.storeId(), location));
+            changesSinceBuild.set(0);
+            tree = built;
+        }
+    }
+
+    /**
+     * Applies a committed store change.
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStoreChanged(StoreChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            remove(event.storeId());
+        } else {
+            upsert(event.store());
+        }
+    }
+
+    /**
+     * Drops the stores of a deleted owner.
+     * @param event The owner change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOwnerChanged(OwnerChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            synchronized (this) {
+                current.values().removeIf(location -> location.ownerId() == event.ownerId());
+                pending.values().removeIf(location -> location.ownerId() == event.ownerId());
+            }
+            changed();
+        }
+    }
+
+    /**
+     * Adds or moves a store. Stores without coordinates are removed.
+     * @param store The store after the change.
+     */
+    public void upsert(Store store) {
+        StoreLocation location = StoreLocation.of(store);
+        if (location == null) {
+            remove(store.getId());
+            return;
+        }
+        synchronized (this) {
+            current.put(location.storeId(), location);
+            pending.put(location.storeId(), location);
+        }
+        changed();
+    }
+
+    /**
+     * Removes a store.
+     * @param storeId The ID of the store.
+     */
+    public void remove(long storeId) {
+        synchronized (this) {
+            current.remove(storeId);
+            pending.remove(storeId);
+        }
+        changed();
+    }
+
+    /**
+     * @return The number of located stores in the index.
+     */
+    public int size() {
+        return current.size();
+    }
+
+    /**
+     * Finds the stores within a radius of a point, nearest first.
+     * @param latitude The latitude of the point in degrees.
+     * @param longitude The longitude of the point in degrees.
+     * @param radiusKm The search radius in kilometres.
+     * @param limit The maximum number of stores to return.
+     * @param activeOnly Whether to skip inactive stores.
+     * @return The stores found, ordered by distance.
+     */
+    public List<NearbyStore> withinRadius(double latitude, double longitude, double radiusKm,
+                                          int limit, boolean activeOnly) {
+        Map<Long, NearbyStore> hits = new HashMap<>();
+        Consumer<StoreLocation> candidate = location -> {
+            if ((activeOnly && !location.active()) || !location.equals(current.get(location.storeId()))) {
+                return;
+            }
+            double distance = distanceKm(latitude, longitude, location.latitude(), location.longitude());
+            if (distance <= radiusKm) {
+                hits.putIfAbsent(location.storeId(), new NearbyStore(location.storeId(), location.ownerId(),
+                        location.name(), location.latitude(), location.longitude(), distance));
+            }
+        };
+
+        // Pending entries are read before the tree: a rebuild publishes the new tree
+        // before pruning pending, so an entry is always seen in at least one of them.
+        pending.values().forEach(candidate);
+        STRtree snapshot = tree;
+        for (Envelope envelope : searchEnvelopes(latitude, longitude, radiusKm)) {
+            snapshot.query(envelope, item -> candidate.accept((StoreLocation) item));
+        }
+
+        List<NearbyStore> nearest = new ArrayList<>(hits.values());
+        nearest.sort(Comparator.comparingDouble(NearbyStore::distanceKm));
+        return nearest.size() > limit ? new ArrayList<>(nearest.subList(0, limit)) : nearest;
+    }
+
+    /**
+     * Finds the k stores nearest to a point.
+     * Searches within a growing radius until enough stores are found, so
+     * results are exact while only touching the neighbourhood of the point.
+     * @param latitude The latitude of the point in degrees.
+     * @param longitude The longitude of the point in degrees.
+     * @param k The number of stores to return.
+     * @param activeOnly Whether to skip inactive stores.
+     * @return Up to k stores, ordered by distance.
+     */
+    public List<NearbyStore> nearest(double latitude, double longitude, int k, boolean activeOnly) {
+        double radius = INITIAL_KNN_RADIUS_KM;
+        while (true) {
+            List<NearbyStore> found = withinRadius(latitude, longitude, radius, k, activeOnly);
+            if (found.size() >= k || radius >= MAX_DISTANCE_KM) {
+                return found;
+            }
+            radius = Math.min(radius * 4, MAX_DISTANCE_KM);
+        }
+    }
+
+    /**
+     * Finds the current locations whose coordinates fall inside an envelope.
+     * @param envelope The envelope, with x as longitude and y as latitude.
+     * @return The matching locations.
+     */
+    public List<StoreLocation> within(Envelope envelope) {
+        Map<Long, StoreLocation> hits = new HashMap<>();
+        Consumer<StoreLocation> candidate = location -> {
+            if (location.equals(current.get(location.storeId()))
+                    && envelope.contains(location.longitude(), location.latitude())) {
+                hits.putIfAbsent(location.storeId(), location);
+            }
+        };
+        pending.values().forEach(candidate);
+        tree.query(envelope, item -> candidate.accept((StoreLocation) item));
+        return new ArrayList<>(hits.values());
+    }
+
+    /**
+     * Computes the great-circle distance between two points with the haversine formula.
+     * @return The distance in kilometres.
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Computes the bounding boxes covering a circle on the sphere, split in two
+     * where the circle crosses the antimeridian.
+     */
+    static List<Envelope> searchEnvelopes(double latitude, double longitude, double radiusKm) {
+        double angular = radiusKm / EARTH_RADIUS_KM;
+        double minLat = latitude - Math.toDegrees(angular);
+        double maxLat = latitude + Math.toDegrees(angular);
+        if (minLat <= -90 || maxLat >= 90) {
+            return List.of(new Envelope(-180, 180, Math.max(minLat, -90), Math.min(maxLat, 90)));
+        }
+        double ratio = Math.sin(angular) / Math.cos(Math.toRadians(latitude));
+        if (angular >= Math.PI / 2 || ratio >= 1) {
+            return List.of(new Envelope(-180, 180, minLat, maxLat));
+        }
+        double deltaLon = Math.toDegrees(Math.asin(ratio));
+        double minLon = longitude - deltaLon;
+        double maxLon = longitude + deltaLon;
+        if (minLon < -180) {
+            return List.of(new Envelope(minLon + 360, 180, minLat, maxLat), new Envelope(-180, maxLon, minLat, maxLat));
+        }
+        if (maxLon > 180) {
+            return List.of(new Envelope(minLon, 180, minLat, maxLat), new Envelope(-180, maxLon - 360, minLat, maxLat));
+        }
+        return List.of(new Envelope(minLon, maxLon, minLat, maxLat));
+    }
+
+    private void changed() {
+        if (changesSinceBuild.incrementAndGet() >= REBUILD_THRESHOLD && rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuildScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    private void rebuild() {
+        List<StoreLocation> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(current.values());
+            changesSinceBuild.set(0);
+        }
+        STRtree built = build(snapshot);
+        synchronized (this) {
+            tree = built;
+            snapshot.forEach(location -> pending.remove(location.storeId(), location));
+        }
+        log.debug("Rebuilt store location index with {} stores", snapshot.size());
+    }
+
+    private static STRtree build(Collection<StoreLocation> locations) {
+        STRtree built = new STRtree();
+        for (StoreLocation location : locations) {
+            built.insert(new Envelope(location.longitude(), location.longitude(),
+                    location.latitude(), location.latitude()), location);
+        }
+        built.build();
+        return built;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+}
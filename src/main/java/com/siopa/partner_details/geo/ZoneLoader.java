@@ -0,0 +1,19 @@
+package com.siopa.partner_details.geo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Reads delivery zones from a file.
+ */
+public interface ZoneLoader {
+
+    /**
+     * Loads every zone in the file.
+     * @param path The file to read.
+     * @return The zones.
+     * @throws IOException If the file cannot be read.
+     */
+    List<DeliveryZone> load(Path path) throws IOException;
+}
@@ -0,0 +1,39 @@
+package com.siopa.partner_details.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ * Counting only happens between {@link #begin()} and {@link #end()}, which
+ * {@link SqlStatementMetricsFilter} calls around each request.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private final ThreadLocal<int[]> counts = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = counts.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    /**
+     * Starts counting statements on the current thread.
+     */
+    void begin() {
+        counts.set(new int[1]);
+    }
+
+    /**
+     * Stops counting statements on the current thread.
+     * @return The number of statements prepared since {@link #begin()}.
+     */
+    int end() {
+        int[] count = counts.get();
+        counts.remove();
+        return count == null ? 0 : count[0];
+    }
+}
@@ -0,0 +1,61 @@
+package com.siopa.partner_details.models;
+
+import com.siopa.partner_details.events.AggregateType;
+import com.siopa.partner_details.events.ChangeType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A change waiting to be delivered to other services.
+ * Written in the same transaction as the change itself, and deleted by the
+ * relay once every sink has accepted it.
+ */
+@Entity
+@Table(name = "outbox_events",
+        indexes = @Index(name = "idx_outbox_events_order", columnList = "change_seq, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent implements Serializable {
+
+    /**
+     * Allocated from a pooled sequence so a transaction's events are inserted in one JDBC batch.
+     * Each instance allocates its own block, so IDs only order events within a transaction.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * The change sequence taken just before the writing transaction committed, shared by all its events.
+     * The delivery order, with the ID breaking ties.
+     */
+    @Column(nullable = false)
+    private long changeSeq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private AggregateType aggregateType;
+
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ChangeType changeType;
+
+    /**
+     * The entity after the change as JSON, or null if it was deleted.
+     */
+    @Column(columnDefinition = "text")
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
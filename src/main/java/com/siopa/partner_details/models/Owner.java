@@ -8,6 +8,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.*;
 
 /**
@@ -15,7 +16,7 @@ import java.util.*;
  * An owner can have many stores.
  */
 @Entity
-@Table(name = "owners")
+@Table(name = "owners", indexes = @Index(name = "idx_owners_change", columnList = "change_seq, id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,8 +24,12 @@ import java.util.*;
 @Builder
 public class Owner implements Serializable {
 
+    /**
+     * Allocated from a pooled sequence so inserts can be JDBC batched.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "owners_seq")
+    @SequenceGenerator(name = "owners_seq", sequenceName = "owners_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Owner name is required")
@@ -40,6 +45,21 @@ public class Owner implements Serializable {
     @Column(length = 15)
     private String phoneNumber;
 
+    /**
+     * Incremented on every update; exposed to clients as the owner's ETag.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Value of the shared change sequence at this owner's last write; drives the change feed.
+     */
+    @Column(nullable = false)
+    private long changeSeq;
+
+    private Instant updatedAt;
+
     @JsonIgnore
     @OneToMany(mappedBy = "owner", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Store> stores;
@@ -2,18 +2,25 @@ package com.siopa.partner_details.models;
 
 import jakarta.persistence.*;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 
 import java.io.Serializable;
+import java.time.Instant;
 
 /**
  * Represents a store.
  * A store can have many owners and owners can have many stores.
  */
 @Entity
-@Table(name = "stores")
+@Table(name = "stores", indexes = {
+        @Index(name = "idx_stores_owner_id", columnList = "owner_id"),
+        @Index(name = "idx_stores_change", columnList = "change_seq, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,8 +28,12 @@ import java.io.Serializable;
 @Builder
 public class Store implements Serializable {
 
+    /**
+     * Allocated from a pooled sequence so inserts can be JDBC batched.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stores_seq")
+    @SequenceGenerator(name = "stores_seq", sequenceName = "stores_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Store name is required")
@@ -38,12 +49,38 @@ public class Store implements Serializable {
     @Column(nullable = false)
     private boolean isActive = true;
 
+    @Size(max = 15, message = "Phone number must be at most 15 characters")
     @Column(length = 15)
     private String phoneNumber;
 
+    @Email(message = "Invalid email format")
+    @Size(max = 100, message = "Email must be at most 100 characters")
     @Column(length = 100)
     private String email;
 
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    /**
+     * Incremented on every update; exposed to clients as the store's ETag.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Value of the shared change sequence at this store's last write; drives the change feed.
+     */
+    @Column(nullable = false)
+    private long changeSeq;
+
+    private Instant updatedAt;
+
     @ManyToOne
     @JoinColumn(name = "owner_id", nullable = false)
     private Owner owner;
@@ -0,0 +1,33 @@
+package com.siopa.partner_details.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Records a deleted store so change feed consumers can remove it from their copy.
+ */
+@Entity
+@Table(name = "store_tombstones",
+        indexes = @Index(name = "idx_store_tombstones_change", columnList = "change_seq, store_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoreTombstone implements Serializable {
+
+    @Id
+    private Long storeId;
+
+    @Column(nullable = false)
+    private Long ownerId;
+
+    @Column(nullable = false)
+    private long changeSeq;
+
+    @Column(nullable = false)
+    private Instant deletedAt;
+}
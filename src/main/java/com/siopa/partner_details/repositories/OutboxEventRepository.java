@@ -0,0 +1,36 @@
+package com.siopa.partner_details.repositories;
+
+import com.siopa.partner_details.models.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Retrieves the oldest undelivered events in delivery order.
+     * Events are ordered by change sequence rather than ID, since IDs come from
+     * per-instance blocks and do not follow commit order across instances.
+     * @param limit The maximum number of events to return.
+     * @return List of events ordered by change sequence, then ID.
+     */
+    @Query("select e from OutboxEvent e order by e.changeSeq, e.id")
+    List<OutboxEvent> findOldest(Limit limit);
+
+    /**
+     * Removes delivered events in a single statement.
+     * Deletes by ID rather than up to the last ID, because an event with a lower ID
+     * may commit after the batch was read.
+     * @return The number of events removed.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id in :ids")
+    int deleteDelivered(@Param("ids") Collection<Long> ids);
+}
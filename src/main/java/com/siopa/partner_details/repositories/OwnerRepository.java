@@ -1,8 +1,20 @@
 package com.siopa.partner_details.repositories;
 
+import com.siopa.partner_details.dto.CollectionVersion;
+import com.siopa.partner_details.dto.OwnerResponse;
+import com.siopa.partner_details.dto.OwnerStoreCounts;
+import com.siopa.partner_details.dto.OwnerSummary;
 import com.siopa.partner_details.models.Owner;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -10,9 +22,138 @@ import java.util.Optional;
  */
 public interface OwnerRepository extends JpaRepository<Owner, Long> {
 
+    /**
+     * The select list of {@link OwnerResponse}, over {@code Owner o}.
+     */
+    String RESPONSE_COLUMNS = "o.id, o.name, o.email, o.phoneNumber, o.version";
+
+    /**
+     * The active and inactive store counts, over {@code Owner o left join o.stores s} grouped by owner.
+     */
+    String STORE_COUNT_COLUMNS = "coalesce(sum(case when s.isActive = true then 1L else 0L end), 0L), "
+            + "coalesce(sum(case when s.isActive = false then 1L else 0L end), 0L)";
+
+    /**
+     * The select and from clauses of {@link OwnerSummary}: each owner outer joined to its stores,
+     * so queries must group by {@link #SUMMARY_GROUP_BY}.
+     */
+    String SUMMARY_SELECT = "select new com.siopa.partner_details.dto.OwnerSummary(" + RESPONSE_COLUMNS + ", "
+            + STORE_COUNT_COLUMNS + ") from Owner o left join o.stores s ";
+
+    /**
+     * The group by clause matching {@link #SUMMARY_SELECT}.
+     */
+    String SUMMARY_GROUP_BY = " group by " + RESPONSE_COLUMNS;
+
     // Find owner by email (ensuring unique emails)
     Optional<Owner> findByEmail(String email);
 
     // Check if an email already exists
     boolean existsByEmail(String email);
+
+    /**
+     * Retrieves all owners as responses, selecting only the columns the API returns.
+     * @return List of owner responses ordered by ID.
+     */
+    @Query("select new com.siopa.partner_details.dto.OwnerResponse(" + RESPONSE_COLUMNS + ") "
+            + "from Owner o order by o.id")
+    List<OwnerResponse> findAllResponses();
+
+    /**
+     * Retrieves an owner as a response.
+     * Opens its own read-only transaction when the caller has none.
+     * @param id The ID of the owner.
+     * @return The owner response, or empty if the owner does not exist.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.siopa.partner_details.dto.OwnerResponse(" + RESPONSE_COLUMNS + ") "
+            + "from Owner o where o.id = :id")
+    Optional<OwnerResponse> findResponseById(@Param("id") Long id);
+
+    /**
+     * Retrieves the owners with the given IDs as responses.
+     * @param ids The owner IDs.
+     * @return The owner responses found, in no particular order.
+     */
+    @Query("select new com.siopa.partner_details.dto.OwnerResponse(" + RESPONSE_COLUMNS + ") "
+            + "from Owner o where o.id in :ids")
+    List<OwnerResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Retrieves a page of owners as responses, starting after the given ID.
+     * @param after The ID of the last owner already seen.
+     * @param limit The maximum number of owners to return.
+     * @return List of owner responses ordered by ID.
+     */
+    @Query("select new com.siopa.partner_details.dto.OwnerResponse(" + RESPONSE_COLUMNS + ") "
+            + "from Owner o where o.id > :after order by o.id")
+    List<OwnerResponse> findResponsesAfter(@Param("after") Long after, Limit limit);
+
+    /**
+     * Retrieves an owner with its store counts, counted in the database.
+     * @param id The ID of the owner.
+     * @return The owner summary, or empty if the owner does not exist.
+     */
+    @Query(SUMMARY_SELECT + "where o.id = :id" + SUMMARY_GROUP_BY)
+    Optional<OwnerSummary> findSummaryById(@Param("id") Long id);
+
+    /**
+     * Retrieves a page of owners with their store counts, starting after the given ID.
+     * @param after The ID of the last owner already seen.
+     * @param limit The maximum number of owners to return.
+     * @return List of owner summaries ordered by ID.
+     */
+    @Query(SUMMARY_SELECT + "where o.id > :after" + SUMMARY_GROUP_BY + " order by o.id")
+    List<OwnerSummary> findSummariesAfter(@Param("after") Long after, Limit limit);
+
+    /**
+     * Counts every owner's active and inactive stores in the database.
+     * @return The store counts of every owner, including owners without stores, ordered by owner ID.
+     */
+    @Query("select new com.siopa.partner_details.dto.OwnerStoreCounts(o.id, " + STORE_COUNT_COLUMNS + ") "
+            + "from Owner o left join o.stores s group by o.id order by o.id")
+    List<OwnerStoreCounts> findStoreCounts();
+
+    /**
+     * Reads only an owner's version, for answering conditional requests.
+     * @param id The ID of the owner.
+     * @return The version, or empty if the owner does not exist.
+     */
+    @Query("select o.version from Owner o where o.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Summarises the owners table for the collection ETag.
+     * Owners leave no tombstones; a delete still lowers the count.
+     * @return The row count and change sequence sum.
+     */
+    @Query("select new com.siopa.partner_details.dto.CollectionVersion(count(o), coalesce(sum(o.changeSeq), 0L), "
+            + "0L) from Owner o")
+    CollectionVersion findCollectionVersion();
+
+    /**
+     * Updates an owner's details in a single statement without loading it, increments its version
+     * and stamps the change. The change sequence value is taken by the statement itself as it
+     * writes the locked row, so no other write to the owner can take a later value and commit first.
+     * @param expectedVersion The version the owner must have, or null to update unconditionally.
+     * @param updatedAt The time of the change.
+     * @return The number of owners updated, 0 if the owner does not exist or its version differs.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Owner o set o.name = :name, o.email = :email, o.phoneNumber = :phoneNumber, "
+            + "o.version = o.version + 1, o.changeSeq = function('nextval', 'partner_change_seq'), "
+            + "o.updatedAt = :updatedAt "
+            + "where o.id = :id and (:expectedVersion is null or o.version = :expectedVersion)")
+    int updateDetails(@Param("id") Long id, @Param("name") String name, @Param("email") String email,
+                      @Param("phoneNumber") String phoneNumber, @Param("expectedVersion") Long expectedVersion,
+                      @Param("updatedAt") Instant updatedAt);
+
+    /**
+     * Deletes an owner in a single statement without loading it or its stores.
+     * The owner's stores must be deleted first.
+     * @return The number of owners deleted, 0 if the owner does not exist.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Owner o where o.id = :id")
+    int deleteOwnerById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -1,20 +1,59 @@
 package com.siopa.partner_details.repositories;
 
-import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.dto.CollectionVersion;
+import com.siopa.partner_details.dto.StoreChange;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.dto.StoreView;
+import com.siopa.partner_details.geo.StoreLocation;
 import com.siopa.partner_details.models.Store;
+import com.siopa.partner_details.stats.StoreState;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 /**
  * Data access interface for store entity.
  */
 public interface StoreRepository extends JpaRepository<Store, Long> {
 
+    /**
+     * The select list of {@link StoreResponse}, over {@code Store s join s.owner o}.
+     */
+    String RESPONSE_COLUMNS = "s.id, s.name, s.address, s.isActive, s.phoneNumber, s.email, "
+            + "s.latitude, s.longitude, s.version, o.id, o.name";
+
+    /**
+     * Retrieves all stores, fetching their owners in the same query
+     * instead of one secondary select per distinct owner.
+     * @return List of all stores.
+     */
+    @Override
+    @EntityGraph(attributePaths = "owner")
+    List<Store> findAll();
+
+    /**
+     * Retrieves the stores with the given IDs, fetching their owners in the same query.
+     * @param ids The store IDs.
+     * @return The stores found, in no particular order.
+     */
+    @Override
+    @EntityGraph(attributePaths = "owner")
+    List<Store> findAllById(Iterable<Long> ids);
+
     /**
      * Finds all stores associated with a specific owner.
      * @param ownerId The ID of the owner.
      * @return List of stores belonging to the specified owner.
      */
+    @EntityGraph(attributePaths = "owner")
     List<Store> findByOwnerId(Long ownerId);
 
     /**
@@ -23,5 +62,204 @@ public interface StoreRepository extends JpaRepository<Store, Long> {
      */
     List<Store> findByIsActiveTrue();
 
+    /**
+     * Retrieves all stores as responses, selecting only the columns the API returns.
+     * @return List of store responses ordered by ID.
+     */
+    @Query("select new com.siopa.partner_details.dto.StoreResponse(" + RESPONSE_COLUMNS + ") "
+            + "from Store s join s.owner o order by s.id")
+    List<StoreResponse> findAllResponses();
+
+    /**
+     * Retrieves a store as a response.
+     * Opens its own read-only transaction when the caller has none.
+     * @param id The ID of the store.
+     * @return The store response, or empty if the store does not exist.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.siopa.partner_details.dto.StoreResponse(" + RESPONSE_COLUMNS + ") "
+            + "from Store s join s.owner o where s.id = :id")
+    Optional<StoreResponse> findResponseById(@Param("id") Long id);
+
+    /**
+     * Retrieves the stores with the given IDs as responses.
+     * @param ids The store IDs.
+     * @return The store responses found, in no particular order.
+     */
+    @Query("select new com.siopa.partner_details.dto.StoreResponse(" + RESPONSE_COLUMNS + ") "
+            + "from Store s join s.owner o where s.id in :ids")
+    List<StoreResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Retrieves the stores of a specific owner as responses.
+     * Opens its own read-only transaction when the caller has none.
+     * @param ownerId The ID of the owner.
+     * @return List of store responses ordered by ID.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.siopa.partner_details.dto.StoreResponse(" + RESPONSE_COLUMNS + ") "
+            + "from Store s join s.owner o where o.id = :ownerId order by s.id")
+    List<StoreResponse> findResponsesByOwnerId(@Param("ownerId") Long ownerId);
+
+    /**
+     * Retrieves a page of stores as responses, starting after the given ID.
+     * Used for keyset pagination so each page is an index range scan.
+     * @param after The ID of the last store already seen.
+     * @param limit The maximum number of stores to return.
+     * @return List of store responses ordered by ID.
+     */
+    @Query("select new com.siopa.partner_details.dto.StoreResponse(" + RESPONSE_COLUMNS + ") "
+            + "from Store s join s.owner o where s.id > :after order by s.id")
+    List<StoreResponse> findResponsesAfter(@Param("after") Long after, Limit limit);
+
+    /**
+     * Retrieves all stores as lean views, selecting only the owner's ID and name.
+     * @return List of store views ordered by ID.
+     */
+    @Query("select new com.siopa.partner_details.dto.StoreView(s.id, s.name, s.address, s.isActive, "
+            + "s.phoneNumber, s.email, o.id, o.name) from Store s join s.owner o order by s.id")
+    List<StoreView> findAllViews();
 
+    /**
+     * Retrieves the stores of a specific owner as lean views.
+     * @param ownerId The ID of the owner.
+     * @return List of store views ordered by ID.
+     */
+    @Query("select new com.siopa.partner_details.dto.StoreView(s.id, s.name, s.address, s.isActive, "
+            + "s.phoneNumber, s.email, o.id, o.name) from Store s join s.owner o "
+            + "where o.id = :ownerId order by s.id")
+    List<StoreView> findViewsByOwnerId(@Param("ownerId") Long ownerId);
+
+    /**
+     * Retrieves the stores of several owners as lean views in one query.
+     * @param ownerIds The IDs of the owners.
+     * @return List of store views ordered by owner ID, then store ID.
+     */
+    @Query("select new com.siopa.partner_details.dto.StoreView(s.id, s.name, s.address, s.isActive, "
+            + "s.phoneNumber, s.email, o.id, o.name) from Store s join s.owner o "
+            + "where o.id in :ownerIds order by o.id, s.id")
+    List<StoreView> findViewsByOwnerIdIn(@Param("ownerIds") Collection<Long> ownerIds);
+
+    /**
+     * Retrieves a page of active stores as lean views, starting after the given ID.
+     * Served by the partial index on active store IDs.
+     * @param after The ID of the last store already seen.
+     * @param limit The maximum number of stores to return.
+     * @return List of active store views ordered by ID.
+     */
+    @Query("select new com.siopa.partner_details.dto.StoreView(s.id, s.name, s.address, s.isActive, "
+            + "s.phoneNumber, s.email, o.id, o.name) from Store s join s.owner o "
+            + "where s.isActive = true and s.id > :after order by s.id")
+    List<StoreView> findActiveViewsAfter(@Param("after") Long after, Limit limit);
+
+    /**
+     * Finds which of the given store names are already taken.
+     * @param names The candidate store names.
+     * @return The names that already exist.
+     */
+    @Query("select s.name from Store s where s.name in :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    /**
+     * Retrieves the location of every store that has coordinates.
+     * @return List of store locations for the spatial index.
+     */
+    @Query("select new com.siopa.partner_details.geo.StoreLocation(s.id, o.id, s.name, s.latitude, s.longitude, "
+            + "s.isActive) from Store s join s.owner o where s.latitude is not null and s.longitude is not null")
+    List<StoreLocation> findAllLocations();
+
+    /**
+     * Retrieves the owner and active flag of every store, for the partner statistics.
+     * @return List of store states.
+     */
+    @Query("select new com.siopa.partner_details.stats.StoreState(s.id, s.owner.id, s.isActive) from Store s")
+    List<StoreState> findAllStates();
+
+    /**
+     * Reads only a store's version, for answering conditional requests.
+     * @param id The ID of the store.
+     * @return The version, or empty if the store does not exist.
+     */
+    @Query("select s.version from Store s where s.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Summarises the stores table and its tombstones for the collection ETag.
+     * @return The row count, change sequence sum and tombstone count.
+     */
+    @Query("select new com.siopa.partner_details.dto.CollectionVersion(count(s), coalesce(sum(s.changeSeq), 0L), "
+            + "(select count(t) from StoreTombstone t)) from Store s")
+    CollectionVersion findCollectionVersion();
+
+    /**
+     * Updates a store's details in a single statement without loading it, increments its version
+     * and stamps the change. The change sequence value is taken by the statement itself as it
+     * writes the locked row, so no other write to the store can take a later value and commit first.
+     * @param expectedVersion The version the store must have, or null to update unconditionally.
+     * @param updatedAt The time of the change.
+     * @return The number of stores updated, 0 if the store does not exist or its version differs.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Store s set s.name = :name, s.address = :address, s.phoneNumber = :phoneNumber, "
+            + "s.email = :email, s.isActive = :active, s.latitude = :latitude, s.longitude = :longitude, "
+            + "s.version = s.version + 1, s.changeSeq = function('nextval', 'partner_change_seq'), "
+            + "s.updatedAt = :updatedAt "
+            + "where s.id = :id and (:expectedVersion is null or s.version = :expectedVersion)")
+    int updateDetails(@Param("id") Long id, @Param("name") String name, @Param("address") String address,
+                      @Param("phoneNumber") String phoneNumber, @Param("email") String email,
+                      @Param("active") boolean active, @Param("latitude") Double latitude,
+                      @Param("longitude") Double longitude, @Param("expectedVersion") Long expectedVersion,
+                      @Param("updatedAt") Instant updatedAt);
+
+    /**
+     * Marks every store of an owner as changed, because stores embed their owner.
+     * The stores take the owner's change sequence and time, so run it after the owner's update.
+     * Versions are incremented so store ETags change with the owner.
+     * @return The number of stores touched.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Store s set s.version = s.version + 1, "
+            + "s.changeSeq = (select o.changeSeq from Owner o where o.id = :ownerId), "
+            + "s.updatedAt = (select o.updatedAt from Owner o where o.id = :ownerId) "
+            + "where s.owner.id = :ownerId")
+    int touchByOwnerId(@Param("ownerId") Long ownerId);
+
+    /**
+     * Retrieves the stores changed after a change feed position, selecting only the columns the feed returns.
+     * @param changeSeq The change sequence of the last row seen.
+     * @param id The ID of the last store seen at that change sequence.
+     * @param limit The maximum number of stores to return.
+     * @return List of store changes ordered by change sequence, then ID.
+     */
+    @Query("select new com.siopa.partner_details.dto.StoreChange(s.changeSeq, s.updatedAt, " + RESPONSE_COLUMNS + ") "
+            + "from Store s join s.owner o where s.changeSeq > :changeSeq "
+            + "or (s.changeSeq = :changeSeq and s.id > :id) order by s.changeSeq, s.id")
+    List<StoreChange> findChangedAfter(@Param("changeSeq") long changeSeq, @Param("id") long id, Limit limit);
+
+    /**
+     * Retrieves an owner's stores with the change sequence of each store's last write.
+     * @param ownerId The ID of the owner.
+     * @return List of the owner's stores ordered by ID.
+     */
+    @Query("select new com.siopa.partner_details.dto.StoreChange(s.changeSeq, s.updatedAt, " + RESPONSE_COLUMNS + ") "
+            + "from Store s join s.owner o where o.id = :ownerId order by s.id")
+    List<StoreChange> findChangesByOwnerId(@Param("ownerId") Long ownerId);
+
+    /**
+     * Deletes a store in a single statement without loading it.
+     * @param id The ID of the store.
+     * @return The number of stores deleted, 0 if the store does not exist.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Store s where s.id = :id")
+    int deleteStoreById(@Param("id") Long id);
+
+    /**
+     * Deletes all stores of an owner in a single statement.
+     * @param ownerId The ID of the owner.
+     * @return The number of stores deleted.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Store s where s.owner.id = :ownerId")
+    int deleteAllByOwnerId(@Param("ownerId") Long ownerId);
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.siopa.partner_details.repositories;
+
+import com.siopa.partner_details.dto.StoreDeletion;
+import com.siopa.partner_details.models.StoreTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface StoreTombstoneRepository extends JpaRepository<StoreTombstone, Long> {
+
+    /**
+     * Records a store as deleted, copying its owner from the store row in the same statement.
+     * Must run before the store is deleted.
+     * @return The number of tombstones written, 0 if the store does not exist.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("insert into StoreTombstone (storeId, ownerId, changeSeq, deletedAt) "
+            + "select s.id, s.owner.id, cast(:changeSeq as Long), cast(:deletedAt as Instant) "
+            + "from Store s where s.id = :storeId")
+    int insertForStore(@Param("storeId") Long storeId, @Param("changeSeq") long changeSeq,
+                       @Param("deletedAt") Instant deletedAt);
+
+    /**
+     * Records every store of an owner as deleted in a single statement.
+     * Must run before the stores are deleted.
+     * @return The number of tombstones written.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("insert into StoreTombstone (storeId, ownerId, changeSeq, deletedAt) "
+            + "select s.id, s.owner.id, cast(:changeSeq as Long), cast(:deletedAt as Instant) "
+            + "from Store s where s.owner.id = :ownerId")
+    int insertForOwner(@Param("ownerId") Long ownerId, @Param("changeSeq") long changeSeq,
+                       @Param("deletedAt") Instant deletedAt);
+
+    /**
+     * Retrieves the deletions recorded after a change feed position, without loading tombstone entities.
+     * @param changeSeq The change sequence of the last row seen.
+     * @param storeId The ID of the last store seen at that change sequence.
+     * @param limit The maximum number of deletions to return.
+     * @return List of deletions ordered by change sequence, then store ID.
+     */
+    @Query("select new com.siopa.partner_details.dto.StoreDeletion(t.storeId, t.ownerId, t.changeSeq, t.deletedAt) "
+            + "from StoreTombstone t where t.changeSeq > :changeSeq "
+            + "or (t.changeSeq = :changeSeq and t.storeId > :storeId) order by t.changeSeq, t.storeId")
+    List<StoreDeletion> findChangedAfter(@Param("changeSeq") long changeSeq, @Param("storeId") long storeId,
+                                         Limit limit);
+}
@@ -0,0 +1,112 @@
+package com.siopa.partner_details.search;
+
+import com.siopa.partner_details.dto.OwnerResponse;
+import com.siopa.partner_details.dto.SearchPage;
+import com.siopa.partner_details.dto.StoreView;
+import com.siopa.partner_details.events.ChangeType;
+import com.siopa.partner_details.events.OwnerChangedEvent;
+import com.siopa.partner_details.events.StoreChangedEvent;
+import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.repositories.OwnerRepository;
+import com.siopa.partner_details.repositories.StoreRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Search indexes over stores (name, address) and owners (name, email).
+ * Built from the database at startup and kept current from committed writes.
+ * Store results carry their owner's name, so renaming an owner re-indexes
+ * their stores.
+ */
+@Component
+public class PartnerSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PartnerSearchIndex.class);
+
+    private final StoreRepository storeRepository;
+    private final OwnerRepository ownerRepository;
+    private final TextIndex<StoreView> stores = new TextIndex<>(StoreView::id,
+            store -> Arrays.asList(store.name(), store.address()));
+    private final TextIndex<OwnerResponse> owners = new TextIndex<>(OwnerResponse::id,
+            owner -> Arrays.asList(owner.name(), owner.email()));
+
+    public PartnerSearchIndex(StoreRepository storeRepository, OwnerRepository ownerRepository) {
+        this.storeRepository = storeRepository;
+        this.ownerRepository = ownerRepository;
+    }
+
+    /**
+     * Loads every store and owner from the database once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromDatabase() {
+        List<StoreView> storeViews = storeRepository.findAllViews();
+        List<OwnerResponse> allOwners = ownerRepository.findAllResponses();
+        stores.replaceAll(storeViews);
+        owners.replaceAll(allOwners);
+        log.info("Indexed {} stores and {} owners for search", storeViews.size(), allOwners.size());
+    }
+
+    /**
+     * Applies a committed store change.
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStoreChanged(StoreChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            stores.remove(event.storeId());
+        } else {
+            stores.put(StoreView.of(event.store()));
+        }
+    }
+
+    /**
+     * Applies a committed owner change, including to the owner's stores.
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOwnerChanged(OwnerChangedEvent event) {
+        Long ownerId = event.ownerId();
+        if (event.type() == ChangeType.DELETED) {
+            owners.remove(ownerId);
+            stores.removeIf(store -> ownerId.equals(store.ownerId()));
+            return;
+        }
+        Owner owner = event.owner();
+        owners.put(OwnerResponse.of(owner));
+        if (event.type() == ChangeType.UPDATED) {
+            stores.updateIf(store -> ownerId.equals(store.ownerId()), store -> new StoreView(store.id(),
+                    store.name(), store.address(), store.active(), store.phoneNumber(), store.email(),
+                    ownerId, owner.getName()));
+        }
+    }
+
+    /**
+     * Searches stores by name and address.
+     * @param query The text to find.
+     * @param offset The number of results to skip.
+     * @param limit The maximum number of results to return.
+     * @return The page of matching stores, best match first.
+     */
+    public SearchPage<StoreView> searchStores(String query, int offset, int limit) {
+        return stores.search(query, offset, limit);
+    }
+
+    /**
+     * Searches owners by name and email.
+     * @param query The text to find.
+     * @param offset The number of results to skip.
+     * @param limit The maximum number of results to return.
+     * @return The page of matching owners, best match first.
+     */
+    public SearchPage<OwnerResponse> searchOwners(String query, int offset, int limit) {
+        return owners.search(query, offset, limit);
+    }
+}
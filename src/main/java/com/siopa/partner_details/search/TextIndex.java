@@ -0,0 +1,301 @@
+package com.siopa.partner_details.search;
+
+import com.siopa.partner_details.dto.SearchPage;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory n-gram index for substring and type-ahead search over a few text fields.
+ * <p>
+ * Text is lower-cased and stripped of accents. Every field is indexed by its
+ * trigrams, so a query of three or more characters matches any field containing
+ * it, like a case-insensitive {@code LIKE '%q%'} but without scanning every row.
+ * Shorter queries match the start of a word. Candidates from the posting lists
+ * are checked against the field text, so results are exact.
+ * <p>
+ * Results are ranked by how well the best field matches: the whole field, the
+ * start of the field, the start of a word, anywhere. Ties go to earlier fields,
+ * then shorter fields, then lower IDs.
+ * <p>
+ * Writes are serialised; searches take no locks and see each entry either
+ * before or after a concurrent write.
+ * @param <T> The type of value indexed.
+ */
+public class TextIndex<T> {
+
+    static final int GRAM_LENGTH = 3;
+    private static final char WORD_PREFIX = '\u0000';
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final int WHOLE_FIELD = 3;
+    private static final int FIELD_PREFIX = 2;
+    private static final int WORD_START = 1;
+    private static final int ANYWHERE = 0;
+
+    private record Entry<T>(T value, String[] fields) {
+    }
+
+    private record State<T>(Map<Long, Entry<T>> entries, Map<String, Set<Long>> postings) {
+    }
+
+    private record Hit<T>(long id, T value, int level, int field, int length) {
+    }
+
+    private static final Comparator<Hit<?>> RANKING = Comparator.<Hit<?>>comparingInt(Hit::level).reversed()
+            .thenComparingInt(Hit::field)
+            .thenComparingInt(Hit::length)
+            .thenComparingLong(Hit::id);
+
+    private final ToLongFunction<T> idOf;
+    private final Function<T, List<String>> fieldsOf;
+    private volatile State<T> state = new State<>(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+
+    /**
+     * @param idOf Extracts a value's ID.
+     * @param fieldsOf Extracts the fields to search, most important first; null fields are skipped.
+     */
+    public TextIndex(ToLongFunction<T> idOf, Function<T, List<String>> fieldsOf) {
+        this.idOf = idOf;
+        this.fieldsOf = fieldsOf;
+    }
+
+    /**
+     * Replaces the contents of the index. The new contents are built aside and
+     * swapped in, so searches are not blocked while it loads.
+     * @param values The values to index.
+     */
+    public void replaceAll(Collection<T> values) {
+        State<T> built = new State<>(new ConcurrentHashMap<>(values.size() * 2), new ConcurrentHashMap<>());
+        for (T value : values) {
+            add(built, value);
+        }
+        synchronized (this) {
+            state = built;
+        }
+    }
+
+    /**
+     * Adds a value, or replaces the value with the same ID.
+     * @param value The value.
+     */
+    public synchronized void put(T value) {
+        long id = idOf.applyAsLong(value);
+        Entry<T> previous = state.entries().get(id);
+        Set<String> grams = add(state, value);
+        if (previous != null) {
+            Set<String> stale = grams(previous.fields());
+            stale.removeAll(grams);
+            unpost(state, stale, id);
+        }
+    }
+
+    /**
+     * Removes a value.
+     * @param id The ID of the value.
+     */
+    public synchronized void remove(long id) {
+        Entry<T> previous = state.entries().remove(id);
+        if (previous != null) {
+            unpost(state, grams(previous.fields()), id);
+        }
+    }
+
+    /**
+     * Removes every value matching a condition.
+     * @param condition Selects the values to remove.
+     */
+    public synchronized void removeIf(Predicate<T> condition) {
+        List<Long> ids = new ArrayList<>();
+        state.entries().forEach((id, entry) -> {
+            if (condition.test(entry.value())) {
+                ids.add(id);
+            }
+        });
+        ids.forEach(this::remove);
+    }
+
+    /**
+     * Re-indexes every value matching a condition after applying an update to it.
+     * @param condition Selects the values to update.
+     * @param update Produces the new value; it must keep the same ID.
+     */
+    public synchronized void updateIf(Predicate<T> condition, UnaryOperator<T> update) {
+        List<T> updated = new ArrayList<>();
+        state.entries().values().forEach(entry -> {
+            if (condition.test(entry.value())) {
+                updated.add(update.apply(entry.value()));
+            }
+        });
+        updated.forEach(this::put);
+    }
+
+    /**
+     * @return The number of values in the index.
+     */
+    public int size() {
+        return state.entries().size();
+    }
+
+    /**
+     * Finds the values whose fields contain the query, best match first.
+     * @param query The text to find; queries under three characters match the start of words.
+     * @param offset The number of results to skip.
+     * @param limit The maximum number of results to return.
+     * @return The page of results.
+     */
+    public SearchPage<T> search(String query, int offset, int limit) {
+        String normalized = normalize(query).strip();
+        if (normalized.isEmpty()) {
+            return new SearchPage<>(List.of(), 0, null);
+        }
+        State<T> snapshot = state;
+        boolean wordStartOnly = normalized.length() < GRAM_LENGTH;
+
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String gram : queryGrams(normalized, wordStartOnly)) {
+            Set<Long> posting = snapshot.postings().get(gram);
+            if (posting == null) {
+                return new SearchPage<>(List.of(), 0, null);
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        List<Hit<T>> hits = new ArrayList<>();
+        candidates:
+        for (Long id : postings.get(0)) {
+            for (int i = 1; i < postings.size(); i++) {
+                if (!postings.get(i).contains(id)) {
+                    continue candidates;
+                }
+            }
+            Entry<T> entry = snapshot.entries().get(id);
+            Hit<T> hit = entry == null ? null : match(id, entry, normalized, wordStartOnly);
+            if (hit != null) {
+                hits.add(hit);
+            }
+        }
+        hits.sort(RANKING);
+
+        int from = Math.min(offset, hits.size());
+        int to = Math.min(from + limit, hits.size());
+        List<T> items = new ArrayList<>(to - from);
+        for (Hit<T> hit : hits.subList(from, to)) {
+            items.add(hit.value());
+        }
+        return new SearchPage<>(items, hits.size(), to < hits.size() ? to : null);
+    }
+
+    /**
+     * Lower-cases text and strips accents, so "Café" matches "cafe".
+     */
+    static String normalize(String text) {
+        return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private Set<String> add(State<T> target, T value) {
+        long id = idOf.applyAsLong(value);
+        List<String> fields = new ArrayList<>();
+        for (String field : fieldsOf.apply(value)) {
+            fields.add(field == null ? "" : normalize(field));
+        }
+        Entry<T> entry = new Entry<>(value, fields.toArray(String[]::new));
+        Set<String> grams = grams(entry.fields());
+        for (String gram : grams) {
+            target.postings().computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        // Published after its postings so a search never finds the entry without them
+        target.entries().put(id, entry);
+        return grams;
+    }
+
+    private static <T> void unpost(State<T> target, Set<String> grams, long id) {
+        for (String gram : grams) {
+            target.postings().computeIfPresent(gram, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static Set<String> grams(String[] fields) {
+        Set<String> grams = new HashSet<>();
+        for (String field : fields) {
+            for (int i = 0; i + GRAM_LENGTH <= field.length(); i++) {
+                grams.add(field.substring(i, i + GRAM_LENGTH));
+            }
+            for (int i = 0; i < field.length(); i++) {
+                if (isWordStart(field, i)) {
+                    for (int length = 1; length < GRAM_LENGTH && i + length <= field.length(); length++) {
+                        grams.add(WORD_PREFIX + field.substring(i, i + length));
+                    }
+                }
+            }
+        }
+        return grams;
+    }
+
+    private static Set<String> queryGrams(String query, boolean wordStartOnly) {
+        if (wordStartOnly) {
+            return Set.of(WORD_PREFIX + query);
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+            grams.add(query.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static <T> Hit<T> match(long id, Entry<T> entry, String query, boolean wordStartOnly) {
+        Hit<T> best = null;
+        String[] fields = entry.fields();
+        for (int f = 0; f < fields.length; f++) {
+            int level = level(fields[f], query);
+            if (level < 0 || (wordStartOnly && level == ANYWHERE)) {
+                continue;
+            }
+            if (best == null || level > best.level()) {
+                best = new Hit<>(id, entry.value(), level, f, fields[f].length());
+            }
+        }
+        return best;
+    }
+
+    private static int level(String field, String query) {
+        if (field.equals(query)) {
+            return WHOLE_FIELD;
+        }
+        if (field.startsWith(query)) {
+            return FIELD_PREFIX;
+        }
+        int at = field.indexOf(query);
+        if (at < 0) {
+            return -1;
+        }
+        for (; at >= 0; at = field.indexOf(query, at + 1)) {
+            if (isWordStart(field, at)) {
+                return WORD_START;
+            }
+        }
+        return ANYWHERE;
+    }
+
+    private static boolean isWordStart(String text, int index) {
+        return Character.isLetterOrDigit(text.charAt(index))
+                && (index == 0 || !Character.isLetterOrDigit(text.charAt(index - 1)));
+    }
+}
@@ -0,0 +1,69 @@
+package com.siopa.partner_details.service;
+
+import com.siopa.partner_details.dto.BatchResult;
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Looks up many entities by ID, serving what it can from a by-ID cache and
+ * loading only the misses, in one query, from the database.
+ */
+final class CachedBatchLoader {
+
+    private CachedBatchLoader() {
+    }
+
+    /**
+     * Loads entities by ID.
+     * Repeated IDs are looked up once but answered at every position they were requested.
+     * Entities loaded from the database are added to the cache. IDs cached as
+     * not found count as missing without a query.
+     * @param cache The cache of entities by ID.
+     * @param ids The IDs to look up, in the order results should be returned.
+     * @param loader Loads the given IDs in one query; unknown IDs are left out.
+     * @param idOf Extracts an entity's ID.
+     * @return One entity per requested ID in request order, null where not found,
+     * and the IDs not found.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> BatchResult<T> load(Cache cache, Collection<Long> ids, Function<Collection<Long>, List<T>> loader,
+                                   Function<T, Long> idOf) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, T> found = new HashMap<>(requested.size() * 2);
+        List<Long> misses = new ArrayList<>();
+        for (Long id : requested) {
+            Cache.ValueWrapper cached = cache.get(id);
+            if (cached == null) {
+                misses.add(id);
+            } else if (cached.get() != null) {
+                found.put(id, (T) cached.get());
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (T entity : loader.apply(misses)) {
+                found.put(idOf.apply(entity), entity);
+                cache.put(idOf.apply(entity), entity);
+            }
+        }
+
+        List<T> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            items.add(found.get(id));
+        }
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            if (!found.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        return new BatchResult<>(items, missing);
+    }
+}
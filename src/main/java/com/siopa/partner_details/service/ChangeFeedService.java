@@ -0,0 +1,94 @@
+package com.siopa.partner_details.service;
+
+import com.siopa.partner_details.dto.ChangeToken;
+import com.siopa.partner_details.dto.StoreChange;
+import com.siopa.partner_details.dto.StoreChanges;
+import com.siopa.partner_details.dto.StoreDeletion;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.repositories.StoreRepository;
+import com.siopa.partner_details.repositories.StoreTombstoneRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serves the store change feed: stores written and deleted after a token,
+ * in change sequence order.
+ * <p>
+ * Sequence values are taken before commit, so a write may become visible after a
+ * later one. Writes take their value once their rows are locked and stamp the time
+ * just after it, and no store or owner write outlives the write timeout
+ * ({@code partner.transaction.write-timeout}), which also bounds lock waits. Changes
+ * younger than the settle time ({@code partner.changes.settle-time}) are held back,
+ * so as long as it is configured no shorter than the write timeout, a consumer's
+ * token cannot move past a write that is still committing. Writes made outside the
+ * store and owner services are not covered.
+ * <p>
+ * Reads are not marked read-only, so they always run on the primary. A read replica
+ * may be behind by more than the settle time, and a token taken from it could move
+ * past changes it has not applied yet, which the feed would then never return.
+ */
+@Service
+@Transactional
+public class ChangeFeedService {
+
+    private final StoreRepository storeRepository;
+    private final StoreTombstoneRepository tombstoneRepository;
+    private final Duration settleTime;
+
+    public ChangeFeedService(StoreRepository storeRepository, StoreTombstoneRepository tombstoneRepository,
+                             @Value("${partner.changes.settle-time:PT10S}") Duration settleTime) {
+        this.storeRepository = storeRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.settleTime = settleTime;
+    }
+
+    /**
+     * Gets the store changes after a token.
+     * @param since The token from the previous page, or null to start from the beginning.
+     * @param limit The maximum number of changes to return.
+     * @return The changed and deleted stores, and the token for the next page.
+     * @throws IllegalArgumentException If the token is malformed.
+     */
+    public StoreChanges getStoreChanges(String since, int limit) {
+        ChangeToken from = ChangeToken.parse(since);
+        Instant settledBefore = Instant.now().minus(settleTime);
+        List<StoreChange> stores = storeRepository.findChangedAfter(from.changeSeq(), from.id(), Limit.of(limit + 1));
+        List<StoreDeletion> tombstones = tombstoneRepository.findChangedAfter(
+                from.changeSeq(), from.id(), Limit.of(limit + 1));
+
+        List<StoreResponse> changed = new ArrayList<>();
+        List<StoreDeletion> deleted = new ArrayList<>();
+        ChangeToken last = from;
+        int s = 0;
+        int t = 0;
+        boolean unsettled = false;
+        while (changed.size() + deleted.size() < limit && (s < stores.size() || t < tombstones.size())) {
+            boolean takeStore = t >= tombstones.size() || (s < stores.size()
+                    && new ChangeToken(stores.get(s).changeSeq(), stores.get(s).store().id())
+                    .isBefore(tombstones.get(t).changeSeq(), tombstones.get(t).storeId()));
+            Instant writtenAt = takeStore ? stores.get(s).updatedAt() : tombstones.get(t).deletedAt();
+            if (writtenAt != null && writtenAt.isAfter(settledBefore)) {
+                unsettled = true;
+                break;
+            }
+            if (takeStore) {
+                StoreChange store = stores.get(s++);
+                changed.add(store.store());
+                last = new ChangeToken(store.changeSeq(), store.store().id());
+            } else {
+                StoreDeletion tombstone = tombstones.get(t++);
+                deleted.add(tombstone);
+                last = new ChangeToken(tombstone.changeSeq(), tombstone.storeId());
+            }
+        }
+        boolean hasMore = !unsettled && (s < stores.size() || t < tombstones.size());
+        return new StoreChanges(changed, deleted, last.toString(), hasMore);
+    }
+}
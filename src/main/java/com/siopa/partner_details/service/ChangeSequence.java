@@ -0,0 +1,35 @@
+package com.siopa.partner_details.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out values of the shared {@code partner_change_seq} database sequence.
+ * Every write takes one value and stamps it on all rows it touches, so the
+ * change feed can return rows in the order they were written.
+ */
+@Component
+public class ChangeSequence {
+
+    static final String SEQUENCE_NAME = "partner_change_seq";
+
+    private final EntityManager entityManager;
+    private final String nextValueSql;
+
+    public ChangeSequence(EntityManager entityManager, EntityManagerFactory entityManagerFactory) {
+        this.entityManager = entityManager;
+        this.nextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport()
+                .getSequenceNextValString(SEQUENCE_NAME);
+    }
+
+    /**
+     * Takes the next value of the change sequence.
+     * @return The change sequence value for the current write.
+     */
+    public long next() {
+        return ((Number) entityManager.createNativeQuery(nextValueSql).getSingleResult()).longValue();
+    }
+}
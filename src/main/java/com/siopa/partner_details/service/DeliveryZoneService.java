@@ -0,0 +1,61 @@
+package com.siopa.partner_details.service;
+
+import com.siopa.partner_details.dto.NearbyStore;
+import com.siopa.partner_details.dto.ServingZone;
+import com.siopa.partner_details.geo.DeliveryZoneIndex;
+import com.siopa.partner_details.geo.StoreLocation;
+import com.siopa.partner_details.geo.StoreLocationIndex;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Resolves coordinates to the delivery zones and stores serving them.
+ * Both zones and store locations are held in memory, so lookups do not touch the database.
+ */
+@Service
+public class DeliveryZoneService {
+
+    private final DeliveryZoneIndex deliveryZoneIndex;
+    private final StoreLocationIndex storeLocationIndex;
+
+    public DeliveryZoneService(DeliveryZoneIndex deliveryZoneIndex, StoreLocationIndex storeLocationIndex) {
+        this.deliveryZoneIndex = deliveryZoneIndex;
+        this.storeLocationIndex = storeLocationIndex;
+    }
+
+    /**
+     * Finds the zones covering a point and the active stores located in each zone.
+     * @param latitude The latitude in degrees.
+     * @param longitude The longitude in degrees.
+     * @return The serving zones, each with its stores nearest first.
+     */
+    public List<ServingZone> findServingZones(double latitude, double longitude) {
+        List<ServingZone> serving = new ArrayList<>();
+        for (DeliveryZoneIndex.IndexedZone zone : deliveryZoneIndex.zonesAt(latitude, longitude)) {
+            List<NearbyStore> stores = new ArrayList<>();
+            for (StoreLocation location : storeLocationIndex.within(zone.zone().geometry().getEnvelopeInternal())) {
+                if (location.active() && deliveryZoneIndex.covers(zone, location.latitude(), location.longitude())) {
+                    stores.add(new NearbyStore(location.storeId(), location.ownerId(), location.name(),
+                            location.latitude(), location.longitude(),
+                            StoreLocationIndex.distanceKm(latitude, longitude, location.latitude(), location.longitude())));
+                }
+            }
+            stores.sort(Comparator.comparingDouble(NearbyStore::distanceKm));
+            serving.add(new ServingZone(zone.zone().id(), zone.zone().name(), stores));
+        }
+        return serving;
+    }
+
+    /**
+     * Reloads the delivery zones from the configured shapefile.
+     * @return The number of zones loaded.
+     * @throws IOException If the shapefile cannot be read.
+     */
+    public int reloadZones() throws IOException {
+        return deliveryZoneIndex.reload();
+    }
+}
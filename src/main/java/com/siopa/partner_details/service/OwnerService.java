@@ -1,38 +1,190 @@
 package com.siopa.partner_details.service;
 
+import com.siopa.partner_details.config.CacheConfig;
+import com.siopa.partner_details.dto.BatchResult;
+import com.siopa.partner_details.dto.CollectionVersion;
+import com.siopa.partner_details.dto.CursorPage;
+import com.siopa.partner_details.dto.OwnerResponse;
+import com.siopa.partner_details.dto.OwnerSummary;
+import com.siopa.partner_details.dto.OwnerWithStores;
+import com.siopa.partner_details.dto.SearchPage;
+import com.siopa.partner_details.dto.StoreView;
+import com.siopa.partner_details.events.ChangeType;
+import com.siopa.partner_details.events.OwnerChangedEvent;
+import com.siopa.partner_details.exceptions.PreconditionFailedException;
+import com.siopa.partner_details.exceptions.ResourceNotFoundException;
 import com.siopa.partner_details.models.Owner;
 import com.siopa.partner_details.repositories.OwnerRepository;
+import com.siopa.partner_details.repositories.StoreRepository;
+import com.siopa.partner_details.repositories.StoreTombstoneRepository;
+import com.siopa.partner_details.search.PartnerSearchIndex;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "partner.service", histogram = true)
 @Transactional
 public class OwnerService {
 
+    /**
+     * Owners with more stores than this get only their store counts, not their stores.
+     */
+    public static final int MAX_EMBEDDED_STORES = 200;
+
     private final OwnerRepository ownerRepository;
+    private final StoreRepository storeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final ChangeSequence changeSequence;
+    private final StoreTombstoneRepository tombstoneRepository;
+    private final PartnerSearchIndex searchIndex;
+    private final SingleFlight<Long, Optional<OwnerResponse>> ownerLoads;
 
-    public OwnerService(OwnerRepository ownerRepository) {
+    public OwnerService(OwnerRepository ownerRepository, StoreRepository storeRepository,
+                        ApplicationEventPublisher eventPublisher, CacheManager cacheManager,
+                        ChangeSequence changeSequence, StoreTombstoneRepository tombstoneRepository,
+                        PartnerSearchIndex searchIndex, MeterRegistry meterRegistry) {
         this.ownerRepository = ownerRepository;
+        this.storeRepository = storeRepository;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.changeSequence = changeSequence;
+        this.tombstoneRepository = tombstoneRepository;
+        this.searchIndex = searchIndex;
+        this.ownerLoads = new SingleFlight<>(CacheConfig.OWNERS, meterRegistry);
+    }
+
+    /**
+     * Gets all owners from the database, without loading entities.
+     * @return List of all owners ordered by ID.
+     */
+    @Transactional(readOnly = true)
+    public List<OwnerResponse> getAllOwners() {
+        return ownerRepository.findAllResponses();
     }
 
     /**
-     * Gets all owners from the database.
-     * @return List of all owners.
+     * Retrieves a page of owners ordered by ID, starting after the given cursor.
+     * @param after The ID of the last owner already seen, or null for the first page.
+     * @param limit The maximum number of owners to return.
+     * @return The page of owners and the cursor for the next page.
      */
-    public List<Owner> getAllOwners() {
-        return ownerRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<OwnerResponse> getOwnersPage(Long after, int limit) {
+        List<OwnerResponse> owners = ownerRepository.findResponsesAfter(
+                after == null ? 0L : after, Limit.of(limit + 1));
+        return CursorPage.of(owners, limit, OwnerResponse::id);
     }
 
     /**
      * Retrieves an owner by their ID.
+     * Concurrent cache misses for the same owner share one query. Runs outside a
+     * transaction so only the caller running the query takes a connection; the others
+     * wait for its result without holding one.
      * @param id The ID of the owner.
      * @return An optional Owner object.
      */
-    public Optional<Owner> getOwnerById(Long id) {
-        return ownerRepository.findById(id);
+    @Cacheable(cacheNames = CacheConfig.OWNERS, key = "#id")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<OwnerResponse> getOwnerById(Long id) {
+        return ownerLoads.load(id, () -> ownerRepository.findResponseById(id));
+    }
+
+    /**
+     * Gets many owners by ID, loading only the ones not already cached, in one query.
+     * @param ids The IDs of the owners, in the order results should be returned.
+     * @return One owner per requested ID in request order, null where it does not exist,
+     * and the IDs that do not exist.
+     */
+    @Transactional(readOnly = true)
+    public BatchResult<OwnerResponse> getOwnersByIds(Collection<Long> ids) {
+        return CachedBatchLoader.load(cacheManager.getCache(CacheConfig.OWNERS), ids,
+                ownerRepository::findResponsesByIdIn, OwnerResponse::id);
+    }
+
+    /**
+     * Retrieves an owner with its store counts and, unless it has more than
+     * {@link #MAX_EMBEDDED_STORES}, its stores.
+     * The counts come from the database; the stores are read in one further query.
+     * @param id The ID of the owner.
+     * @return The owner with its stores, or empty if the owner does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<OwnerWithStores> getOwnerWithStores(Long id) {
+        return ownerRepository.findSummaryById(id).map(owner -> new OwnerWithStores(owner,
+                embeds(owner) ? storeRepository.findViewsByOwnerId(id) : noStores(owner)));
+    }
+
+    /**
+     * Retrieves a page of owners with their store counts and stores, ordered by ID.
+     * The stores of every owner on the page are read in one query.
+     * @param after The ID of the last owner already seen, or null for the first page.
+     * @param limit The maximum number of owners to return.
+     * @return The page of owners with their stores and the cursor for the next page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OwnerWithStores> getOwnersWithStoresPage(Long after, int limit) {
+        CursorPage<OwnerSummary> page = CursorPage.of(ownerRepository.findSummariesAfter(
+                after == null ? 0L : after, Limit.of(limit + 1)), limit, OwnerSummary::id);
+        List<Long> embedded = page.items().stream().filter(this::embeds).map(OwnerSummary::id).toList();
+        Map<Long, List<StoreView>> stores = embedded.isEmpty() ? Map.of()
+                : storeRepository.findViewsByOwnerIdIn(embedded).stream()
+                        .collect(Collectors.groupingBy(StoreView::ownerId));
+        List<OwnerWithStores> owners = page.items().stream()
+                .map(owner -> new OwnerWithStores(owner, embeds(owner)
+                        ? stores.getOrDefault(owner.id(), List.of()) : noStores(owner)))
+                .toList();
+        return new CursorPage<>(owners, page.nextCursor());
+    }
+
+    private boolean embeds(OwnerSummary owner) {
+        return owner.storeCount() > 0 && owner.storeCount() <= MAX_EMBEDDED_STORES;
+    }
+
+    private static List<StoreView> noStores(OwnerSummary owner) {
+        return owner.storeCount() == 0 ? List.of() : null;
+    }
+
+    /**
+     * Gets an owner's current version without loading the owner.
+     * A cached owner answers without touching the database.
+     * @param id The ID of the owner.
+     * @return The version, or empty if the owner does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getOwnerVersion(Long id) {
+        Cache.ValueWrapper cached = cacheManager.getCache(CacheConfig.OWNERS).get(id);
+        if (cached != null && cached.get() instanceof OwnerResponse owner && owner.version() != null) {
+            return Optional.of(owner.version());
+        }
+        return ownerRepository.findVersionById(id);
+    }
+
+    /**
+     * Summarises the owners table so clients can revalidate the full listing.
+     * @return The owners' collection version.
+     */
+    @Transactional(readOnly = true)
+    public CollectionVersion getOwnersVersion() {
+        return ownerRepository.findCollectionVersion();
     }
 
     /**
@@ -40,35 +192,82 @@ public class OwnerService {
      * @param owner The owner object to be saved.
      * @return The created owner.
      */
-    public Owner createOwner(Owner owner) {
-        return ownerRepository.save(owner);
+    @CachePut(cacheNames = CacheConfig.OWNERS, key = "#result.id")
+    @Transactional(timeoutString = "${partner.transaction.write-timeout:10}")
+    public OwnerResponse createOwner(Owner owner) {
+        owner.setChangeSeq(changeSequence.next());
+        owner.setUpdatedAt(Instant.now());
+        Owner saved = ownerRepository.save(owner);
+        eventPublisher.publishEvent(new OwnerChangedEvent(ChangeType.CREATED, saved.getId(), saved));
+        return OwnerResponse.of(saved);
     }
 
     /**
-     * Updates an existing owner with new details.
+     * Updates an existing owner with new details in a single statement, which also stamps the change.
+     * Cached stores carry their owner's name, so they are evicted along with the owner's store list,
+     * and the owner's stores are marked changed for the change feed with a second statement.
+     * The owner is then read back for its new version and change sequence.
      * @param id The ID of the owner to update.
      * @param updatedOwner The new owner details.
+     * @param expectedVersion The version the client last saw, or null to update unconditionally.
      * @return The updated owner object.
+     * @throws PreconditionFailedException If the owner has been modified since {@code expectedVersion}.
      */
-    public Owner updateOwner(Long id, Owner updatedOwner) {
-        return ownerRepository.findById(id)
-                .map(owner -> {
-                    owner.setName(updatedOwner.getName());
-                    owner.setEmail(updatedOwner.getEmail());
-                    owner.setPhoneNumber(updatedOwner.getPhoneNumber());
-                    return ownerRepository.save(owner);
-                })
-                .orElseThrow(() -> new RuntimeException("Owner not found with ID: " + id));
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.OWNERS, key = "#id"),
+            evict = {
+                    @CacheEvict(cacheNames = CacheConfig.STORES_BY_OWNER, key = "#id"),
+                    @CacheEvict(cacheNames = CacheConfig.STORES, allEntries = true)
+            })
+    @Transactional(timeoutString = "${partner.transaction.write-timeout:10}")
+    public OwnerResponse updateOwner(Long id, Owner updatedOwner, Long expectedVersion) {
+        int updated = ownerRepository.updateDetails(id, updatedOwner.getName(), updatedOwner.getEmail(),
+                updatedOwner.getPhoneNumber(), expectedVersion, Instant.now());
+        if (updated == 0) {
+            if (expectedVersion != null && ownerRepository.existsById(id)) {
+                throw new PreconditionFailedException("Owner has been modified since version " + expectedVersion);
+            }
+            throw new ResourceNotFoundException("Owner not found with ID: " + id);
+        }
+        storeRepository.touchByOwnerId(id);
+        // Read back for the version and change sequence the update assigned
+        Owner owner = ownerRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Owner not found with ID: " + id));
+        eventPublisher.publishEvent(new OwnerChangedEvent(ChangeType.UPDATED, id, owner));
+        return OwnerResponse.of(owner);
     }
 
     /**
      * Deletes an owner by ID.
+     * The owner's stores are removed with one bulk delete instead of loading them
+     * for orphan removal, so cached stores are evicted too. Each store leaves a
+     * tombstone for the change feed.
      * @param id The ID of the owner to delete.
      */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.OWNERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.STORES_BY_OWNER, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.STORES, allEntries = true)
+    })
+    @Transactional(timeoutString = "${partner.transaction.write-timeout:10}")
     public void deleteOwner(Long id) {
-        if (!ownerRepository.existsById(id)) {
-            throw new RuntimeException("Owner not found with ID: " + id);
+        tombstoneRepository.insertForOwner(id, changeSequence.next(), Instant.now());
+        storeRepository.deleteAllByOwnerId(id);
+        if (ownerRepository.deleteOwnerById(id) == 0) {
+            throw new ResourceNotFoundException("Owner not found with ID: " + id);
         }
-        ownerRepository.deleteById(id);
+        eventPublisher.publishEvent(new OwnerChangedEvent(ChangeType.DELETED, id, null));
+    }
+
+    /**
+     * Searches owners by name and email using the in-memory search index, for type-ahead.
+     * @param query The text to find; queries under three characters match the start of words.
+     * @param offset The number of results to skip.
+     * @param limit The maximum number of results to return.
+     * @return The page of matching owners, best match first.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SearchPage<OwnerResponse> searchOwners(String query, int offset, int limit) {
+        return searchIndex.searchOwners(query, offset, limit);
     }
-}
\ No newline at end of file
+}
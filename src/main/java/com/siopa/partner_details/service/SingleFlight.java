@@ -0,0 +1,84 @@
+package com.siopa.partner_details.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Shares one in-flight load between concurrent callers asking for the same key.
+ * The first caller for a key runs the load; callers arriving before it finishes
+ * wait for its result, or its exception, instead of running their own.
+ * Nothing is kept once a load finishes, so this only coalesces concurrent
+ * cache misses; the cache itself still serves repeat reads.
+ * Calls are counted as {@code partner.singleflight.calls} tagged with the
+ * role, so the coalescing ratio is followers over all calls.
+ * @param <K> The type of key.
+ * @param <V> The type of loaded value.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    /**
+     * @param name The name to tag metrics with.
+     * @param meterRegistry The registry to record calls in.
+     */
+    SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.leaders = counter(name, "leader", meterRegistry);
+        this.followers = counter(name, "follower", meterRegistry);
+    }
+
+    private static Counter counter(String name, String role, MeterRegistry meterRegistry) {
+        return Counter.builder("partner.singleflight.calls")
+                .description("Loads run (leader) or shared with a concurrent caller (follower)")
+                .tag("name", name)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the value for a key, sharing a load already in flight for the same key.
+     * @param key The key.
+     * @param loader Loads the value if no load for the key is in flight.
+     * @return The loaded value.
+     */
+    V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            followers.increment();
+            return await(existing);
+        }
+        leaders.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
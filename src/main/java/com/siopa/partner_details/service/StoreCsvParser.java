@@ -0,0 +1,140 @@
+package com.siopa.partner_details.service;
+
+import com.siopa.partner_details.dto.BulkImportResult.RowError;
+import com.siopa.partner_details.models.Store;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses store rows from CSV for bulk imports.
+ * The first line is a header naming the columns: name, address, phoneNumber,
+ * email, latitude, longitude and active (isActive is also accepted). Fields may
+ * be quoted with double quotes, with embedded quotes doubled.
+ */
+final class StoreCsvParser {
+
+    private StoreCsvParser() {
+    }
+
+    /**
+     * Parses the CSV into one entry per data line.
+     * Lines that cannot be parsed produce a null entry and a row error,
+     * so row numbers stay aligned with the input.
+     * @param reader The CSV source.
+     * @param errors Receives parse errors.
+     * @return The parsed stores, with null for unparseable rows.
+     * @throws IOException If reading fails.
+     * @throws ResponseStatusException 400 Bad Request if the header lacks the name or address column.
+     */
+    static List<Store> parse(Reader reader, List<RowError> errors) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        String headerLine = lines.readLine();
+        if (headerLine == null) {
+            return List.of();
+        }
+        Map<String, Integer> header = new HashMap<>();
+        List<String> headerFields = split(headerLine);
+        for (int i = 0; i < headerFields.size(); i++) {
+            header.put(headerFields.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!header.containsKey("name") || !header.containsKey("address")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header must contain name and address columns");
+        }
+
+        List<Store> stores = new ArrayList<>();
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            int row = stores.size() + 1;
+            try {
+                List<String> fields = split(line);
+                Store store = new Store();
+                store.setName(field(fields, header, "name"));
+                store.setAddress(field(fields, header, "address"));
+                store.setPhoneNumber(field(fields, header, "phonenumber"));
+                store.setEmail(field(fields, header, "email"));
+                store.setLatitude(parseCoordinate(field(fields, header, "latitude"), "latitude"));
+                store.setLongitude(parseCoordinate(field(fields, header, "longitude"), "longitude"));
+                String active = field(fields, header, header.containsKey("active") ? "active" : "isactive");
+                store.setActive(active == null || parseBoolean(active));
+                stores.add(store);
+            } catch (IllegalArgumentException e) {
+                errors.add(new RowError(row, null, e.getMessage()));
+                stores.add(null);
+            }
+        }
+        return stores;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> header, String column) {
+        Integer index = header.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static boolean parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Invalid active value: " + value);
+    }
+
+    private static Double parseCoordinate(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + " value: " + value);
+        }
+    }
+
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -1,53 +1,216 @@
 package com.siopa.partner_details.service;
 
+import com.siopa.partner_details.config.CacheConfig;
+import com.siopa.partner_details.dto.BatchResult;
+import com.siopa.partner_details.dto.BulkImportResult;
+import com.siopa.partner_details.dto.BulkImportResult.RowError;
+import com.siopa.partner_details.dto.CollectionVersion;
+import com.siopa.partner_details.dto.CursorPage;
+import com.siopa.partner_details.dto.NearbyStore;
+import com.siopa.partner_details.dto.SearchPage;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.dto.StoreView;
+import com.siopa.partner_details.events.ChangeType;
+import com.siopa.partner_details.events.StoreChangedEvent;
+import com.siopa.partner_details.exceptions.PreconditionFailedException;
+import com.siopa.partner_details.exceptions.ResourceNotFoundException;
+import com.siopa.partner_details.geo.StoreLocationIndex;
 import com.siopa.partner_details.models.Owner;
 import com.siopa.partner_details.models.Store;
 import com.siopa.partner_details.repositories.OwnerRepository;
 import com.siopa.partner_details.repositories.StoreRepository;
+import com.siopa.partner_details.repositories.StoreTombstoneRepository;
+import com.siopa.partner_details.search.PartnerSearchIndex;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 
 
 @Service
+@Timed(value = "partner.service", histogram = true)
 @Transactional
 public class StoreService {
 
     private final StoreRepository storeRepository;
     private final OwnerRepository ownerRepository;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StoreLocationIndex storeLocationIndex;
+    private final CacheManager cacheManager;
+    private final ChangeSequence changeSequence;
+    private final StoreTombstoneRepository tombstoneRepository;
+    private final PartnerSearchIndex searchIndex;
+    private final SingleFlight<Long, Optional<StoreResponse>> storeLoads;
+    private final SingleFlight<Long, List<StoreResponse>> storesByOwnerLoads;
 
-    public StoreService(StoreRepository storeRepository, OwnerRepository ownerRepository) {
+    /**
+     * Number of stores inserted per flush during bulk imports.
+     * Matches the Hibernate JDBC batch size so each flush is one batch.
+     */
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int importBatchSize = 50;
+
+    public StoreService(StoreRepository storeRepository, OwnerRepository ownerRepository, Validator validator,
+                        ApplicationEventPublisher eventPublisher, StoreLocationIndex storeLocationIndex,
+                        CacheManager cacheManager, ChangeSequence changeSequence,
+                        StoreTombstoneRepository tombstoneRepository, PartnerSearchIndex searchIndex,
+                        MeterRegistry meterRegistry) {
         this.storeRepository = storeRepository;
         this.ownerRepository = ownerRepository;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.storeLocationIndex = storeLocationIndex;
+        this.cacheManager = cacheManager;
+        this.changeSequence = changeSequence;
+        this.tombstoneRepository = tombstoneRepository;
+        this.searchIndex = searchIndex;
+        this.storeLoads = new SingleFlight<>(CacheConfig.STORES, meterRegistry);
+        this.storesByOwnerLoads = new SingleFlight<>(CacheConfig.STORES_BY_OWNER, meterRegistry);
+    }
+
+    /**
+     * Retrieves all stores from the database, without loading entities.
+     * @return List of all stores ordered by ID.
+     */
+    @Transactional(readOnly = true)
+    public List<StoreResponse> getAllStores() {
+        return storeRepository.findAllResponses();
     }
 
     /**
-     * Retrieves all stores from the database.
-     * @return List of all stores.
+     * Retrieves a page of stores ordered by ID, starting after the given cursor.
+     * @param after The ID of the last store already seen, or null for the first page.
+     * @param limit The maximum number of stores to return.
+     * @return The page of stores and the cursor for the next page.
      */
-    public List<Store> getAllStores() {
-        return storeRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<StoreResponse> getStoresPage(Long after, int limit) {
+        List<StoreResponse> stores = storeRepository.findResponsesAfter(
+                after == null ? 0L : after, Limit.of(limit + 1));
+        return CursorPage.of(stores, limit, StoreResponse::id);
     }
 
     /**
      * Retrieves a store by its ID.
+     * Concurrent cache misses for the same store share one query. Runs outside a
+     * transaction so only the caller running the query takes a connection; the others
+     * wait for its result without holding one.
      * @param id The ID of the store.
      * @return An optional Store object.
      */
-    public Optional<Store> getStoreById(Long id) {
-        return storeRepository.findById(id);
+    @Cacheable(cacheNames = CacheConfig.STORES, key = "#id")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<StoreResponse> getStoreById(Long id) {
+        return storeLoads.load(id, () -> storeRepository.findResponseById(id));
+    }
+
+    /**
+     * Retrieves many stores by ID.
+     * Cached stores are served from the cache; the rest are loaded in one query and cached.
+     * @param ids The IDs of the stores, in the order results should be returned.
+     * @return One store per requested ID in request order, null where it does not exist,
+     * and the IDs that do not exist.
+     */
+    @Transactional(readOnly = true)
+    public BatchResult<StoreResponse> getStoresByIds(Collection<Long> ids) {
+        return CachedBatchLoader.load(cacheManager.getCache(CacheConfig.STORES), ids,
+                storeRepository::findResponsesByIdIn, StoreResponse::id);
+    }
+
+    /**
+     * Gets a store's current version without loading the store.
+     * A cached store answers without touching the database.
+     * @param id The ID of the store.
+     * @return The version, or empty if the store does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getStoreVersion(Long id) {
+        Cache.ValueWrapper cached = cacheManager.getCache(CacheConfig.STORES).get(id);
+        if (cached != null && cached.get() instanceof StoreResponse store && store.version() != null) {
+            return Optional.of(store.version());
+        }
+        return storeRepository.findVersionById(id);
+    }
+
+    /**
+     * Summarises the stores table so clients can revalidate the full store listing.
+     * Stores carry their owner's name, but an owner update restamps the owner's stores,
+     * so the stores table alone covers it.
+     * @return The stores' collection version.
+     */
+    @Transactional(readOnly = true)
+    public CollectionVersion getStoresVersion() {
+        return storeRepository.findCollectionVersion();
     }
 
     /**
      * Gets all stores belonging to a specific owner.
+     * Concurrent cache misses for the same owner share one query, run outside a
+     * transaction like {@link #getStoreById}.
      * @param ownerId The ID of the owner.
      * @return List of stores owned by the given owner.
      */
-    public List<Store> getStoresByOwnerId(Long ownerId) {
-        return storeRepository.findByOwnerId(ownerId);
+    @Cacheable(cacheNames = CacheConfig.STORES_BY_OWNER, key = "#ownerId")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<StoreResponse> getStoresByOwnerId(Long ownerId) {
+        return storesByOwnerLoads.load(ownerId, () -> storeRepository.findResponsesByOwnerId(ownerId));
+    }
+
+    /**
+     * Retrieves all stores as lean views in a single query.
+     * @return List of store views.
+     */
+    @Transactional(readOnly = true)
+    public List<StoreView> getAllStoreViews() {
+        return storeRepository.findAllViews();
+    }
+
+    /**
+     * Gets the stores of a specific owner as lean views in a single query.
+     * @param ownerId The ID of the owner.
+     * @return List of store views owned by the given owner.
+     */
+    @Transactional(readOnly = true)
+    public List<StoreView> getStoreViewsByOwnerId(Long ownerId) {
+        return storeRepository.findViewsByOwnerId(ownerId);
+    }
+
+    /**
+     * Retrieves a page of active stores as lean views, starting after the given cursor.
+     * @param after The ID of the last store already seen, or null for the first page.
+     * @param limit The maximum number of stores to return.
+     * @return The page of active store views and the cursor for the next page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<StoreView> getActiveStoreViewsPage(Long after, int limit) {
+        List<StoreView> views = storeRepository.findActiveViewsAfter(
+                after == null ? 0L : after, Limit.of(limit + 1));
+        return CursorPage.of(views, limit, StoreView::id);
     }
 
     /**
@@ -56,41 +219,191 @@ public class StoreService {
      * @param ownerId The ID of the owner to associate with the store.
      * @return The created store.
      */
-    public Store createStore(Store store, Long ownerId) {
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.STORES, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.STORES_BY_OWNER, key = "#ownerId"))
+    @Transactional(timeoutString = "${partner.transaction.write-timeout:10}")
+    public StoreResponse createStore(Store store, Long ownerId) {
         Owner owner = ownerRepository.findById(ownerId)
-                .orElseThrow(() -> new RuntimeException("Owner not found with ID: " + ownerId));
+                .orElseThrow(() -> new ResourceNotFoundException("Owner not found with ID: " + ownerId));
 
         store.setOwner(owner);
-        return storeRepository.save(store);
+        store.setChangeSeq(changeSequence.next());
+        store.setUpdatedAt(Instant.now());
+        Store saved = storeRepository.save(store);
+        eventPublisher.publishEvent(new StoreChangedEvent(ChangeType.CREATED, saved.getId(), saved));
+        return StoreResponse.of(saved);
+    }
+
+    /**
+     * Creates many stores for one owner.
+     * The owner is resolved once and every row is validated before anything is
+     * inserted. Valid rows are inserted in JDBC batches; invalid rows are skipped
+     * and reported.
+     * @param stores The stores to create, in row order.
+     * @param ownerId The ID of the owner to associate with the stores.
+     * @return The import report.
+     */
+    @CacheEvict(cacheNames = CacheConfig.STORES_BY_OWNER, key = "#ownerId")
+    @Transactional(timeoutString = "${partner.transaction.write-timeout:10}")
+    public BulkImportResult createStores(List<Store> stores, Long ownerId) {
+        return importStores(stores, ownerId, new ArrayList<>());
+    }
+
+    /**
+     * Creates many stores for one owner from CSV.
+     * @param csv The CSV source, with a header line naming the columns.
+     * @param ownerId The ID of the owner to associate with the stores.
+     * @return The import report.
+     * @throws IOException If the CSV cannot be read.
+     * @throws org.springframework.web.server.ResponseStatusException 400 Bad Request if the header
+     * lacks the name or address column.
+     */
+    @CacheEvict(cacheNames = CacheConfig.STORES_BY_OWNER, key = "#ownerId")
+    @Transactional(timeoutString = "${partner.transaction.write-timeout:10}")
+    public BulkImportResult createStoresFromCsv(Reader csv, Long ownerId) throws IOException {
+        List<RowError> errors = new ArrayList<>();
+        List<Store> stores = StoreCsvParser.parse(csv, errors);
+        return importStores(stores, ownerId, errors);
+    }
+
+    private BulkImportResult importStores(List<Store> rows, Long ownerId, List<RowError> errors) {
+        Owner owner = ownerRepository.findById(ownerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Owner not found with ID: " + ownerId));
+
+        Set<Integer> rejected = new HashSet<>();
+        errors.forEach(error -> rejected.add(error.row()));
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Store store = rows.get(i);
+            int row = i + 1;
+            if (store == null) {
+                continue;
+            }
+            for (ConstraintViolation<Store> violation : validator.validate(store)) {
+                errors.add(new RowError(row, violation.getPropertyPath().toString(), violation.getMessage()));
+                rejected.add(row);
+            }
+            if (store.getName() != null && !names.add(store.getName())) {
+                errors.add(new RowError(row, "name", "Duplicate store name in import: " + store.getName()));
+                rejected.add(row);
+            }
+        }
+
+        Set<String> existing = names.isEmpty() ? Set.of() : new HashSet<>(storeRepository.findExistingNames(names));
+        List<Store> valid = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Store store = rows.get(i);
+            int row = i + 1;
+            if (store == null || rejected.contains(row)) {
+                continue;
+            }
+            if (existing.contains(store.getName())) {
+                errors.add(new RowError(row, "name", "Store name already exists: " + store.getName()));
+                continue;
+            }
+            store.setId(null);
+            store.setOwner(owner);
+            valid.add(store);
+        }
+
+        List<Long> createdIds = new ArrayList<>(valid.size());
+        for (int from = 0; from < valid.size(); from += importBatchSize) {
+            List<Store> batch = valid.subList(from, Math.min(from + importBatchSize, valid.size()));
+            // Each batch takes its own sequence value just before it is written, not one for the whole import
+            long changeSeq = changeSequence.next();
+            Instant now = Instant.now();
+            batch.forEach(store -> {
+                store.setChangeSeq(changeSeq);
+                store.setUpdatedAt(now);
+            });
+            for (Store store : storeRepository.saveAllAndFlush(batch)) {
+                createdIds.add(store.getId());
+                eventPublisher.publishEvent(new StoreChangedEvent(ChangeType.CREATED, store.getId(), store));
+            }
+        }
+
+        errors.sort(Comparator.comparingInt(RowError::row));
+        return new BulkImportResult(rows.size(), createdIds.size(), createdIds, errors);
     }
 
     /**
      * Updates an existing store with new details.
+     * The update, including its change feed stamp, is a single statement; the store
+     * is then read back with its owner in one select so the response, cache and
+     * change listeners see the committed state.
      * @param id The ID of the store to update.
      * @param updatedStore The new store details.
+     * @param expectedVersion The version the client last saw, or null to update unconditionally.
      * @return The updated store object.
+     * @throws PreconditionFailedException If the store has been modified since {@code expectedVersion}.
      */
-    public Store updateStore(Long id, Store updatedStore) {
-        return storeRepository.findById(id)
-                .map(store -> {
-                    store.setName(updatedStore.getName());
-                    store.setAddress(updatedStore.getAddress());
-                    store.setPhoneNumber(updatedStore.getPhoneNumber());
-                    store.setEmail(updatedStore.getEmail());
-                    store.setActive(updatedStore.isActive());
-                    return storeRepository.save(store);
-                })
-                .orElseThrow(() -> new RuntimeException("Store not found with ID: " + id));
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.STORES, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.STORES_BY_OWNER, key = "#result.ownerId"))
+    @Transactional(timeoutString = "${partner.transaction.write-timeout:10}")
+    public StoreResponse updateStore(Long id, Store updatedStore, Long expectedVersion) {
+        int updated = storeRepository.updateDetails(id, updatedStore.getName(), updatedStore.getAddress(),
+                updatedStore.getPhoneNumber(), updatedStore.getEmail(), updatedStore.isActive(),
+                updatedStore.getLatitude(), updatedStore.getLongitude(), expectedVersion, Instant.now());
+        if (updated == 0) {
+            if (expectedVersion != null && storeRepository.existsById(id)) {
+                throw new PreconditionFailedException("Store has been modified since version " + expectedVersion);
+            }
+            throw new ResourceNotFoundException("Store not found with ID: " + id);
+        }
+        Store store = storeRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Store not found with ID: " + id));
+        eventPublisher.publishEvent(new StoreChangedEvent(ChangeType.UPDATED, id, store));
+        return StoreResponse.of(store);
     }
 
     /**
-     * Deletes a store by ID.
+     * Deletes a store by ID without loading it, leaving a tombstone for the change feed.
+     * The owner is not known without an extra select, so all cached store lists are evicted.
      * @param id The ID of the store to delete.
      */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.STORES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.STORES_BY_OWNER, allEntries = true)
+    })
+    @Transactional(timeoutString = "${partner.transaction.write-timeout:10}")
     public void deleteStore(Long id) {
-        if (!storeRepository.existsById(id)) {
-            throw new RuntimeException("Store not found with ID: " + id);
+        // The tombstone insert copies the store row, so it also tells us whether the store exists
+        if (tombstoneRepository.insertForStore(id, changeSequence.next(), Instant.now()) == 0) {
+            throw new ResourceNotFoundException("Store not found with ID: " + id);
         }
-        storeRepository.deleteById(id);
+        storeRepository.deleteStoreById(id);
+        eventPublisher.publishEvent(new StoreChangedEvent(ChangeType.DELETED, id, null));
+    }
+
+    /**
+     * Finds stores near a point using the in-memory spatial index.
+     * Returns the nearest stores within the radius if one is given, otherwise
+     * the nearest stores regardless of distance.
+     * @param latitude The latitude of the point in degrees.
+     * @param longitude The longitude of the point in degrees.
+     * @param radiusKm The search radius in kilometres, or null for no limit.
+     * @param limit The maximum number of stores to return.
+     * @return The stores found, nearest first.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<NearbyStore> findNearbyStores(double latitude, double longitude, Double radiusKm, int limit) {
+        if (radiusKm == null) {
+            return storeLocationIndex.nearest(latitude, longitude, limit, true);
+        }
+        return storeLocationIndex.withinRadius(latitude, longitude, radiusKm, limit, true);
+    }
+
+    /**
+     * Searches stores by name and address fragments using the in-memory search index.
+     * @param query The text to find; queries under three characters match the start of words.
+     * @param offset The number of results to skip.
+     * @param limit The maximum number of results to return.
+     * @return The page of matching stores, best match first.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SearchPage<StoreView> searchStores(String query, int offset, int limit) {
+        return searchIndex.searchStores(query, offset, limit);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,463 @@
+package com.siopa.partner_details.snapshot;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.partner_details.dto.ChangeToken;
+import com.siopa.partner_details.dto.StoreChange;
+import com.siopa.partner_details.dto.StoreDeletion;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.events.ChangeType;
+import com.siopa.partner_details.events.OwnerChangedEvent;
+import com.siopa.partner_details.events.StoreChangedEvent;
+import com.siopa.partner_details.models.Store;
+import com.siopa.partner_details.repositories.StoreRepository;
+import com.siopa.partner_details.repositories.StoreTombstoneRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Read-only snapshot of every store as pre-serialized JSON, for answering
+ * {@code GET /api/stores/{id}} without building or caching objects per store.
+ * <p>
+ * The snapshot is a sorted {@code long[]} of store IDs, parallel primitive arrays of
+ * owner IDs, versions, change sequences and offsets, and one off-heap buffer holding
+ * the JSON of every store back to back. A lookup is a binary search and a copy of the
+ * store's bytes; none of it is scanned by the garbage collector.
+ * <p>
+ * Changes are recorded in a small overlay that is copied and swapped on each write,
+ * so readers never lock. A change only replaces a store's entry if it has a higher
+ * change sequence, since committed changes can be delivered out of order, and a
+ * deleted store is never brought back; the IDs of deleted stores are kept for that.
+ * This instance's commits are applied as they happen. Every instance's changes,
+ * including this one's, are also read from the store change feed each refresh interval
+ * ({@code partner.snapshot.refresh-interval}), so other instances' writes are seen
+ * within that interval. Like the feed, the refresh only moves past changes older than
+ * the settle time, and re-reads younger ones. Once enough changes accumulate, the
+ * arrays are rebuilt in the background with the overlay merged in, and swapped in the
+ * same way. Disabled unless {@code partner.snapshot.enabled} is set.
+ * <p>
+ * Reads run in transactions that are not read-only, so they always use the primary,
+ * which a lagging read replica could not stand in for.
+ */
+@Component
+public class StoreSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(StoreSnapshot.class);
+
+    static final int LOAD_PAGE_SIZE = 1000;
+    static final int REBUILD_THRESHOLD = 1024;
+
+    private final boolean enabled;
+    private final Duration settleTime;
+    private final StoreRepository storeRepository;
+    private final StoreTombstoneRepository tombstoneRepository;
+    private final TransactionTemplate onPrimary;
+    private final ObjectMapper objectMapper;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "store-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean loaded;
+    // Where the next refresh reads from; only written by the load and then the refresh
+    private ChangeToken storeCursor = ChangeToken.START;
+    private ChangeToken tombstoneCursor = ChangeToken.START;
+
+    public StoreSnapshot(@Value("${partner.snapshot.enabled:false}") boolean enabled,
+                         @Value("${partner.changes.settle-time:PT10S}") Duration settleTime,
+                         StoreRepository storeRepository, StoreTombstoneRepository tombstoneRepository,
+                         PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.settleTime = settleTime;
+        this.storeRepository = storeRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.onPrimary = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        Gauge.builder("partner.snapshot.stores", this, StoreSnapshot::size)
+                .description("Stores in the JSON snapshot")
+                .register(meterRegistry);
+        Gauge.builder("partner.snapshot.bytes", this, s -> s.snapshot.json.capacity())
+                .description("Off-heap bytes held by the JSON snapshot, excluding pending changes")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A store's pre-serialized response.
+     * @param storeId The ID of the store.
+     * @param ownerId The ID of the store's owner.
+     * @param version The store's version, also its ETag.
+     * @param changeSeq The change sequence of the store's last write.
+     * @param json The store as JSON, or null in the overlay for a deleted store.
+     */
+    public record Entry(long storeId, long ownerId, long version, long changeSeq, byte[] json) {
+
+        static Entry deleted(long storeId) {
+            return new Entry(storeId, 0L, 0L, Long.MAX_VALUE, null);
+        }
+    }
+
+    /**
+     * The base arrays and the changes made since they were built. Never modified once published.
+     */
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(new long[0], new long[0], new long[0], new long[0], new int[1],
+                ByteBuffer.allocateDirect(0), new long[0], Map.of());
+
+        final long[] ids;
+        final long[] ownerIds;
+        final long[] versions;
+        final long[] changeSeqs;
+        final int[] offsets;
+        final ByteBuffer json;
+        final long[] deleted;
+        final Map<Long, Entry> overlay;
+
+        Snapshot(long[] ids, long[] ownerIds, long[] versions, long[] changeSeqs, int[] offsets, ByteBuffer json,
+                 long[] deleted, Map<Long, Entry> overlay) {
+            this.ids = ids;
+            this.ownerIds = ownerIds;
+            this.versions = versions;
+            this.changeSeqs = changeSeqs;
+            this.offsets = offsets;
+            this.json = json;
+            this.deleted = deleted;
+            this.overlay = overlay;
+        }
+
+        Snapshot withOverlay(Map<Long, Entry> overlay) {
+            return new Snapshot(ids, ownerIds, versions, changeSeqs, offsets, json, deleted, overlay);
+        }
+
+        Entry base(int index) {
+            byte[] bytes = new byte[offsets[index + 1] - offsets[index]];
+            json.get(offsets[index], bytes);
+            return new Entry(ids[index], ownerIds[index], versions[index], changeSeqs[index], bytes);
+        }
+
+        Entry find(long id) {
+            Entry changed = overlay.get(id);
+            if (changed != null) {
+                return changed.json() == null ? null : changed;
+            }
+            int index = Arrays.binarySearch(ids, id);
+            return index < 0 ? null : base(index);
+        }
+
+        /**
+         * Checks whether a change is newer than what is held for its store, in the base
+         * arrays or in the given overlay. A deletion always is, unless it is already known.
+         */
+        boolean isNewer(Map<Long, Entry> overlay, Entry change) {
+            Entry changed = overlay.get(change.storeId());
+            if (changed != null) {
+                return changed.json() != null && (change.json() == null || change.changeSeq() > changed.changeSeq());
+            }
+            if (Arrays.binarySearch(deleted, change.storeId()) >= 0) {
+                return false;
+            }
+            int index = Arrays.binarySearch(ids, change.storeId());
+            return index < 0 || change.json() == null || change.changeSeq() > changeSeqs[index];
+        }
+
+        int size() {
+            int size = ids.length;
+            for (Entry entry : overlay.values()) {
+                boolean inBase = Arrays.binarySearch(ids, entry.storeId()) >= 0;
+                if (entry.json() == null && inBase) {
+                    size--;
+                } else if (entry.json() != null && !inBase) {
+                    size++;
+                }
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Checks whether the snapshot is in use.
+     * @return True if {@code partner.snapshot.enabled} is set.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Finds a store's pre-serialized response.
+     * @param id The ID of the store.
+     * @return The store's JSON and version, or empty if the store does not exist or the snapshot is disabled.
+     */
+    public Optional<Entry> find(long id) {
+        return Optional.ofNullable(snapshot.find(id));
+    }
+
+    /**
+     * @return The number of stores in the snapshot.
+     */
+    public int size() {
+        return snapshot.size();
+    }
+
+    /**
+     * Loads every store and deleted store from the change feed, a page at a time,
+     * once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromDatabase() {
+        if (!enabled) {
+            return;
+        }
+        List<Entry> entries = new ArrayList<>();
+        List<Entry> deletions = new ArrayList<>();
+        onPrimary.executeWithoutResult(status -> {
+            storeCursor = readStores(ChangeToken.START, entries);
+            tombstoneCursor = readTombstones(ChangeToken.START, deletions);
+        });
+        Snapshot built = build(entries, deletions.stream().mapToLong(Entry::storeId).toArray());
+        synchronized (this) {
+            // Changes committed while loading are kept if they are newer than what was read
+            snapshot = built.withOverlay(merge(built, Map.of(), snapshot.overlay.values()));
+        }
+        loaded = true;
+        log.info("Loaded {} stores ({} bytes) into the store snapshot", built.ids.length, built.json.capacity());
+    }
+
+    /**
+     * Applies the changes every instance has made since the last refresh.
+     */
+    @Scheduled(fixedDelayString = "${partner.snapshot.refresh-interval:PT1S}")
+    public void refresh() {
+        if (!enabled || !loaded) {
+            return;
+        }
+        List<Entry> changes = new ArrayList<>();
+        onPrimary.executeWithoutResult(status -> {
+            storeCursor = readStores(storeCursor, changes);
+            tombstoneCursor = readTombstones(tombstoneCursor, changes);
+        });
+        apply(changes);
+    }
+
+    /**
+     * Reads the stores changed after a position, up to the latest change.
+     * @return The position to read from next time: just past the last change that is
+     *         older than the settle time and follows no younger change.
+     */
+    private ChangeToken readStores(ChangeToken from, List<Entry> into) {
+        Instant settledBefore = Instant.now().minus(settleTime);
+        ChangeToken position = from;
+        ChangeToken settled = from;
+        List<StoreChange> page;
+        do {
+            page = storeRepository.findChangedAfter(position.changeSeq(), position.id(), Limit.of(LOAD_PAGE_SIZE));
+            for (StoreChange change : page) {
+                into.add(entry(change.store(), change.changeSeq()));
+                boolean caughtUp = settled == position;
+                position = new ChangeToken(change.changeSeq(), change.store().id());
+                if (caughtUp && (change.updatedAt() == null || change.updatedAt().isBefore(settledBefore))) {
+                    settled = position;
+                }
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        return settled;
+    }
+
+    /**
+     * Reads the stores deleted after a position, as {@link #readStores} does.
+     */
+    private ChangeToken readTombstones(ChangeToken from, List<Entry> into) {
+        Instant settledBefore = Instant.now().minus(settleTime);
+        ChangeToken position = from;
+        ChangeToken settled = from;
+        List<StoreDeletion> page;
+        do {
+            page = tombstoneRepository.findChangedAfter(position.changeSeq(), position.id(), Limit.of(LOAD_PAGE_SIZE));
+            for (StoreDeletion tombstone : page) {
+                into.add(Entry.deleted(tombstone.storeId()));
+                boolean caughtUp = settled == position;
+                position = new ChangeToken(tombstone.changeSeq(), tombstone.storeId());
+                if (caughtUp && (tombstone.deletedAt() == null || tombstone.deletedAt().isBefore(settledBefore))) {
+                    settled = position;
+                }
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        return settled;
+    }
+
+    /**
+     * Applies a committed store change.
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStoreChanged(StoreChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.type() == ChangeType.DELETED) {
+            apply(List.of(Entry.deleted(event.storeId())));
+        } else {
+            Store store = event.store();
+            apply(List.of(entry(StoreResponse.of(store), store.getChangeSeq())));
+        }
+    }
+
+    /**
+     * Re-renders the stores of an updated owner, since stores embed the owner's name,
+     * and drops the stores of a deleted owner.
+     * @param event The owner change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOwnerChanged(OwnerChangedEvent event) {
+        if (!enabled || event.type() == ChangeType.CREATED) {
+            return;
+        }
+        List<Entry> changes = new ArrayList<>();
+        if (event.type() == ChangeType.DELETED) {
+            Snapshot current = snapshot;
+            for (int i = 0; i < current.ids.length; i++) {
+                if (current.ownerIds[i] == event.ownerId()) {
+                    changes.add(Entry.deleted(current.ids[i]));
+                }
+            }
+            current.overlay.values().stream()
+                    .filter(entry -> entry.json() != null && entry.ownerId() == event.ownerId())
+                    .forEach(entry -> changes.add(Entry.deleted(entry.storeId())));
+        } else {
+            onPrimary.execute(status -> storeRepository.findChangesByOwnerId(event.ownerId()))
+                    .forEach(change -> changes.add(entry(change.store(), change.changeSeq())));
+        }
+        apply(changes);
+    }
+
+    private Entry entry(StoreResponse store, long changeSeq) {
+        try {
+            return new Entry(store.id(), store.ownerId(), store.version() == null ? 0L : store.version(), changeSeq,
+                    objectMapper.writeValueAsBytes(store));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Adds the changes that are newer than what a snapshot holds to a copy of its overlay.
+     */
+    private static Map<Long, Entry> merge(Snapshot base, Map<Long, Entry> overlay, Iterable<Entry> changes) {
+        Map<Long, Entry> merged = new HashMap<>(overlay);
+        for (Entry change : changes) {
+            if (base.isNewer(merged, change)) {
+                merged.put(change.storeId(), change);
+            }
+        }
+        return Map.copyOf(merged);
+    }
+
+    private void apply(List<Entry> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        int overlaySize;
+        synchronized (this) {
+            snapshot = snapshot.withOverlay(merge(snapshot, snapshot.overlay, changes));
+            overlaySize = snapshot.overlay.size();
+        }
+        if (overlaySize >= REBUILD_THRESHOLD && rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuildScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Merges the overlay into new base arrays. Changes applied while the arrays were
+     * being built stay in the overlay of the swapped-in snapshot.
+     */
+    void rebuild() {
+        Snapshot source = snapshot;
+        List<Entry> entries = new ArrayList<>(source.ids.length + source.overlay.size());
+        for (int i = 0; i < source.ids.length; i++) {
+            if (!source.overlay.containsKey(source.ids[i])) {
+                entries.add(source.base(i));
+            }
+        }
+        source.overlay.values().stream().filter(entry -> entry.json() != null).forEach(entries::add);
+        long[] deleted = Arrays.copyOf(source.deleted, source.deleted.length + source.overlay.size());
+        int count = source.deleted.length;
+        for (Entry entry : source.overlay.values()) {
+            if (entry.json() == null) {
+                deleted[count++] = entry.storeId();
+            }
+        }
+        Snapshot built = build(entries, Arrays.copyOf(deleted, count));
+        synchronized (this) {
+            Map<Long, Entry> remaining = new HashMap<>(snapshot.overlay);
+            // Entries replaced while building are newer than the source's and stay
+            source.overlay.forEach(remaining::remove);
+            snapshot = built.withOverlay(Map.copyOf(remaining));
+        }
+        log.debug("Rebuilt store snapshot with {} stores", entries.size());
+    }
+
+    private static Snapshot build(List<Entry> entries, long[] deleted) {
+        Arrays.sort(deleted);
+        entries.removeIf(entry -> Arrays.binarySearch(deleted, entry.storeId()) >= 0);
+        entries.sort(Comparator.comparingLong(Entry::storeId));
+        int count = entries.size();
+        long[] ids = new long[count];
+        long[] ownerIds = new long[count];
+        long[] versions = new long[count];
+        long[] changeSeqs = new long[count];
+        int[] offsets = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            Entry entry = entries.get(i);
+            ids[i] = entry.storeId();
+            ownerIds[i] = entry.ownerId();
+            versions[i] = entry.version();
+            changeSeqs[i] = entry.changeSeq();
+            offsets[i + 1] = Math.addExact(offsets[i], entry.json().length);
+        }
+        ByteBuffer json = ByteBuffer.allocateDirect(offsets[count]);
+        entries.forEach(entry -> json.put(entry.json()));
+        json.flip();
+        return new Snapshot(ids, ownerIds, versions, changeSeqs, offsets, json.asReadOnlyBuffer(), deleted, Map.of());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+}
@@ -0,0 +1,240 @@
+package com.siopa.partner_details.stats;
+
+import com.siopa.partner_details.dto.OwnerStoreCounts;
+import com.siopa.partner_details.dto.PartnerStats;
+import com.siopa.partner_details.events.ChangeType;
+import com.siopa.partner_details.events.OwnerChangedEvent;
+import com.siopa.partner_details.events.StoreChangedEvent;
+import com.siopa.partner_details.repositories.OwnerRepository;
+import com.siopa.partner_details.repositories.StoreRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory partner totals, answered without touching the database.
+ * <p>
+ * Counts are loaded from the database at startup and then kept up to date from
+ * committed store and owner changes. Totals are {@link LongAdder}s, so concurrent
+ * writes update separate cells instead of contending on one counter, and the last
+ * known state of each store is kept so updates and deletes can be subtracted.
+ * Each owner's store IDs are indexed too, so deleting an owner only visits their stores.
+ * <p>
+ * The counts are periodically compared with a {@code GROUP BY} over the database.
+ * Writes made by other instances, or applied while the counts were being reloaded,
+ * are only picked up then; any difference replaces the counts wholesale. The owner
+ * counts and store states are reloaded in one transaction, so they describe the
+ * same point in time. It is not read-only, so it runs on the primary: counts read
+ * from a lagging replica would replace newer ones, and changes already applied
+ * would be lost.
+ */
+@Component
+public class PartnerStatistics {
+
+    private static final Logger log = LoggerFactory.getLogger(PartnerStatistics.class);
+
+    private final OwnerRepository ownerRepository;
+    private final StoreRepository storeRepository;
+    private final TransactionTemplate onPrimary;
+    private final Counter drift;
+    private volatile Counts counts = new Counts(List.of(), List.of());
+    private volatile Instant reconciledAt;
+
+    public PartnerStatistics(OwnerRepository ownerRepository, StoreRepository storeRepository,
+                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.ownerRepository = ownerRepository;
+        this.storeRepository = storeRepository;
+        this.onPrimary = new TransactionTemplate(transactionManager);
+        this.drift = Counter.builder("partner.stats.drift")
+                .description("Reconciliations that found the in-memory partner statistics out of date")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The counts at one point in time. Reloading builds new counts and swaps them in,
+     * so changes are applied without locking out readers or each other.
+     */
+    private static final class Counts {
+
+        private final LongAdder owners = new LongAdder();
+        private final LongAdder activeStores = new LongAdder();
+        private final LongAdder inactiveStores = new LongAdder();
+        private final Map<Long, OwnerCounts> byOwner = new ConcurrentHashMap<>();
+        private final Map<Long, StoreState> stores = new ConcurrentHashMap<>();
+
+        private Counts(Collection<OwnerStoreCounts> owners, Collection<StoreState> stores) {
+            owners.forEach(owner -> addOwner(owner.ownerId()));
+            stores.forEach(store -> apply(store.storeId(), store));
+        }
+
+        private void addOwner(long ownerId) {
+            if (byOwner.putIfAbsent(ownerId, new OwnerCounts()) == null) {
+                owners.increment();
+            }
+        }
+
+        private void removeOwner(long ownerId) {
+            OwnerCounts owner = byOwner.get(ownerId);
+            if (owner == null) {
+                return;
+            }
+            List.copyOf(owner.stores).forEach(storeId -> stores.computeIfPresent(storeId, (id, previous) -> {
+                // The store may have moved to another owner since the copy was taken
+                if (previous.ownerId() != ownerId) {
+                    return previous;
+                }
+                count(previous, -1);
+                return null;
+            }));
+            if (byOwner.remove(ownerId) != null) {
+                owners.decrement();
+            }
+        }
+
+        // Per-store transitions are atomic, so a store is never counted twice or subtracted twice
+        private void apply(long storeId, StoreState state) {
+            stores.compute(storeId, (id, previous) -> {
+                if (previous != null) {
+                    count(previous, -1);
+                }
+                if (state != null) {
+                    count(state, 1);
+                }
+                return state;
+            });
+        }
+
+        private void count(StoreState store, int delta) {
+            (store.active() ? activeStores : inactiveStores).add(delta);
+            OwnerCounts owner = byOwner.computeIfAbsent(store.ownerId(), id -> {
+                owners.increment();
+                return new OwnerCounts();
+            });
+            (store.active() ? owner.active : owner.inactive).add(delta);
+            if (delta > 0) {
+                owner.stores.add(store.storeId());
+            } else {
+                owner.stores.remove(store.storeId());
+            }
+        }
+
+        private boolean matches(List<OwnerStoreCounts> expected) {
+            if (expected.size() != byOwner.size()) {
+                return false;
+            }
+            for (OwnerStoreCounts owner : expected) {
+                OwnerCounts actual = byOwner.get(owner.ownerId());
+                if (actual == null || actual.active.sum() != owner.activeStores()
+                        || actual.inactive.sum() != owner.inactiveStores()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class OwnerCounts {
+        private final LongAdder active = new LongAdder();
+        private final LongAdder inactive = new LongAdder();
+        private final Set<Long> stores = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Loads the counts from the database once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromDatabase() {
+        reload();
+    }
+
+    /**
+     * Compares the counts with the database and reloads them if they differ.
+     * A difference is checked a second time first, since a write committing
+     * during the query is not yet applied when the results are compared.
+     * Both comparisons run in one transaction on the primary.
+     * @return True if the counts were already correct.
+     */
+    @Scheduled(fixedDelayString = "${partner.stats.reconcile-interval:PT5M}",
+            initialDelayString = "${partner.stats.reconcile-interval:PT5M}")
+    public boolean reconcile() {
+        boolean matched = Boolean.TRUE.equals(onPrimary.execute(status ->
+                counts.matches(ownerRepository.findStoreCounts()) || counts.matches(ownerRepository.findStoreCounts())));
+        if (matched) {
+            reconciledAt = Instant.now();
+            return true;
+        }
+        drift.increment();
+        log.warn("Partner statistics differed from the database, reloading");
+        reload();
+        return false;
+    }
+
+    private void reload() {
+        Counts loaded = onPrimary.execute(status ->
+                new Counts(ownerRepository.findStoreCounts(), storeRepository.findAllStates()));
+        counts = loaded;
+        reconciledAt = Instant.now();
+        log.info("Loaded partner statistics for {} owners and {} stores", loaded.owners.sum(), loaded.stores.size());
+    }
+
+    /**
+     * Applies a committed store change.
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStoreChanged(StoreChangedEvent event) {
+        counts.apply(event.storeId(), event.type() == ChangeType.DELETED ? null : StoreState.of(event.store()));
+    }
+
+    /**
+     * Adds a new owner, or removes a deleted owner and their stores.
+     * @param event The owner change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOwnerChanged(OwnerChangedEvent event) {
+        if (event.type() == ChangeType.CREATED) {
+            counts.addOwner(event.ownerId());
+        } else if (event.type() == ChangeType.DELETED) {
+            counts.removeOwner(event.ownerId());
+        }
+    }
+
+    /**
+     * Gets the catalogue-wide totals.
+     * @return The totals.
+     */
+    public PartnerStats getStats() {
+        Counts current = counts;
+        long active = current.activeStores.sum();
+        long inactive = current.inactiveStores.sum();
+        return new PartnerStats(current.owners.sum(), active + inactive, active, inactive, reconciledAt);
+    }
+
+    /**
+     * Gets an owner's store counts.
+     * @param ownerId The ID of the owner.
+     * @return The counts, or empty if the owner is not known.
+     */
+    public Optional<OwnerStoreCounts> getOwnerStats(long ownerId) {
+        OwnerCounts owner = counts.byOwner.get(ownerId);
+        return owner == null ? Optional.empty()
+                : Optional.of(new OwnerStoreCounts(ownerId, owner.active.sum(), owner.inactive.sum()));
+    }
+}
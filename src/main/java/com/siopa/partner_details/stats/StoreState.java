@@ -0,0 +1,22 @@
+package com.siopa.partner_details.stats;
+
+import com.siopa.partner_details.models.Store;
+
+/**
+ * What the statistics remember about a store, so a later update or delete
+ * can be subtracted from the counts it was added to.
+ * @param storeId The ID of the store.
+ * @param ownerId The ID of the store's owner.
+ * @param active Whether the store is active.
+ */
+public record StoreState(long storeId, long ownerId, boolean active) {
+
+    /**
+     * Builds the state of a store.
+     * @param store The store, with its owner.
+     * @return The state.
+     */
+    public static StoreState of(Store store) {
+        return new StoreState(store.getId(), store.getOwner().getId(), store.isActive());
+    }
+}
@@ -0,0 +1,18 @@
+-- Schema as previously generated by Hibernate. Existing databases are
+-- baselined at this version, so this only runs against empty databases.
+CREATE TABLE IF NOT EXISTS owners (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name         VARCHAR(100) NOT NULL,
+    email        VARCHAR(100) NOT NULL,
+    phone_number VARCHAR(15)
+);
+
+CREATE TABLE IF NOT EXISTS stores (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name         VARCHAR(100) NOT NULL UNIQUE,
+    address      VARCHAR(255) NOT NULL,
+    is_active    BOOLEAN      NOT NULL,
+    phone_number VARCHAR(15),
+    email        VARCHAR(100),
+    owner_id     BIGINT       NOT NULL REFERENCES owners (id)
+);
@@ -0,0 +1,8 @@
+-- Pooled id sequences for batched inserts. Hibernate's pooled optimizer
+-- treats each value as the top of a block of 50, so seed the sequences
+-- 50 past the current maximum id to keep new blocks clear of existing rows.
+CREATE SEQUENCE IF NOT EXISTS owners_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS stores_seq INCREMENT BY 50;
+
+SELECT setval('owners_seq', COALESCE((SELECT MAX(id) FROM owners), 0) + 50, false);
+SELECT setval('stores_seq', COALESCE((SELECT MAX(id) FROM stores), 0) + 50, false);
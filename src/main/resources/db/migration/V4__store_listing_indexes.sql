@@ -0,0 +1,6 @@
+-- Active listing walks stores in ID order; a partial index keeps that scan
+-- proportional to the number of active stores rather than the whole table.
+CREATE INDEX IF NOT EXISTS idx_stores_active_id ON stores (id) WHERE is_active;
+
+-- Postgres does not index foreign keys, so owner lookups were sequential scans.
+CREATE INDEX IF NOT EXISTS idx_stores_owner_id ON stores (owner_id);
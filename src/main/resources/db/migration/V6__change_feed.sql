@@ -0,0 +1,19 @@
+-- One sequence shared by owners and stores orders every write for the change feed.
+CREATE SEQUENCE IF NOT EXISTS partner_change_seq;
+
+ALTER TABLE owners ADD COLUMN IF NOT EXISTS change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE owners ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE stores ADD COLUMN IF NOT EXISTS change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE stores ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE;
+
+CREATE INDEX IF NOT EXISTS idx_owners_change ON owners (change_seq, id);
+CREATE INDEX IF NOT EXISTS idx_stores_change ON stores (change_seq, id);
+
+CREATE TABLE IF NOT EXISTS store_tombstones (
+    store_id   BIGINT                   PRIMARY KEY,
+    owner_id   BIGINT                   NOT NULL,
+    change_seq BIGINT                   NOT NULL,
+    deleted_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_store_tombstones_change ON store_tombstones (change_seq, store_id);
@@ -0,0 +1,11 @@
+-- Transactional outbox: changes are written with the entity and deleted once relayed.
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id             BIGINT                   PRIMARY KEY,
+    aggregate_type VARCHAR(10)              NOT NULL,
+    aggregate_id   BIGINT                   NOT NULL,
+    change_type    VARCHAR(10)              NOT NULL,
+    payload        TEXT,
+    created_at     TIMESTAMP WITH TIME ZONE NOT NULL
+);
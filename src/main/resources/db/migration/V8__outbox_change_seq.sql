@@ -0,0 +1,4 @@
+-- Outbox events are delivered in change sequence order; IDs come from per-instance blocks and only break ties.
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS change_seq BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_order ON outbox_events (change_seq, id);
@@ -0,0 +1,104 @@
+package com.siopa.partner_details.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.repositories.OwnerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests that the API negotiates Smile and CBOR and that they carry the same fields as JSON.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BinaryFormatsConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    private Owner owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = ownerRepository.save(Owner.builder()
+                .name("Binary Owner")
+                .email("binary@example.com")
+                .build());
+    }
+
+    private JsonNode json() throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/owners/{id}", owner.getId()))
+                .andReturn().getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    void testGetOwner_Smile() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/owners/{id}", owner.getId())
+                        .accept(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn();
+
+        assertEquals(json(), new SmileMapper().readTree(result.getResponse().getContentAsByteArray()));
+    }
+
+    @Test
+    void testGetOwner_Cbor() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/owners/{id}", owner.getId())
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        assertEquals(json(), new CBORMapper().readTree(result.getResponse().getContentAsByteArray()));
+    }
+
+    @Test
+    void testBatch_SmileRequestBody() throws Exception {
+        byte[] body = new SmileMapper().writeValueAsBytes(List.of(owner.getId()));
+
+        MvcResult result = mockMvc.perform(post("/api/owners/batch")
+                        .contentType(BinaryFormatsConfig.APPLICATION_SMILE)
+                        .accept(BinaryFormatsConfig.APPLICATION_SMILE)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        JsonNode batch = new SmileMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("Binary Owner", batch.get("items").get(0).get("name").asText());
+    }
+
+    @Test
+    void testGetOwner_JsonByDefault() throws Exception {
+        mockMvc.perform(get("/api/owners/{id}", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,60 @@
+package com.siopa.partner_details.config;
+
+import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.repositories.OwnerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests that endpoint, service, repository, SQL and pool meters are exported for Prometheus.
+ */
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+        "management.metrics.distribution.percentiles-histogram.hikaricp.connections=true",
+        "management.metrics.data.repository.autotime.percentiles-histogram=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Test
+    void testPrometheusEndpointExportsMeters() throws Exception {
+        Owner owner = ownerRepository.save(Owner.builder()
+                .name("Metrics Owner")
+                .email("metrics@example.com")
+                .build());
+
+        mockMvc.perform(get("/api/owners/{id}", owner.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/stores/owner/{ownerId}/views", owner.getId())).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"));
+        assertTrue(scrape.contains("uri=\"/api/owners/{id}\""));
+        assertTrue(scrape.contains("partner_service_seconds_bucket{"));
+        assertTrue(scrape.contains("method=\"getOwnerById\""));
+        assertTrue(scrape.contains("method=\"getStoreViewsByOwnerId\""));
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket{"));
+        assertTrue(scrape.contains("repository=\"StoreRepository\""));
+        assertTrue(scrape.contains("partner_sql_statements_count{method=\"GET\",uri=\"/api/stores/owner/{ownerId}/views\"} 1"));
+        assertTrue(scrape.contains("hikaricp_connections_acquire_seconds"));
+        assertTrue(scrape.contains("hikaricp_connections_active"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.siopa.partner_details.config;
+
+import com.siopa.partner_details.datasource.ReplicaLagMonitor;
+import com.siopa.partner_details.dto.OwnerResponse;
+import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.service.ChangeFeedService;
+import com.siopa.partner_details.service.OwnerService;
+import com.siopa.partner_details.stats.PartnerStatistics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the application runs with replica routing enabled.
+ * The replica is the primary's in-memory database opened through a second pool.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:partner-routing;DB_CLOSE_DELAY=-1",
+        "partner.datasource.replica.url=jdbc:h2:mem:partner-routing;DB_CLOSE_DELAY=-1",
+        "partner.datasource.replica.lag-query=SELECT 0"
+})
+class ReplicaDataSourceConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Autowired
+    private OwnerService ownerService;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private PartnerStatistics partnerStatistics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private long connectionsFrom(String pool) {
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+        return acquire == null ? 0 : acquire.count();
+    }
+
+    /**
+     * Tests that writes and reads succeed through the routing data source.
+     */
+    @Test
+    void testReadsAndWritesThroughRouting() {
+        assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+        assertEquals("replica", replicaDataSource.getPoolName());
+
+        lagMonitor.check();
+        OwnerResponse owner = ownerService.createOwner(Owner.builder().name("Jane Doe").email("jane@example.com").build());
+
+        assertTrue(lagMonitor.isReplicaUsable());
+        assertEquals("Jane Doe", ownerService.getOwnerById(owner.id()).orElseThrow().name());
+    }
+
+    /**
+     * Tests that the change feed and the statistics reconciliation read from the primary
+     * even while the replica is usable, since the replica may not have applied recent writes.
+     */
+    @Test
+    void testFeedAndStatisticsReadFromPrimary() {
+        lagMonitor.check();
+        assertTrue(lagMonitor.isReplicaUsable());
+        long replicaBefore = connectionsFrom("replica");
+        long primaryBefore = connectionsFrom("primary");
+
+        changeFeedService.getStoreChanges(null, 10);
+        partnerStatistics.reconcile();
+
+        assertEquals(replicaBefore, connectionsFrom("replica"));
+        assertTrue(connectionsFrom("primary") > primaryBefore);
+    }
+}
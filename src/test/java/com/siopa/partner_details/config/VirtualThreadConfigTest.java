@@ -0,0 +1,82 @@
+package com.siopa.partner_details.config;
+
+import com.siopa.partner_details.datasource.BoundedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that bounded pools remain Hikari pools to the rest of the application.
+ * {@link VirtualThreadConfig} only applies on Java 21 or later, so its beans are
+ * registered directly.
+ */
+@SpringBootTest
+class VirtualThreadConfigTest {
+
+    @TestConfiguration
+    static class BoundedPools {
+
+        @Bean
+        static BeanPostProcessor boundedDataSourcePostProcessor() {
+            return VirtualThreadConfig.boundedDataSourcePostProcessor();
+        }
+
+        @Bean
+        MeterBinder boundedDataSourceMetrics(ListableBeanFactory beanFactory) {
+            return new VirtualThreadConfig().boundedDataSourceMetrics(beanFactory);
+        }
+    }
+
+    @Autowired
+    private HikariDataSource pool;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Tests that the pool is still found by type and still publishes its Hikari metrics.
+     */
+    @Test
+    void testHikariPoolStillRegistered() throws Exception {
+        new JdbcTemplate(dataSource).queryForObject("SELECT 1", Integer.class);
+
+        assertSame(pool, dataSource);
+        assertTrue(pool.isWrapperFor(BoundedDataSource.class));
+        String poolName = pool.getPoolName();
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", poolName).gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections.max").tag("pool", poolName).gauge());
+        assertTrue(meterRegistry.find("hikaricp.connections.acquire").tag("pool", poolName).timer().count() > 0);
+    }
+
+    /**
+     * Tests that connections are taken through the semaphore and its gauges are published.
+     */
+    @Test
+    void testConnectionsBounded() throws Exception {
+        BoundedDataSource bounded = pool.unwrap(BoundedDataSource.class);
+        assertEquals(10, bounded.getMaxConcurrency());
+
+        try (var connection = dataSource.getConnection()) {
+            assertEquals(bounded.getMaxConcurrency() - 1, bounded.getAvailablePermits());
+        }
+        assertEquals(bounded.getMaxConcurrency(), bounded.getAvailablePermits());
+        assertEquals(bounded.getMaxConcurrency(), meterRegistry.find("partner.jdbc.permits.available")
+                .tag("pool", pool.getPoolName()).gauge().value());
+        assertNotNull(meterRegistry.find("partner.jdbc.permits.waiting").tag("pool", pool.getPoolName()).gauge());
+    }
+}
@@ -0,0 +1,59 @@
+package com.siopa.partner_details.controllers;
+
+import com.siopa.partner_details.dto.ServingZone;
+import com.siopa.partner_details.service.DeliveryZoneService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DeliveryZoneControllerTest {
+
+    @Mock
+    private DeliveryZoneService deliveryZoneService;
+
+    @InjectMocks
+    private DeliveryZoneController deliveryZoneController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testGetServingZones() {
+        when(deliveryZoneService.findServingZones(53.3, -6.2))
+                .thenReturn(List.of(new ServingZone("dublin", "Dublin", List.of())));
+
+        ResponseEntity<List<ServingZone>> response = deliveryZoneController.getServingZones(53.3, -6.2);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("dublin", response.getBody().get(0).zoneId());
+    }
+
+    @Test
+    void testGetServingZones_InvalidCoordinates() {
+        ResponseEntity<List<ServingZone>> response = deliveryZoneController.getServingZones(0, 200);
+
+        assertEquals(400, response.getStatusCodeValue());
+        verifyNoInteractions(deliveryZoneService);
+    }
+
+    @Test
+    void testReloadZones() throws IOException {
+        when(deliveryZoneService.reloadZones()).thenReturn(12);
+
+        ResponseEntity<Map<String, Integer>> response = deliveryZoneController.reloadZones();
+
+        assertEquals(12, response.getBody().get("zones"));
+    }
+}
@@ -2,6 +2,17 @@ package com.siopa.partner_details.controllers;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.partner_details.dto.BatchResult;
+import com.siopa.partner_details.dto.CollectionVersion;
+import com.siopa.partner_details.dto.CursorPage;
+import com.siopa.partner_details.dto.OwnerRequest;
+import com.siopa.partner_details.dto.OwnerResponse;
+import com.siopa.partner_details.dto.OwnerSummary;
+import com.siopa.partner_details.dto.OwnerWithStores;
+import com.siopa.partner_details.dto.StoreView;
+import com.siopa.partner_details.dto.SearchPage;
+import com.siopa.partner_details.exceptions.PreconditionFailedException;
 import com.siopa.partner_details.models.Owner;
 import com.siopa.partner_details.service.OwnerService;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,8 +20,12 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -22,47 +37,159 @@ class OwnerControllerTest {
     @Mock
     private OwnerService ownerService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private OwnerController ownerController;
 
-    private Owner owner1;
-    private Owner owner2;
+    private OwnerResponse owner1;
+    private OwnerResponse owner2;
+    private OwnerRequest ownerRequest;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        owner1 = new Owner(1L, "John Doe", "john.doe@example.com", "+1234567890", null);
-        owner2 = new Owner(2L, "Jane Doe", "jane.doe@example.com", "+9876543210", null);
+        owner1 = new OwnerResponse(1L, "John Doe", "john.doe@example.com", "+1234567890", 3L);
+        owner2 = new OwnerResponse(2L, "Jane Doe", "jane.doe@example.com", "+9876543210", 0L);
+        ownerRequest = new OwnerRequest("John Doe", "john.doe@example.com", "+1234567890");
+    }
+
+    @Test
+    void testGetOwnersPage() {
+        CursorPage<OwnerResponse> page = new CursorPage<>(List.of(owner1, owner2), null);
+        when(ownerService.getOwnersVersion()).thenReturn(new CollectionVersion(2L, 3L, 0L));
+        when(ownerService.getOwnersPage(null, 100)).thenReturn(page);
+
+        ResponseEntity<CursorPage<OwnerResponse>> response = ownerController.getOwnersPage(100, null, null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("\"2-3-0\"", response.getHeaders().getETag());
+        assertEquals(2, response.getBody().items().size());
+        assertNull(response.getBody().nextCursor());
+    }
+
+    @Test
+    void testGetOwnersPage_NotModified() {
+        when(ownerService.getOwnersVersion()).thenReturn(new CollectionVersion(2L, 3L, 0L));
+
+        ResponseEntity<CursorPage<OwnerResponse>> response = ownerController.getOwnersPage(100, null, "\"2-3-0\"");
+
+        assertEquals(304, response.getStatusCodeValue());
+        assertNull(response.getBody());
+        verify(ownerService, never()).getOwnersPage(any(), anyInt());
+    }
+
+    @Test
+    void testStreamOwners() throws IOException {
+        when(ownerService.getOwnersPage(null, 500)).thenReturn(new CursorPage<>(List.of(owner1, owner2), null));
+
+        ResponseEntity<StreamingResponseBody> response = ownerController.streamOwners(null, null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("john.doe@example.com"));
+        verify(ownerService, times(1)).getOwnersPage(null, 500);
     }
 
     @Test
-    void testGetAllOwners() {
-        when(ownerService.getAllOwners()).thenReturn(Arrays.asList(owner1, owner2));
+    void testSearchOwners() {
+        when(ownerService.searchOwners("jo", 0, 20)).thenReturn(new SearchPage<>(List.of(owner1), 1, null));
 
-        ResponseEntity<List<Owner>> response = ownerController.getAllOwners();
+        ResponseEntity<SearchPage<OwnerResponse>> response = ownerController.searchOwners("jo", 0, 20);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertNotNull(response.getBody());
-        assertEquals(2, response.getBody().size());
-        verify(ownerService, times(1)).getAllOwners();
+        assertEquals(List.of(owner1), response.getBody().items());
+    }
+
+    @Test
+    void testGetOwnersByIds() {
+        when(ownerService.getOwnersByIds(List.of(1L, 5L))).thenReturn(new BatchResult<>(List.of(owner1), List.of(5L)));
+
+        ResponseEntity<BatchResult<OwnerResponse>> response = ownerController.getOwnersByIds(List.of(1L, 5L));
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(List.of(5L), response.getBody().missing());
+    }
+
+    @Test
+    void testGetOwnersByIds_NullId() {
+        assertEquals(400, ownerController.getOwnersByIds(Arrays.asList(1L, null)).getStatusCodeValue());
+        verify(ownerService, never()).getOwnersByIds(any());
     }
 
     @Test
     void testGetOwnerById_Found() {
         when(ownerService.getOwnerById(1L)).thenReturn(Optional.of(owner1));
 
-        ResponseEntity<Owner> response = ownerController.getOwnerById(1L);
+        ResponseEntity<OwnerResponse> response = ownerController.getOwnerById(1L, null);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(owner1.getName(), response.getBody().getName());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertEquals(owner1.name(), response.getBody().name());
         verify(ownerService, times(1)).getOwnerById(1L);
     }
 
+    @Test
+    void testGetOwnerWithStores() throws IOException {
+        OwnerSummary summary = new OwnerSummary(1L, "John Doe", "john.doe@example.com", null, 3L, 1L, 0L);
+        StoreView store = new StoreView(10L, "Tech World", null, true, null, null, 1L, "John Doe");
+        when(ownerService.getOwnerWithStores(1L)).thenReturn(Optional.of(new OwnerWithStores(summary, List.of(store))));
+
+        ResponseEntity<OwnerWithStores> response = ownerController.getOwnerWithStores(1L);
+
+        assertEquals(200, response.getStatusCodeValue());
+        String json = objectMapper.writeValueAsString(response.getBody());
+        assertTrue(json.startsWith("{\"id\":1,\"name\":\"John Doe\""));
+        assertTrue(json.contains("\"activeStores\":1,\"inactiveStores\":0,\"stores\":[{\"id\":10"));
+    }
+
+    @Test
+    void testGetOwnerWithStores_NotFound() {
+        when(ownerService.getOwnerWithStores(1L)).thenReturn(Optional.empty());
+
+        assertEquals(404, ownerController.getOwnerWithStores(1L).getStatusCodeValue());
+    }
+
+    @Test
+    void testGetOwnersWithStoresPage_CapsLimit() {
+        when(ownerService.getOwnersWithStoresPage(5L, 100)).thenReturn(new CursorPage<>(List.of(), null));
+
+        ResponseEntity<CursorPage<OwnerWithStores>> response = ownerController.getOwnersWithStoresPage(5000, 5L);
+
+        assertEquals(200, response.getStatusCodeValue());
+        verify(ownerService).getOwnersWithStoresPage(5L, 100);
+    }
+
+    @Test
+    void testGetOwnerById_NotModified() {
+        when(ownerService.getOwnerVersion(1L)).thenReturn(Optional.of(3L));
+
+        ResponseEntity<OwnerResponse> response = ownerController.getOwnerById(1L, "W/\"3\"");
+
+        assertEquals(304, response.getStatusCodeValue());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        verify(ownerService, never()).getOwnerById(anyLong());
+    }
+
+    @Test
+    void testGetOwnerById_Modified() {
+        when(ownerService.getOwnerVersion(1L)).thenReturn(Optional.of(3L));
+        when(ownerService.getOwnerById(1L)).thenReturn(Optional.of(owner1));
+
+        ResponseEntity<OwnerResponse> response = ownerController.getOwnerById(1L, "\"2\"");
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(owner1.name(), response.getBody().name());
+    }
+
     @Test
     void testGetOwnerById_NotFound() {
         when(ownerService.getOwnerById(3L)).thenReturn(Optional.empty());
 
-        ResponseEntity<Owner> response = ownerController.getOwnerById(3L);
+        ResponseEntity<OwnerResponse> response = ownerController.getOwnerById(3L, null);
 
         assertEquals(404, response.getStatusCodeValue());
         assertNull(response.getBody());
@@ -72,22 +199,49 @@ class OwnerControllerTest {
     void testCreateOwner() {
         when(ownerService.createOwner(any(Owner.class))).thenReturn(owner1);
 
-        ResponseEntity<Owner> response = ownerController.createOwner(owner1);
+        ResponseEntity<OwnerResponse> response = ownerController.createOwner(ownerRequest);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(owner1.getEmail(), response.getBody().getEmail());
+        assertEquals(owner1.email(), response.getBody().email());
         verify(ownerService, times(1)).createOwner(any(Owner.class));
     }
 
     @Test
     void testUpdateOwner() {
-        when(ownerService.updateOwner(eq(1L), any(Owner.class))).thenReturn(owner1);
+        when(ownerService.updateOwner(eq(1L), any(Owner.class), isNull())).thenReturn(owner1);
 
-        ResponseEntity<Owner> response = ownerController.updateOwner(1L, owner1);
+        ResponseEntity<OwnerResponse> response = ownerController.updateOwner(1L, ownerRequest, null);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(owner1.getName(), response.getBody().getName());
-        verify(ownerService, times(1)).updateOwner(eq(1L), any(Owner.class));
+        assertEquals(owner1.name(), response.getBody().name());
+        verify(ownerService, times(1)).updateOwner(eq(1L), any(Owner.class), isNull());
+    }
+
+    @Test
+    void testUpdateOwner_IfMatch() {
+        when(ownerService.updateOwner(eq(1L), any(Owner.class), eq(2L))).thenReturn(owner1);
+
+        ResponseEntity<OwnerResponse> response = ownerController.updateOwner(1L, ownerRequest, "\"2\"");
+
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        verify(ownerService, times(1)).updateOwner(eq(1L), any(Owner.class), eq(2L));
+    }
+
+    @Test
+    void testUpdateOwner_MalformedIfMatch() {
+        assertThrows(PreconditionFailedException.class, () ->
+                ownerController.updateOwner(1L, ownerRequest, "W/\"2\""));
+        verify(ownerService, never()).updateOwner(anyLong(), any(Owner.class), any());
+    }
+
+    @Test
+    void testCreateOwner_MapsRequest() {
+        when(ownerService.createOwner(any(Owner.class))).thenReturn(owner1);
+
+        ownerController.createOwner(ownerRequest);
+
+        verify(ownerService).createOwner(argThat(owner -> owner.getId() == null
+                && owner.getName().equals("John Doe") && owner.getEmail().equals("john.doe@example.com")));
     }
 
     @Test
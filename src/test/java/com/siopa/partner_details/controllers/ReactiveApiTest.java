@@ -0,0 +1,63 @@
+package com.siopa.partner_details.controllers;
+
+import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.repositories.OwnerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests that reactive endpoints are served asynchronously by Spring MVC.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReactiveApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Test
+    void testGetOwnerById() throws Exception {
+        Owner owner = ownerRepository.save(Owner.builder().name("Ada Reactive").email("ada.r@example.com").build());
+
+        MvcResult started = mockMvc.perform(get("/api/reactive/owners/{id}", owner.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Ada Reactive"));
+    }
+
+    @Test
+    void testStreamOwners_WritesNdjson() throws Exception {
+        ownerRepository.save(Owner.builder().name("Bea Reactive").email("bea.r@example.com").build());
+
+        MvcResult started = mockMvc.perform(get("/api/reactive/owners").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        started.getAsyncResult(5000);
+
+        String body = started.getResponse().getContentAsString();
+        assertTrue(body.contains("\"name\":\"Bea Reactive\""));
+        assertTrue(body.endsWith("}\n"));
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+    }
+}
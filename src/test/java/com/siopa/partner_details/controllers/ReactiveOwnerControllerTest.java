@@ -0,0 +1,66 @@
+package com.siopa.partner_details.controllers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.siopa.partner_details.dto.CursorPage;
+import com.siopa.partner_details.dto.OwnerResponse;
+import com.siopa.partner_details.service.OwnerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.ResponseEntity;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+class ReactiveOwnerControllerTest {
+
+    @Mock
+    private OwnerService ownerService;
+
+    private ReactiveOwnerController reactiveOwnerController;
+
+    private final OwnerResponse owner1 = new OwnerResponse(1L, "John Doe", "john.doe@example.com", "+1234567890", 3L);
+    private final OwnerResponse owner2 = new OwnerResponse(2L, "Jane Doe", "jane.doe@example.com", "+9876543210", 0L);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        reactiveOwnerController = new ReactiveOwnerController(ownerService, Schedulers.immediate());
+    }
+
+    @Test
+    void testStreamOwners() {
+        when(ownerService.getOwnersPage(null, KeysetStreams.STREAM_PAGE_SIZE))
+                .thenReturn(new CursorPage<>(List.of(owner1, owner2), null));
+
+        List<OwnerResponse> result = reactiveOwnerController.streamOwners().collectList().block();
+
+        assertEquals(List.of(owner1, owner2), result);
+        verify(ownerService, times(1)).getOwnersPage(any(), anyInt());
+    }
+
+    @Test
+    void testGetOwnerById() {
+        when(ownerService.getOwnerById(1L)).thenReturn(Optional.of(owner1));
+
+        ResponseEntity<OwnerResponse> response = reactiveOwnerController.getOwnerById(1L).block();
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertEquals(owner1, response.getBody());
+    }
+
+    @Test
+    void testGetOwnerById_NotFound() {
+        when(ownerService.getOwnerById(1L)).thenReturn(Optional.empty());
+
+        ResponseEntity<OwnerResponse> response = reactiveOwnerController.getOwnerById(1L).block();
+
+        assertEquals(404, response.getStatusCode().value());
+    }
+}
@@ -0,0 +1,120 @@
+package com.siopa.partner_details.controllers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.siopa.partner_details.dto.CursorPage;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.service.StoreService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.ResponseEntity;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.mockito.Mockito.*;
+
+class ReactiveStoreControllerTest {
+
+    @Mock
+    private StoreService storeService;
+
+    private ReactiveStoreController reactiveStoreController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        reactiveStoreController = new ReactiveStoreController(storeService, Schedulers.immediate());
+    }
+
+    private StoreResponse store(long id) {
+        return new StoreResponse(id, "Store " + id, id + " Main Street", true, null, null,
+                null, null, 0L, 1L, "John Doe");
+    }
+
+    private List<StoreResponse> stores(long from, long to) {
+        return LongStream.rangeClosed(from, to).mapToObj(this::store).toList();
+    }
+
+    @Test
+    void testStreamStores_FollowsCursor() {
+        when(storeService.getStoresPage(null, KeysetStreams.STREAM_PAGE_SIZE))
+                .thenReturn(new CursorPage<>(stores(1, 500), 500L));
+        when(storeService.getStoresPage(500L, KeysetStreams.STREAM_PAGE_SIZE))
+                .thenReturn(new CursorPage<>(stores(501, 502), null));
+
+        List<StoreResponse> result = reactiveStoreController.streamStores(null, null).collectList().block();
+
+        assertEquals(502, result.size());
+        assertEquals(502L, result.get(501).id());
+    }
+
+    @Test
+    void testStreamStores_LoadsPagesOnDemand() {
+        when(storeService.getStoresPage(null, KeysetStreams.STREAM_PAGE_SIZE))
+                .thenReturn(new CursorPage<>(stores(1, 500), 500L));
+
+        List<StoreResponse> result = reactiveStoreController.streamStores(null, null).take(10).collectList().block();
+
+        assertEquals(10, result.size());
+        verify(storeService, never()).getStoresPage(eq(500L), anyInt());
+    }
+
+    /**
+     * Tests that a stream with a limit loads pages no larger than the limit and stops there.
+     */
+    @Test
+    void testStreamStores_HonoursLimit() {
+        when(storeService.getStoresPage(20L, 5)).thenReturn(new CursorPage<>(stores(21, 25), 25L));
+
+        List<StoreResponse> result = reactiveStoreController.streamStores(5, 20L).collectList().block();
+
+        assertEquals(5, result.size());
+        assertEquals(21L, result.get(0).id());
+        verify(storeService, never()).getStoresPage(eq(25L), anyInt());
+    }
+
+    @Test
+    void testGetStoresPage() {
+        when(storeService.getStoresPage(20L, 1000)).thenReturn(new CursorPage<>(stores(21, 22), null));
+
+        CursorPage<StoreResponse> page = reactiveStoreController.getStoresPage(5000, 20L).block();
+
+        assertEquals(2, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void testGetStoreById() {
+        when(storeService.getStoreById(1L)).thenReturn(Optional.of(store(1L)));
+
+        ResponseEntity<StoreResponse> response = reactiveStoreController.getStoreById(1L).block();
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("\"0\"", response.getHeaders().getETag());
+        assertEquals(1L, response.getBody().id());
+    }
+
+    @Test
+    void testGetStoreById_NotFound() {
+        when(storeService.getStoreById(1L)).thenReturn(Optional.empty());
+
+        ResponseEntity<StoreResponse> response = reactiveStoreController.getStoreById(1L).block();
+
+        assertEquals(404, response.getStatusCode().value());
+    }
+
+    @Test
+    void testGetStoresByOwner_IsLazy() {
+        when(storeService.getStoresByOwnerId(1L)).thenReturn(stores(1, 2));
+
+        var stores = reactiveStoreController.getStoresByOwner(1L);
+        verifyNoInteractions(storeService);
+
+        assertEquals(2, stores.collectList().block().size());
+    }
+}
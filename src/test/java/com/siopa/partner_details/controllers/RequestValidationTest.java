@@ -0,0 +1,97 @@
+package com.siopa.partner_details.controllers;
+
+import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.repositories.OwnerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests that requests are validated and routed, and that responses carry the owner by reference.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class RequestValidationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Test
+    void testCreateOwner_InvalidEmail() throws Exception {
+        mockMvc.perform(post("/api/owners")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Jane Doe\",\"email\":\"not-an-email\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testCreateStore_ReturnsOwnerReference() throws Exception {
+        Owner owner = ownerRepository.save(Owner.builder().name("Jane Doe").email("jane.v@example.com").build());
+
+        mockMvc.perform(post("/api/stores/owner/{ownerId}", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Validated Shop\",\"address\":\"1 Main Street\",\"latitude\":53.3}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(true))
+                .andExpect(jsonPath("$.ownerId").value(owner.getId()))
+                .andExpect(jsonPath("$.ownerName").value("Jane Doe"))
+                .andExpect(jsonPath("$.owner").doesNotExist());
+    }
+
+    @Test
+    void testUpdateStore_InvalidLatitude() throws Exception {
+        mockMvc.perform(put("/api/stores/{id}", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Shop\",\"address\":\"1 Main Street\",\"latitude\":95}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Tests that the owner listing without paging parameters returns a bounded page.
+     */
+    @Test
+    void testGetOwners_DefaultsToPage() throws Exception {
+        ownerRepository.save(Owner.builder().name("Paged Owner").email("paged@example.com").build());
+
+        mockMvc.perform(get("/api/owners"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items.length()").value(lessThanOrEqualTo(100)));
+    }
+
+    /**
+     * Tests that an NDJSON request with a limit is streamed rather than refused.
+     */
+    @Test
+    void testStreamOwners_WithLimit() throws Exception {
+        ownerRepository.save(Owner.builder().name("Streamed One").email("streamed1@example.com").build());
+        ownerRepository.save(Owner.builder().name("Streamed Two").email("streamed2@example.com").build());
+
+        MvcResult started = mockMvc.perform(get("/api/owners").param("limit", "1").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+        assertEquals(1, started.getResponse().getContentAsString().split("\n").length);
+    }
+}
@@ -0,0 +1,59 @@
+package com.siopa.partner_details.controllers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.siopa.partner_details.dto.OwnerStoreCounts;
+import com.siopa.partner_details.dto.PartnerStats;
+import com.siopa.partner_details.stats.PartnerStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+class StatsControllerTest {
+
+    @Mock
+    private PartnerStatistics partnerStatistics;
+
+    @InjectMocks
+    private StatsController statsController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testGetStats() {
+        PartnerStats stats = new PartnerStats(2L, 5L, 4L, 1L, null);
+        when(partnerStatistics.getStats()).thenReturn(stats);
+
+        ResponseEntity<PartnerStats> response = statsController.getStats();
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(stats, response.getBody());
+    }
+
+    @Test
+    void testGetOwnerStats() {
+        when(partnerStatistics.getOwnerStats(1L)).thenReturn(Optional.of(new OwnerStoreCounts(1L, 3L, 1L)));
+
+        ResponseEntity<OwnerStoreCounts> response = statsController.getOwnerStats(1L);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(3L, response.getBody().activeStores());
+    }
+
+    @Test
+    void testGetOwnerStats_NotFound() {
+        when(partnerStatistics.getOwnerStats(1L)).thenReturn(Optional.empty());
+
+        assertEquals(404, statsController.getOwnerStats(1L).getStatusCodeValue());
+    }
+}
@@ -2,19 +2,38 @@ package com.siopa.partner_details.controllers;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-import com.siopa.partner_details.models.Owner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.partner_details.dto.BatchResult;
+import com.siopa.partner_details.dto.BulkImportResult;
+import com.siopa.partner_details.dto.CollectionVersion;
+import com.siopa.partner_details.dto.CursorPage;
+import com.siopa.partner_details.dto.NearbyStore;
+import com.siopa.partner_details.dto.SearchPage;
+import com.siopa.partner_details.dto.StoreChanges;
+import com.siopa.partner_details.dto.StoreRequest;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.dto.StoreView;
+import com.siopa.partner_details.events.StoreStream;
 import com.siopa.partner_details.models.Store;
+import com.siopa.partner_details.service.ChangeFeedService;
 import com.siopa.partner_details.service.StoreService;
+import com.siopa.partner_details.snapshot.StoreSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.mockito.Mockito.*;
 
@@ -23,74 +42,365 @@ class StoreControllerTest {
     @Mock
     private StoreService storeService;
 
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    @Mock
+    private StoreStream storeStream;
+
+    @Mock
+    private StoreSnapshot storeSnapshot;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private StoreController storeController;
 
-    private Store store1;
-    private Store store2;
-    private Owner owner;
+    private StoreResponse store1;
+    private StoreResponse store2;
+    private StoreRequest storeRequest;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        owner = new Owner(1L, "John Doe", "john.doe@example.com", "+1234567890", null);
-        store1 = new Store(1L, "Tech World", "123 Tech Street",true,"+1987654321", "techworld@example.com", owner);
-        store2 = new Store(2L, "Gadget Hub", "456 Market Street",true,"+1122334455", "gadgethub@example.com", owner);
+        store1 = new StoreResponse(1L, "Tech World", "123 Tech Street", true, "+1987654321",
+                "techworld@example.com", null, null, 4L, 1L, "John Doe");
+        store2 = new StoreResponse(2L, "Gadget Hub", "456 Market Street", true, "+1122334455",
+                "gadgethub@example.com", null, null, 0L, 1L, "John Doe");
+        storeRequest = new StoreRequest("Tech World", "123 Tech Street", null, "+1987654321",
+                "techworld@example.com", 53.35, -6.26);
+    }
+
+    @Test
+    void testGetStoresPage() {
+        CursorPage<StoreResponse> page = new CursorPage<>(List.of(store1), 1L);
+        when(storeService.getStoresVersion()).thenReturn(new CollectionVersion(2L, 7L, 1L));
+        when(storeService.getStoresPage(null, 1)).thenReturn(page);
+
+        ResponseEntity<CursorPage<StoreResponse>> response = storeController.getStoresPage(1, null, null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("\"2-7-1\"", response.getHeaders().getETag());
+        assertEquals(1L, response.getBody().nextCursor());
+        assertEquals(1, response.getBody().items().size());
+    }
+
+    @Test
+    void testGetStoresPage_NotModified() {
+        when(storeService.getStoresVersion()).thenReturn(new CollectionVersion(2L, 7L, 1L));
+
+        ResponseEntity<CursorPage<StoreResponse>> response = storeController.getStoresPage(100, null, "\"2-7-1\"");
+
+        assertEquals(304, response.getStatusCodeValue());
+        assertNull(response.getBody());
+        verify(storeService, never()).getStoresPage(any(), anyInt());
+    }
+
+    @Test
+    void testGetStoresPage_LimitIsCapped() {
+        when(storeService.getStoresVersion()).thenReturn(new CollectionVersion(2L, 7L, 1L));
+        when(storeService.getStoresPage(5L, 1000)).thenReturn(new CursorPage<>(List.of(), null));
+
+        storeController.getStoresPage(1_000_000, 5L, null);
+
+        verify(storeService, times(1)).getStoresPage(5L, 1000);
+    }
+
+    @Test
+    void testStreamStores() throws IOException {
+        when(storeService.getStoresPage(null, 500)).thenReturn(new CursorPage<>(List.of(store1), 1L));
+        when(storeService.getStoresPage(1L, 500)).thenReturn(new CursorPage<>(List.of(store2), null));
+
+        ResponseEntity<StreamingResponseBody> response = storeController.streamStores(null, null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("Tech World"));
+        assertTrue(lines[1].contains("Gadget Hub"));
+    }
+
+    /**
+     * Tests that a streamed listing starts after the cursor and stops at the limit.
+     */
+    @Test
+    void testStreamStores_HonoursLimit() throws IOException {
+        when(storeService.getStoresPage(1L, 1)).thenReturn(new CursorPage<>(List.of(store2), 2L));
+
+        ResponseEntity<StreamingResponseBody> response = storeController.streamStores(1, 1L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].contains("Gadget Hub"));
+        verify(storeService, times(1)).getStoresPage(any(), anyInt());
+    }
+
+    @Test
+    void testGetActiveStores() {
+        StoreView view = new StoreView(1L, "Tech World", "123 Tech Street", true,
+                "+1987654321", "techworld@example.com", 1L, "John Doe");
+        when(storeService.getActiveStoreViewsPage(null, 100)).thenReturn(new CursorPage<>(List.of(view), 1L));
+
+        ResponseEntity<CursorPage<StoreView>> response = storeController.getActiveStores(100, null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(1L, response.getBody().nextCursor());
+        assertEquals("Tech World", response.getBody().items().get(0).name());
+    }
+
+    @Test
+    void testGetAllStoreViews() {
+        StoreView view = new StoreView(1L, "Tech World", "123 Tech Street", true,
+                "+1987654321", "techworld@example.com", 1L, "John Doe");
+        when(storeService.getAllStoreViews()).thenReturn(List.of(view));
+
+        ResponseEntity<List<StoreView>> response = storeController.getAllStoreViews();
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(1L, response.getBody().get(0).ownerId());
+        verify(storeService, times(1)).getAllStoreViews();
+    }
+
+    @Test
+    void testGetStoreChanges() {
+        StoreChanges changes = new StoreChanges(List.of(store1), List.of(), "3:1", false);
+        when(changeFeedService.getStoreChanges("2:5", 1000)).thenReturn(changes);
+
+        ResponseEntity<StoreChanges> response = storeController.getStoreChanges("2:5", 5000);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("3:1", response.getBody().next());
+        assertEquals(1, response.getBody().changed().size());
+    }
+
+    @Test
+    void testGetStoreChanges_InvalidToken() {
+        when(changeFeedService.getStoreChanges("bad", 500)).thenThrow(new IllegalArgumentException("bad"));
+
+        ResponseEntity<StoreChanges> response = storeController.getStoreChanges("bad", 500);
+
+        assertEquals(400, response.getStatusCodeValue());
+    }
+
+    @Test
+    void testStreamStoreChanges() {
+        SseEmitter emitter = new SseEmitter();
+        when(storeStream.subscribe(1L)).thenReturn(emitter);
+
+        assertSame(emitter, storeController.streamStoreChanges(1L));
+    }
+
+    @Test
+    void testGetStoresByIds() {
+        when(storeService.getStoresByIds(List.of(2L, 1L, 7L)))
+                .thenReturn(new BatchResult<>(List.of(store2, store1), List.of(7L)));
+
+        ResponseEntity<BatchResult<StoreResponse>> response = storeController.getStoresByIds(List.of(2L, 1L, 7L));
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(List.of(store2, store1), response.getBody().items());
+        assertEquals(List.of(7L), response.getBody().missing());
+    }
+
+    @Test
+    void testGetStoresByIds_TooMany() {
+        List<Long> ids = LongStream.rangeClosed(1, 101).boxed().toList();
+
+        assertEquals(400, storeController.getStoresByIds(ids).getStatusCodeValue());
+        assertEquals(400, storeController.getStoresByIds(List.of()).getStatusCodeValue());
+        verify(storeService, never()).getStoresByIds(any());
     }
 
     @Test
-    void testGetAllStores() {
-        when(storeService.getAllStores()).thenReturn(Arrays.asList(store1, store2));
+    void testSearchStores() {
+        StoreView view = new StoreView(1L, "Tech World", "123 Tech Street", true,
+                "+1987654321", "techworld@example.com", 1L, "John Doe");
+        when(storeService.searchStores("tech", 0, 100)).thenReturn(new SearchPage<>(List.of(view), 1, null));
 
-        ResponseEntity<List<Store>> response = storeController.getAllStores();
+        ResponseEntity<SearchPage<StoreView>> response = storeController.searchStores("tech", 0, 500);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertNotNull(response.getBody());
-        assertEquals(2, response.getBody().size());
-        verify(storeService, times(1)).getAllStores();
+        assertEquals(1, response.getBody().total());
+    }
+
+    @Test
+    void testSearchStores_BlankQuery() {
+        assertEquals(400, storeController.searchStores(" ", 0, 20).getStatusCodeValue());
+        verify(storeService, never()).searchStores(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testGetNearbyStores() {
+        NearbyStore nearby = new NearbyStore(1L, 1L, "Tech World", 53.35, -6.26, 0.4);
+        when(storeService.findNearbyStores(53.34, -6.26, 5.0, 100)).thenReturn(List.of(nearby));
+
+        ResponseEntity<List<NearbyStore>> response = storeController.getNearbyStores(53.34, -6.26, 5.0, 500);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(1, response.getBody().size());
+        verify(storeService, times(1)).findNearbyStores(53.34, -6.26, 5.0, 100);
+    }
+
+    @Test
+    void testGetNearbyStores_InvalidCoordinates() {
+        ResponseEntity<List<NearbyStore>> response = storeController.getNearbyStores(91, 0, null, 10);
+
+        assertEquals(400, response.getStatusCodeValue());
+        verify(storeService, never()).findNearbyStores(anyDouble(), anyDouble(), any(), anyInt());
     }
 
     @Test
     void testGetStoreById_Found() {
         when(storeService.getStoreById(1L)).thenReturn(Optional.of(store1));
 
-        ResponseEntity<Store> response = storeController.getStoreById(1L);
+        ResponseEntity<?> response = storeController.getStoreById(1L, null, null);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(store1.getName(), response.getBody().getName());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        assertEquals(store1, response.getBody());
         verify(storeService, times(1)).getStoreById(1L);
     }
 
+    @Test
+    void testGetStoreById_NotModified() {
+        when(storeService.getStoreVersion(1L)).thenReturn(Optional.of(4L));
+
+        ResponseEntity<?> response = storeController.getStoreById(1L, "\"1\", \"4\"", null);
+
+        assertEquals(304, response.getStatusCodeValue());
+        assertNull(response.getBody());
+        verify(storeService, never()).getStoreById(anyLong());
+    }
+
+    @Test
+    void testGetStoreById_NotModifiedButDeleted() {
+        when(storeService.getStoreVersion(1L)).thenReturn(Optional.empty());
+
+        ResponseEntity<?> response = storeController.getStoreById(1L, "\"4\"", null);
+
+        assertEquals(404, response.getStatusCodeValue());
+    }
+
     @Test
     void testGetStoreById_NotFound() {
         when(storeService.getStoreById(3L)).thenReturn(Optional.empty());
 
-        ResponseEntity<Store> response = storeController.getStoreById(3L);
+        ResponseEntity<?> response = storeController.getStoreById(3L, null, null);
 
         assertEquals(404, response.getStatusCodeValue());
         assertNull(response.getBody());
     }
 
+    @Test
+    void testGetStoreById_FromSnapshot() {
+        byte[] json = "{\"id\":1}".getBytes();
+        when(storeSnapshot.isEnabled()).thenReturn(true);
+        when(storeSnapshot.find(1L)).thenReturn(Optional.of(new StoreSnapshot.Entry(1L, 1L, 4L, 4L, json)));
+
+        ResponseEntity<?> response = storeController.getStoreById(1L, null, "*/*");
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        assertSame(json, response.getBody());
+        verifyNoInteractions(storeService);
+    }
+
+    @Test
+    void testGetStoreById_NotModifiedFromSnapshot() {
+        when(storeSnapshot.isEnabled()).thenReturn(true);
+        when(storeSnapshot.find(1L)).thenReturn(Optional.of(new StoreSnapshot.Entry(1L, 1L, 4L, 4L, new byte[0])));
+
+        ResponseEntity<?> response = storeController.getStoreById(1L, "\"4\"", "application/json");
+
+        assertEquals(304, response.getStatusCodeValue());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void testGetStoreById_NotInSnapshot() {
+        when(storeSnapshot.isEnabled()).thenReturn(true);
+        when(storeSnapshot.find(1L)).thenReturn(Optional.empty());
+        when(storeService.getStoreById(1L)).thenReturn(Optional.of(store1));
+
+        ResponseEntity<?> response = storeController.getStoreById(1L, null, null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(store1, response.getBody());
+    }
+
+    @Test
+    void testGetStoreById_BinarySkipsSnapshot() {
+        when(storeSnapshot.isEnabled()).thenReturn(true);
+        when(storeService.getStoreById(1L)).thenReturn(Optional.of(store1));
+
+        ResponseEntity<?> response = storeController.getStoreById(1L, null, "application/cbor");
+
+        assertEquals(store1, response.getBody());
+        verify(storeSnapshot, never()).find(anyLong());
+    }
+
+    @Test
+    void testGetStoreById_SnapshotDisabled() {
+        when(storeService.getStoreById(1L)).thenReturn(Optional.of(store1));
+
+        ResponseEntity<?> response = storeController.getStoreById(1L, null, null);
+
+        assertEquals(store1, response.getBody());
+        verify(storeSnapshot, never()).find(anyLong());
+    }
+
+    @Test
+    void testPrefersJson() {
+        assertTrue(StoreController.prefersJson(null));
+        assertTrue(StoreController.prefersJson("*/*"));
+        assertTrue(StoreController.prefersJson("application/json"));
+        assertTrue(StoreController.prefersJson("application/json, application/cbor"));
+        assertTrue(StoreController.prefersJson("text/html, application/*;q=0.9"));
+        assertFalse(StoreController.prefersJson("application/cbor"));
+        assertFalse(StoreController.prefersJson("application/x-jackson-smile, */*;q=0.1"));
+        assertFalse(StoreController.prefersJson("application/*;q=0.5, application/cbor"));
+        assertFalse(StoreController.prefersJson("text/csv"));
+        assertFalse(StoreController.prefersJson("not a media type"));
+    }
+
     @Test
     void testCreateStore() {
         when(storeService.createStore(any(Store.class), eq(1L))).thenReturn(store1);
 
-        ResponseEntity<Store> response = storeController.createStore(1L, store1);
+        ResponseEntity<StoreResponse> response = storeController.createStore(1L, storeRequest);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(store1.getEmail(), response.getBody().getEmail());
+        assertEquals(store1.email(), response.getBody().email());
         verify(storeService, times(1)).createStore(any(Store.class), eq(1L));
     }
 
+    @Test
+    void testCreateStores() {
+        BulkImportResult report = new BulkImportResult(2, 2, List.of(1L, 2L), List.of());
+        when(storeService.createStores(anyList(), eq(1L))).thenReturn(report);
+
+        ResponseEntity<BulkImportResult> response = storeController.createStores(1L, Arrays.asList(storeRequest, null));
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(2, response.getBody().created());
+        verify(storeService, times(1)).createStores(argThat(rows -> rows.size() == 2
+                && rows.get(0).getName().equals("Tech World") && rows.get(0).isActive() && rows.get(1) == null), eq(1L));
+    }
+
     @Test
     void testUpdateStore() {
-        when(storeService.updateStore(eq(1L), any(Store.class))).thenReturn(store1);
+        when(storeService.updateStore(eq(1L), any(Store.class), eq(3L))).thenReturn(store1);
 
-        ResponseEntity<Store> response = storeController.updateStore(1L, store1);
+        ResponseEntity<StoreResponse> response = storeController.updateStore(1L, storeRequest, "\"3\"");
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(store1.getName(), response.getBody().getName());
-        verify(storeService, times(1)).updateStore(eq(1L), any(Store.class));
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        assertEquals(store1.name(), response.getBody().name());
+        verify(storeService, times(1)).updateStore(eq(1L), any(Store.class), eq(3L));
     }
 
     @Test
@@ -0,0 +1,104 @@
+package com.siopa.partner_details.controllers;
+
+import com.siopa.partner_details.dto.OwnerResponse;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.models.Store;
+import com.siopa.partner_details.service.OwnerService;
+import com.siopa.partner_details.service.StoreService;
+import com.siopa.partner_details.snapshot.StoreSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests that {@code GET /api/stores/{id}} is answered from the store snapshot whenever
+ * the response is JSON, and through the service otherwise.
+ */
+@SpringBootTest(properties = "partner.snapshot.enabled=true")
+@AutoConfigureMockMvc
+class StoreSnapshotApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StoreService storeService;
+
+    @Autowired
+    private OwnerService ownerService;
+
+    @MockitoSpyBean
+    private StoreSnapshot storeSnapshot;
+
+    private StoreResponse store;
+
+    @BeforeEach
+    void setUp() {
+        OwnerResponse owner = ownerService.createOwner(Owner.builder()
+                .name("Snapshot Owner")
+                .email("snapshot@example.com")
+                .build());
+        store = storeService.createStore(Store.builder()
+                .name("Snapshot Store " + System.nanoTime())
+                .address("1 Snapshot Street")
+                .isActive(true)
+                .build(), owner.id());
+        clearInvocations(storeSnapshot);
+    }
+
+    /**
+     * Tests that a request with no Accept header gets the snapshot's bytes.
+     */
+    @Test
+    void testGetStoreById_NoAcceptHeader() throws Exception {
+        byte[] json = storeSnapshot.find(store.id()).orElseThrow().json();
+        clearInvocations(storeSnapshot);
+
+        mockMvc.perform(get("/api/stores/{id}", store.id()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"" + store.version() + "\""))
+                .andExpect(content().bytes(json));
+
+        verify(storeSnapshot).find(store.id());
+    }
+
+    /**
+     * Tests that revalidating against the snapshot answers 304 without reading the store.
+     */
+    @Test
+    void testGetStoreById_NotModified() throws Exception {
+        mockMvc.perform(get("/api/stores/{id}", store.id())
+                        .accept(MediaType.ALL)
+                        .header("If-None-Match", "\"" + store.version() + "\""))
+                .andExpect(status().isNotModified());
+
+        verify(storeSnapshot).find(store.id());
+    }
+
+    /**
+     * Tests that a binary response is still built through the service.
+     */
+    @Test
+    void testGetStoreById_Cbor() throws Exception {
+        mockMvc.perform(get("/api/stores/{id}", store.id()).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+
+        verify(storeSnapshot, never()).find(anyLong());
+    }
+}
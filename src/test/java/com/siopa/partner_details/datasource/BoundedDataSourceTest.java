@@ -0,0 +1,76 @@
+package com.siopa.partner_details.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BoundedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private BoundedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = new BoundedDataSource(target, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    void testGetConnection_WaitsForPermit() throws SQLException {
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertEquals(0, dataSource.getAvailablePermits());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        verify(target, times(2)).getConnection();
+
+        first.close();
+        assertNotNull(dataSource.getConnection());
+    }
+
+    @Test
+    void testClose_ReleasesOnce() throws SQLException {
+        Connection bound = dataSource.getConnection();
+
+        bound.close();
+        bound.close();
+
+        assertEquals(2, dataSource.getAvailablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void testGetConnection_FailureReleasesPermit() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void testConnection_DelegatesCalls() throws SQLException {
+        when(connection.getAutoCommit()).thenReturn(true);
+        Connection bound = dataSource.getConnection();
+
+        assertTrue(bound.getAutoCommit());
+        assertEquals(bound, bound);
+        verify(connection).getAutoCommit();
+    }
+}
@@ -0,0 +1,96 @@
+package com.siopa.partner_details.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests lag-aware routing of read-only transactions between two H2 databases
+ * standing in for the primary and replica.
+ */
+class ReplicaLagMonitorTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate replicaJdbc;
+
+    private static DataSource database(String name, String role) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS node (role VARCHAR(10), lag_seconds DOUBLE)");
+        jdbc.execute("DELETE FROM node");
+        jdbc.update("INSERT INTO node VALUES (?, 0)", role);
+        return dataSource;
+    }
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("routing-primary", "primary");
+        DataSource replica = database("routing-replica", "replica");
+        replicaJdbc = new JdbcTemplate(replica);
+        lagMonitor = new ReplicaLagMonitor(replica, "SELECT lag_seconds FROM node", Duration.ofSeconds(5));
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(lagMonitor.readOnlyDataSource(primary));
+
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String role(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT role FROM node", String.class));
+    }
+
+    @Test
+    void testReadOnlyTransactionUsesReplica() {
+        lagMonitor.check();
+
+        assertTrue(lagMonitor.isReplicaUsable());
+        assertEquals("replica", role(readOnly));
+        assertEquals("primary", role(readWrite));
+    }
+
+    @Test
+    void testReplicaUnusedBeforeFirstCheck() {
+        assertEquals("primary", role(readOnly));
+    }
+
+    @Test
+    void testLaggingReplicaFallsBackToPrimary() {
+        replicaJdbc.update("UPDATE node SET lag_seconds = 30");
+        lagMonitor.check();
+
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals(30.0, lagMonitor.getLagSeconds());
+        assertEquals("primary", role(readOnly));
+
+        replicaJdbc.update("UPDATE node SET lag_seconds = 1");
+        lagMonitor.check();
+        assertEquals("replica", role(readOnly));
+    }
+
+    @Test
+    void testUnreachableReplicaFallsBackToPrimary() {
+        lagMonitor.check();
+        replicaJdbc.execute("DROP TABLE node");
+        lagMonitor.check();
+
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertTrue(Double.isNaN(lagMonitor.getLagSeconds()));
+        assertEquals("primary", role(readOnly));
+    }
+}
@@ -0,0 +1,71 @@
+package com.siopa.partner_details.events;
+
+import com.siopa.partner_details.models.OutboxEvent;
+import com.siopa.partner_details.repositories.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxRepository;
+
+    @Mock
+    private OutboxSink sink;
+
+    private OutboxRelay outboxRelay;
+
+    private OutboxEvent first;
+    private OutboxEvent second;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        outboxRelay = new OutboxRelay(outboxRepository, List.of(sink));
+        first = OutboxEvent.builder().id(1L).aggregateType(AggregateType.STORE).aggregateId(10L)
+                .changeType(ChangeType.CREATED).build();
+        second = OutboxEvent.builder().id(2L).aggregateType(AggregateType.STORE).aggregateId(10L)
+                .changeType(ChangeType.UPDATED).build();
+    }
+
+    @Test
+    void testRelayBatch_DeliversInOrderAndDeletes() {
+        when(outboxRepository.findOldest(any(Limit.class))).thenReturn(List.of(first, second));
+
+        int delivered = outboxRelay.relayBatch();
+
+        assertEquals(2, delivered);
+        var inOrder = inOrder(sink, outboxRepository);
+        inOrder.verify(sink).deliver(first);
+        inOrder.verify(sink).deliver(second);
+        inOrder.verify(outboxRepository).deleteDelivered(List.of(1L, 2L));
+    }
+
+    @Test
+    void testRelayBatch_StopsAtFailedDelivery() {
+        when(outboxRepository.findOldest(any(Limit.class))).thenReturn(List.of(first, second));
+        doThrow(new IllegalStateException("broker down")).when(sink).deliver(second);
+
+        int delivered = outboxRelay.relayBatch();
+
+        assertEquals(1, delivered);
+        verify(outboxRepository).deleteDelivered(List.of(1L));
+    }
+
+    @Test
+    void testRelayBatch_EmptyOutbox() {
+        when(outboxRepository.findOldest(any(Limit.class))).thenReturn(List.of());
+
+        assertEquals(0, outboxRelay.relayBatch());
+        verify(outboxRepository, never()).deleteDelivered(any());
+        verifyNoInteractions(sink);
+    }
+}
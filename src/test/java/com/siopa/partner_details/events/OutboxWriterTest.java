@@ -0,0 +1,138 @@
+package com.siopa.partner_details.events;
+
+import com.siopa.partner_details.dto.OwnerResponse;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.models.OutboxEvent;
+import com.siopa.partner_details.models.Store;
+import com.siopa.partner_details.repositories.OutboxEventRepository;
+import com.siopa.partner_details.repositories.OwnerRepository;
+import com.siopa.partner_details.repositories.StoreRepository;
+import com.siopa.partner_details.service.ChangeSequence;
+import com.siopa.partner_details.service.OwnerService;
+import com.siopa.partner_details.service.StoreService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that service writes record outbox events in the same transaction.
+ */
+@SpringBootTest
+class OutboxWriterTest {
+
+    @Autowired
+    private OwnerService ownerService;
+
+    @Autowired
+    private StoreService storeService;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private ChangeSequence changeSequence;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAllInBatch();
+        storeRepository.deleteAllInBatch();
+        ownerRepository.deleteAllInBatch();
+    }
+
+    private List<OutboxEvent> outbox() {
+        return outboxRepository.findOldest(Limit.of(100));
+    }
+
+    /**
+     * Tests that each write adds an event with the entity as its payload, in commit order.
+     */
+    @Test
+    void testWritesRecordEvents() {
+        OwnerResponse owner = ownerService.createOwner(Owner.builder().name("Jane Doe").email("jane@example.com").build());
+        StoreResponse store = storeService.createStore(
+                Store.builder().name("Corner Shop").address("1 Main Street").isActive(true).build(), owner.id());
+        storeService.deleteStore(store.id());
+
+        List<OutboxEvent> events = outbox();
+
+        assertEquals(3, events.size());
+        assertEquals(AggregateType.OWNER, events.get(0).getAggregateType());
+        assertEquals(owner.id(), events.get(0).getAggregateId());
+        assertTrue(events.get(0).getPayload().contains("\"Jane Doe\""));
+        assertEquals(AggregateType.STORE, events.get(1).getAggregateType());
+        assertEquals(ChangeType.CREATED, events.get(1).getChangeType());
+        assertTrue(events.get(1).getPayload().contains("\"Corner Shop\""));
+        assertEquals(ChangeType.DELETED, events.get(2).getChangeType());
+        assertNull(events.get(2).getPayload());
+    }
+
+    /**
+     * Tests that changes to one aggregate are relayed in commit order when two instances
+     * write them with IDs from different blocks of the pooled sequence.
+     */
+    @Test
+    void testOrderedAcrossIdBlocks() {
+        OwnerResponse owner = ownerService.createOwner(Owner.builder().name("Jane Doe").email("jane@example.com").build());
+        StoreResponse store = storeService.createStore(
+                Store.builder().name("Corner Shop").address("1 Main Street").isActive(true).build(), owner.id());
+
+        // Another instance reserves the next block of IDs and commits an update to the store first
+        long otherBlock = jdbcTemplate.queryForObject("select next value for outbox_events_seq", Long.class);
+        jdbcTemplate.update("insert into outbox_events (id, aggregate_type, aggregate_id, change_type, payload, "
+                        + "change_seq, created_at) values (?, 'STORE', ?, 'UPDATED', ?, ?, current_timestamp)",
+                otherBlock, store.id(), "{\"name\":\"Renamed Elsewhere\"}", changeSequence.next());
+        // This instance then commits a later update with an ID from its own, lower block
+        storeService.updateStore(store.id(),
+                Store.builder().name("Renamed Here").address("1 Main Street").isActive(true).build(), null);
+
+        List<OutboxEvent> updates = outbox().stream()
+                .filter(event -> event.getChangeType() == ChangeType.UPDATED)
+                .toList();
+
+        assertEquals(2, updates.size());
+        assertTrue(updates.get(1).getId() < updates.get(0).getId());
+        assertTrue(updates.get(0).getPayload().contains("Renamed Elsewhere"));
+        assertTrue(updates.get(1).getPayload().contains("Renamed Here"));
+    }
+
+    /**
+     * Tests that a bulk import records one event per store created.
+     */
+    @Test
+    void testImportRecordsEventPerStore() {
+        OwnerResponse owner = ownerService.createOwner(Owner.builder().name("Jane Doe").email("jane@example.com").build());
+        storeService.createStores(List.of(
+                Store.builder().name("Shop A").address("1 Main Street").isActive(true).build(),
+                Store.builder().name("Shop B").address("2 Main Street").isActive(true).build()), owner.id());
+
+        assertEquals(3, outbox().size());
+    }
+
+    /**
+     * Tests that a failed write leaves nothing in the outbox.
+     */
+    @Test
+    void testFailedWriteRecordsNothing() {
+        assertThrows(RuntimeException.class, () -> storeService.updateStore(-1L,
+                Store.builder().name("Missing").address("Nowhere").build(), null));
+
+        assertTrue(outbox().isEmpty());
+    }
+}
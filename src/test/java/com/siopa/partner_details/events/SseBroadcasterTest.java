@@ -0,0 +1,142 @@
+package com.siopa.partner_details.events;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Tests fan-out, filtering, overflow handling and stall eviction of the SSE broadcaster.
+ */
+class SseBroadcasterTest {
+
+    // Tasks are held until the test runs them, standing in for a busy executor
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private final SseBroadcaster broadcaster = new SseBroadcaster(tasks::add, 4, Duration.ZERO);
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new StreamController()).build();
+
+    @RestController
+    class StreamController {
+        @GetMapping("/stream")
+        SseEmitter stream(@RequestParam(required = false) Long key) {
+            return broadcaster.subscribe(key == null ? k -> true : k -> k == null || key.equals(k));
+        }
+    }
+
+    private MockHttpServletResponse subscribe(String path) throws Exception {
+        return mockMvc.perform(get(path)).andExpect(request().asyncStarted()).andReturn().getResponse();
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    private SseBroadcaster.Message message(String id) {
+        return new SseBroadcaster.Message(id, "store.updated", "{\"id\":" + id + "}");
+    }
+
+    @Test
+    void testPublish_FiltersByKey() throws Exception {
+        MockHttpServletResponse all = subscribe("/stream");
+        MockHttpServletResponse owner = subscribe("/stream?key=1");
+
+        broadcaster.publish(1L, message("10"));
+        broadcaster.publish(2L, message("20"));
+        broadcaster.publish(null, message("30"));
+        runTasks();
+
+        assertEquals(2, broadcaster.subscriberCount());
+        assertTrue(all.getContentAsString().contains("id:20"));
+        assertTrue(owner.getContentAsString().contains("id:10"));
+        assertFalse(owner.getContentAsString().contains("id:20"));
+        assertTrue(owner.getContentAsString().contains("id:30"));
+    }
+
+    @Test
+    void testPublish_OneWriterTaskPerSubscriber() throws Exception {
+        subscribe("/stream");
+
+        broadcaster.publish(null, message("1"));
+        broadcaster.publish(null, message("2"));
+
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    void testPublish_OverflowDropsBacklogAndResyncs() throws Exception {
+        MockHttpServletResponse response = subscribe("/stream");
+
+        for (int i = 1; i <= 8; i++) {
+            broadcaster.publish(null, message(String.valueOf(i)));
+        }
+        runTasks();
+
+        String content = response.getContentAsString();
+        assertFalse(content.contains("id:1\n"));
+        assertTrue(content.contains("event:resync"));
+        assertTrue(content.indexOf("event:resync") < content.indexOf("id:8"));
+    }
+
+    @Test
+    void testHeartbeat() throws Exception {
+        MockHttpServletResponse response = subscribe("/stream");
+
+        broadcaster.heartbeat();
+        runTasks();
+
+        assertTrue(response.getContentAsString().contains(":heartbeat"));
+    }
+
+    @Test
+    void testEvictStalled() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Stands in for a client that stopped reading: its first write never returns on its own
+        SseEmitter stalled = new SseEmitter(0L) {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                sending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("Connection aborted");
+            }
+        };
+        broadcaster.subscribe(stalled, key -> true);
+        broadcaster.publish(null, message("1"));
+        subscribe("/stream");
+        Thread writer = new Thread(tasks.remove(0));
+        writer.start();
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+        broadcaster.evictStalled();
+
+        assertEquals(1, broadcaster.subscriberCount());
+        release.countDown();
+        writer.join(5000);
+        broadcaster.publish(null, message("2"));
+        runTasks();
+        assertEquals(1, broadcaster.subscriberCount());
+    }
+}
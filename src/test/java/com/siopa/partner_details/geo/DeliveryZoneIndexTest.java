@@ -0,0 +1,89 @@
+package com.siopa.partner_details.geo;
+
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.io.ParseException;
+import com.vividsolutions.jts.io.WKTReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeliveryZoneIndexTest {
+
+    private static final WKTReader WKT = new WKTReader();
+
+    @TempDir
+    Path tempDir;
+
+    private static DeliveryZone zone(String id, String wkt) {
+        try {
+            Geometry geometry = WKT.read(wkt);
+            return new DeliveryZone(id, "Zone " + id, geometry);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static List<String> ids(List<DeliveryZoneIndex.IndexedZone> zones) {
+        return zones.stream().map(zone -> zone.zone().id()).sorted().toList();
+    }
+
+    /**
+     * Tests that a point resolves to every zone covering it, including overlaps.
+     */
+    @Test
+    void testZonesAt() {
+        DeliveryZoneIndex index = new DeliveryZoneIndex(path -> List.of(), "");
+        index.replaceAll(List.of(
+                zone("a", "POLYGON((-7 53, -6 53, -6 54, -7 54, -7 53))"),
+                zone("b", "POLYGON((-6.5 53.2, -5.5 53.2, -5.5 53.8, -6.5 53.8, -6.5 53.2))"),
+                // L-shaped zone whose envelope covers the test point but whose polygon does not
+                zone("c", "POLYGON((-9 51, -7.5 51, -7.5 51.5, -8.5 51.5, -8.5 53.5, -9 53.5, -9 51))")));
+
+        assertEquals(List.of("a", "b"), ids(index.zonesAt(53.5, -6.25)));
+        assertEquals(List.of("a"), ids(index.zonesAt(53.1, -6.9)));
+        assertTrue(index.zonesAt(53.0, -8.0).isEmpty());
+        assertEquals(List.of("c"), ids(index.zonesAt(53.0, -8.75)));
+    }
+
+    /**
+     * Tests that a changed shapefile is reloaded while lookups keep working.
+     */
+    @Test
+    void testReloadIfChanged() throws IOException {
+        Path shapefile = Files.createFile(tempDir.resolve("zones.shp"));
+        AtomicReference<List<DeliveryZone>> onDisk = new AtomicReference<>(
+                List.of(zone("old", "POLYGON((0 0, 1 0, 1 1, 0 1, 0 0))")));
+        DeliveryZoneIndex index = new DeliveryZoneIndex(path -> onDisk.get(), shapefile.toString());
+
+        index.loadOnStartup();
+        assertEquals(List.of("old"), ids(index.zonesAt(0.5, 0.5)));
+
+        onDisk.set(List.of(zone("new", "POLYGON((2 2, 3 2, 3 3, 2 3, 2 2))")));
+        index.reloadIfChanged();
+        assertEquals(List.of("old"), ids(index.zonesAt(0.5, 0.5)));
+
+        Files.setLastModifiedTime(shapefile, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        index.reloadIfChanged();
+        assertTrue(index.zonesAt(0.5, 0.5).isEmpty());
+        assertEquals(List.of("new"), ids(index.zonesAt(2.5, 2.5)));
+    }
+
+    /**
+     * Tests that reloading without a configured shapefile is rejected.
+     */
+    @Test
+    void testReload_NotConfigured() {
+        DeliveryZoneIndex index = new DeliveryZoneIndex(path -> List.of(), "");
+
+        assertThrows(IllegalStateException.class, index::reload);
+        assertEquals(0, index.size());
+    }
+}
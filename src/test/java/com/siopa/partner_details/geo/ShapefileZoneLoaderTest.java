@@ -0,0 +1,102 @@
+package com.siopa.partner_details.geo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads the shapefiles in {@code src/test/resources/zones}: {@code delivery-zones} holds
+ * Dublin City, Dublin Docklands (inside Dublin City) and Cork City, and {@code cork-zones}
+ * only Cork City, all in WGS84.
+ */
+class ShapefileZoneLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static Path fixture() throws URISyntaxException {
+        return Path.of(ShapefileZoneLoaderTest.class.getResource("/zones/delivery-zones.shp").toURI());
+    }
+
+    private static List<String> ids(List<DeliveryZoneIndex.IndexedZone> zones) {
+        return zones.stream().map(zone -> zone.zone().id()).sorted().toList();
+    }
+
+    /**
+     * Tests that every polygon is read with its ID and name attributes.
+     */
+    @Test
+    void testLoad() throws Exception {
+        List<DeliveryZone> zones = new ShapefileZoneLoader("zone_id", "name").load(fixture());
+
+        assertEquals(List.of("D01", "D02", "C01"), zones.stream().map(DeliveryZone::id).toList());
+        assertEquals(List.of("Dublin City", "Dublin Docklands", "Cork City"),
+                zones.stream().map(DeliveryZone::name).toList());
+        assertTrue(zones.stream().allMatch(zone -> zone.geometry().isValid() && zone.geometry().getArea() > 0));
+    }
+
+    /**
+     * Tests that a missing ID attribute falls back to the feature ID.
+     */
+    @Test
+    void testLoad_MissingIdAttribute() throws Exception {
+        List<DeliveryZone> zones = new ShapefileZoneLoader("code", "name").load(fixture());
+
+        assertEquals(3, zones.size());
+        assertTrue(zones.stream().allMatch(zone -> zone.id().startsWith("delivery-zones.")));
+        assertEquals("Cork City", zones.get(2).name());
+    }
+
+    /**
+     * Tests that the index loads the shapefile through the loader and answers lookups from it.
+     */
+    @Test
+    void testDeliveryZoneIndexReload() throws Exception {
+        DeliveryZoneIndex index = new DeliveryZoneIndex(new ShapefileZoneLoader("zone_id", "name"),
+                fixture().toString());
+
+        assertEquals(3, index.reload());
+        assertEquals(List.of("D01", "D02"), ids(index.zonesAt(53.345, -6.22)));
+        assertEquals(List.of("D01"), ids(index.zonesAt(53.38, -6.30)));
+        assertEquals(List.of("C01"), ids(index.zonesAt(51.90, -8.47)));
+        assertTrue(index.zonesAt(52.66, -8.63).isEmpty());
+    }
+
+    /**
+     * Tests that a replaced shapefile is picked up by the scheduled check.
+     */
+    @Test
+    void testDeliveryZoneIndexReloadIfChanged() throws Exception {
+        Path shapefile = copyFixture("delivery-zones", "zones");
+        DeliveryZoneIndex index = new DeliveryZoneIndex(new ShapefileZoneLoader("zone_id", "name"),
+                shapefile.toString());
+        index.loadOnStartup();
+        assertEquals(3, index.size());
+
+        copyFixture("cork-zones", "zones");
+        Files.setLastModifiedTime(shapefile, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        index.reloadIfChanged();
+
+        assertEquals(1, index.size());
+        assertTrue(index.zonesAt(53.345, -6.22).isEmpty());
+        assertEquals(List.of("C01"), ids(index.zonesAt(51.90, -8.47)));
+    }
+
+    private Path copyFixture(String fixture, String name) throws IOException, URISyntaxException {
+        Path source = fixture();
+        for (String extension : List.of("shp", "shx", "dbf", "prj")) {
+            Files.copy(source.resolveSibling(fixture + "." + extension), tempDir.resolve(name + "." + extension),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        return tempDir.resolve(name + ".shp");
+    }
+}
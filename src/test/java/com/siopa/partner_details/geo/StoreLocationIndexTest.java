@@ -0,0 +1,131 @@
+package com.siopa.partner_details.geo;
+
+import com.siopa.partner_details.dto.NearbyStore;
+import com.siopa.partner_details.events.ChangeType;
+import com.siopa.partner_details.events.OwnerChangedEvent;
+import com.siopa.partner_details.events.StoreChangedEvent;
+import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.models.Store;
+import com.siopa.partner_details.repositories.StoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StoreLocationIndexTest {
+
+    @Mock
+    private StoreRepository storeRepository;
+
+    private StoreLocationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new StoreLocationIndex(storeRepository);
+        when(storeRepository.findAllLocations()).thenReturn(List.of(
+                new StoreLocation(1L, 1L, "Dublin Central", 53.3498, -6.2603, true),
+                new StoreLocation(2L, 1L, "Dublin South", 53.3000, -6.2500, true),
+                new StoreLocation(3L, 2L, "Cork", 51.8985, -8.4756, true),
+                new StoreLocation(4L, 2L, "Dublin Closed", 53.3490, -6.2600, false)));
+        index.loadFromDatabase();
+    }
+
+    /**
+     * Tests that a radius search returns only active stores in range, nearest first.
+     */
+    @Test
+    void testWithinRadius() {
+        List<NearbyStore> result = index.withinRadius(53.3498, -6.2603, 10, 10, true);
+
+        assertEquals(List.of(1L, 2L), result.stream().map(NearbyStore::storeId).toList());
+        assertEquals(0, result.get(0).distanceKm(), 0.001);
+    }
+
+    /**
+     * Tests that k-nearest search widens until enough stores are found.
+     */
+    @Test
+    void testNearest() {
+        List<NearbyStore> result = index.nearest(51.9, -8.47, 2, true);
+
+        assertEquals(List.of(3L, 2L), result.stream().map(NearbyStore::storeId).toList());
+        assertEquals(219, result.get(1).distanceKm(), 5);
+    }
+
+    /**
+     * Tests that committed writes are applied incrementally.
+     */
+    @Test
+    void testIncrementalUpdates() {
+        Owner owner = Owner.builder().id(3L).build();
+        Store galway = Store.builder().id(5L).name("Galway").latitude(53.2707).longitude(-9.0568)
+                .isActive(true).owner(owner).build();
+        index.onStoreChanged(new StoreChangedEvent(ChangeType.CREATED, 5L, galway));
+        Store moved = Store.builder().id(1L).name("Dublin Central").latitude(52.6638).longitude(-8.6267)
+                .isActive(true).owner(Owner.builder().id(1L).build()).build();
+        index.onStoreChanged(new StoreChangedEvent(ChangeType.UPDATED, 1L, moved));
+        index.onStoreChanged(new StoreChangedEvent(ChangeType.DELETED, 2L, null));
+
+        assertEquals(List.of(5L), ids(index.withinRadius(53.27, -9.05, 5, 10, true)));
+        assertTrue(index.withinRadius(53.3498, -6.2603, 10, 10, true).isEmpty());
+        assertEquals(List.of(1L), ids(index.withinRadius(52.66, -8.62, 5, 10, true)));
+
+        index.onOwnerChanged(new OwnerChangedEvent(ChangeType.DELETED, 2L, null));
+        assertEquals(List.of(1L, 5L), ids(index.nearest(52.0, -8.5, 5, false)));
+    }
+
+    /**
+     * Tests that searches across the antimeridian find stores on both sides.
+     */
+    @Test
+    void testWithinRadius_AcrossAntimeridian() {
+        index.replaceAll(List.of(
+                new StoreLocation(10L, 1L, "East", -16.5, 179.9, true),
+                new StoreLocation(11L, 1L, "West", -16.5, -179.9, true)));
+
+        assertEquals(2, index.withinRadius(-16.5, 179.99, 50, 10, true).size());
+    }
+
+    /**
+     * Tests that results match a linear scan after many changes trigger rebuilds.
+     */
+    @Test
+    void testMatchesLinearScan() throws InterruptedException {
+        Random random = new Random(42);
+        List<StoreLocation> locations = new ArrayList<>();
+        for (long id = 1; id <= 3000; id++) {
+            locations.add(new StoreLocation(id, 1L, "Store " + id,
+                    51 + random.nextDouble() * 4, -10 + random.nextDouble() * 4, true));
+        }
+        index.replaceAll(locations.subList(0, 1000));
+        Owner owner = Owner.builder().id(1L).build();
+        for (StoreLocation location : locations.subList(1000, 3000)) {
+            index.upsert(Store.builder().id(location.storeId()).name(location.name())
+                    .latitude(location.latitude()).longitude(location.longitude())
+                    .isActive(true).owner(owner).build());
+        }
+        Thread.sleep(200);
+
+        List<Long> expected = locations.stream()
+                .sorted((a, b) -> Double.compare(
+                        StoreLocationIndex.distanceKm(53, -8, a.latitude(), a.longitude()),
+                        StoreLocationIndex.distanceKm(53, -8, b.latitude(), b.longitude())))
+                .limit(20)
+                .map(StoreLocation::storeId)
+                .toList();
+        assertEquals(3000, index.size());
+        assertEquals(expected, ids(index.nearest(53, -8, 20, true)));
+    }
+
+    private static List<Long> ids(List<NearbyStore> stores) {
+        return stores.stream().map(NearbyStore::storeId).toList();
+    }
+}
@@ -0,0 +1,397 @@
+package com.siopa.partner_details.repositories;
+
+import com.siopa.partner_details.dto.CollectionVersion;
+import com.siopa.partner_details.dto.StoreChange;
+import com.siopa.partner_details.dto.StoreDeletion;
+import com.siopa.partner_details.dto.OwnerStoreCounts;
+import com.siopa.partner_details.dto.OwnerSummary;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.dto.StoreView;
+import com.siopa.partner_details.geo.StoreLocation;
+import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.models.Store;
+import com.siopa.partner_details.stats.StoreState;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that store listings and writes run in a constant number of SQL statements.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class StoreRepositoryTest {
+
+    private static final int OWNERS = 5;
+    private static final int STORES_PER_OWNER = 4;
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private StoreTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+    private Long firstOwnerId;
+
+    @BeforeEach
+    void setUp() {
+        for (int o = 0; o < OWNERS; o++) {
+            Owner owner = entityManager.persist(Owner.builder()
+                    .name("Owner " + o)
+                    .email("owner" + o + "@example.com")
+                    .build());
+            if (firstOwnerId == null) {
+                firstOwnerId = owner.getId();
+            }
+            for (int s = 0; s < STORES_PER_OWNER; s++) {
+                entityManager.persist(Store.builder()
+                        .name("Store " + o + "-" + s)
+                        .address(s + " Main Street")
+                        .isActive(s != STORES_PER_OWNER - 1)
+                        .latitude(s == 0 ? 53.0 + o : null)
+                        .longitude(s == 0 ? -6.0 : null)
+                        .owner(owner)
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /**
+     * Tests that listing all stores fetches owners in the same statement.
+     */
+    @Test
+    void testFindAll_SingleStatement() {
+        List<Store> stores = storeRepository.findAll();
+
+        assertEquals(OWNERS * STORES_PER_OWNER, stores.size());
+        stores.forEach(store -> assertNotNull(store.getOwner().getName()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests that a batch lookup by ID fetches owners in the same statement.
+     */
+    @Test
+    void testFindAllById_SingleStatement() {
+        List<Long> ids = storeRepository.findViewsByOwnerId(firstOwnerId).stream().map(StoreView::id).toList();
+        statistics.clear();
+
+        List<Store> stores = storeRepository.findAllById(ids);
+
+        assertEquals(STORES_PER_OWNER, stores.size());
+        stores.forEach(store -> assertNotNull(store.getOwner().getName()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests that listing an owner's stores fetches the owner in the same statement.
+     */
+    @Test
+    void testFindByOwnerId_SingleStatement() {
+        List<Store> stores = storeRepository.findByOwnerId(firstOwnerId);
+
+        assertEquals(STORES_PER_OWNER, stores.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests that store responses are projected in one statement without managed entities.
+     */
+    @Test
+    void testFindResponses_NoEntities() {
+        List<StoreResponse> all = storeRepository.findAllResponses();
+        List<StoreResponse> page = storeRepository.findResponsesAfter(all.get(1).id(), Limit.of(3));
+        List<StoreResponse> byOwner = storeRepository.findResponsesByOwnerId(firstOwnerId);
+        List<StoreResponse> byId = storeRepository.findResponsesByIdIn(List.of(all.get(0).id(), -1L));
+
+        assertEquals(OWNERS * STORES_PER_OWNER, all.size());
+        assertEquals("Owner 0", all.get(0).ownerName());
+        assertEquals(53.0, all.get(0).latitude());
+        assertEquals(all.subList(2, 5), page);
+        assertEquals(STORES_PER_OWNER, byOwner.size());
+        assertEquals(List.of(all.get(0)), byId);
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    /**
+     * Tests that store views are projected in one statement without managed entities.
+     */
+    @Test
+    void testFindAllViews_SingleStatement() {
+        List<StoreView> views = storeRepository.findAllViews();
+
+        assertEquals(OWNERS * STORES_PER_OWNER, views.size());
+        assertEquals("Owner 0", views.get(0).ownerName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    /**
+     * Tests that an owner's store views are projected in one statement.
+     */
+    @Test
+    void testFindViewsByOwnerId_SingleStatement() {
+        List<StoreView> views = storeRepository.findViewsByOwnerId(firstOwnerId);
+
+        assertEquals(STORES_PER_OWNER, views.size());
+        views.forEach(view -> assertEquals(firstOwnerId, view.ownerId()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests that the store views of several owners are read in one statement, grouped by owner.
+     */
+    @Test
+    void testFindViewsByOwnerIdIn_SingleStatement() {
+        Long secondOwnerId = ownerRepository.findResponsesAfter(firstOwnerId, Limit.of(1)).get(0).id();
+        statistics.clear();
+
+        List<StoreView> views = storeRepository.findViewsByOwnerIdIn(List.of(secondOwnerId, firstOwnerId));
+
+        assertEquals(2 * STORES_PER_OWNER, views.size());
+        assertEquals(firstOwnerId, views.get(0).ownerId());
+        assertEquals(secondOwnerId, views.get(STORES_PER_OWNER).ownerId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests that owner summaries count active and inactive stores in SQL without loading stores.
+     */
+    @Test
+    void testFindOwnerSummaries_CountsInOneStatement() {
+        Owner empty = ownerRepository.save(Owner.builder().name("No Stores").email("empty@example.com").build());
+        entityManager.flush();
+        statistics.clear();
+
+        OwnerSummary first = ownerRepository.findSummaryById(firstOwnerId).orElseThrow();
+        List<OwnerSummary> page = ownerRepository.findSummariesAfter(firstOwnerId, Limit.of(10));
+
+        assertEquals("Owner 0", first.name());
+        assertEquals(STORES_PER_OWNER - 1, first.activeStores());
+        assertEquals(1L, first.inactiveStores());
+        assertEquals(OWNERS, page.size());
+        assertEquals(empty.getId(), page.get(OWNERS - 1).id());
+        assertEquals(0L, page.get(OWNERS - 1).storeCount());
+        assertTrue(ownerRepository.findSummaryById(-1L).isEmpty());
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    /**
+     * Tests that the partner statistics are loaded and reconciled in one statement each.
+     */
+    @Test
+    void testFindStatisticsRows() {
+        List<OwnerStoreCounts> counts = ownerRepository.findStoreCounts();
+        List<StoreState> states = storeRepository.findAllStates();
+
+        assertEquals(OWNERS, counts.size());
+        assertEquals(new OwnerStoreCounts(firstOwnerId, STORES_PER_OWNER - 1, 1), counts.get(0));
+        assertEquals(OWNERS * STORES_PER_OWNER, states.size());
+        assertEquals(OWNERS * (STORES_PER_OWNER - 1), states.stream().filter(StoreState::active).count());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    /**
+     * Tests that active store views are paged by ID and skip inactive stores.
+     */
+    @Test
+    void testFindActiveViewsAfter() {
+        List<StoreView> first = storeRepository.findActiveViewsAfter(0L, Limit.of(5));
+        List<StoreView> rest = storeRepository.findActiveViewsAfter(first.get(4).id(), Limit.of(100));
+
+        assertEquals(5, first.size());
+        assertEquals(OWNERS * (STORES_PER_OWNER - 1) - 5, rest.size());
+        assertTrue(first.get(4).id() < rest.get(0).id());
+        rest.forEach(view -> assertTrue(view.active()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests that store locations are loaded for the spatial index in one statement.
+     */
+    @Test
+    void testFindAllLocations() {
+        List<StoreLocation> locations = storeRepository.findAllLocations();
+
+        assertEquals(OWNERS, locations.size());
+        assertEquals(-6.0, locations.get(0).longitude());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests that a store update is a single statement and reports the affected rows.
+     */
+    @Test
+    void testUpdateDetails_SingleStatement() {
+        Long storeId = storeRepository.findViewsByOwnerId(firstOwnerId).get(0).id();
+        statistics.clear();
+
+        int updated = storeRepository.updateDetails(storeId, "Renamed", "1 New Street", null, null,
+                false, 54.0, -7.0, null, Instant.now());
+
+        assertEquals(1, updated);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, storeRepository.updateDetails(-1L, "Missing", "Nowhere", null, null, true, null, null, null,
+                Instant.now()));
+        Store store = storeRepository.findById(storeId).orElseThrow();
+        assertEquals("Renamed", store.getName());
+        assertFalse(store.isActive());
+        assertEquals(1L, store.getVersion());
+        // The change is stamped by the same statement
+        assertTrue(store.getChangeSeq() > 0);
+        assertNotNull(store.getUpdatedAt());
+    }
+
+    /**
+     * Tests that a conditional update only applies at the expected version.
+     */
+    @Test
+    void testUpdateDetails_ExpectedVersion() {
+        Long storeId = storeRepository.findViewsByOwnerId(firstOwnerId).get(0).id();
+
+        assertEquals(0, storeRepository.updateDetails(storeId, "Renamed", "1 New Street", null, null,
+                true, null, null, 5L, Instant.now()));
+        assertEquals(1, storeRepository.updateDetails(storeId, "Renamed", "1 New Street", null, null,
+                true, null, null, 0L, Instant.now()));
+        assertEquals(Optional.of(1L), storeRepository.findVersionById(storeId));
+    }
+
+    /**
+     * Tests that the collection version changes on update, owner update and delete.
+     */
+    @Test
+    void testFindCollectionVersion() {
+        CollectionVersion initial = storeRepository.findCollectionVersion();
+        assertEquals(OWNERS * STORES_PER_OWNER, initial.count());
+        assertEquals(0L, initial.deletions());
+
+        Long storeId = storeRepository.findViewsByOwnerId(firstOwnerId).get(0).id();
+        storeRepository.updateDetails(storeId, "Renamed", "1 New Street", null, null, true, null, null, null,
+                Instant.now());
+        CollectionVersion updated = storeRepository.findCollectionVersion();
+        assertEquals(initial.count(), updated.count());
+        assertTrue(updated.changeSeqSum() > initial.changeSeqSum());
+
+        ownerRepository.updateDetails(firstOwnerId, "Renamed Owner", "owner0@example.com", null, null, Instant.now());
+        storeRepository.touchByOwnerId(firstOwnerId);
+        CollectionVersion touched = storeRepository.findCollectionVersion();
+        assertTrue(touched.changeSeqSum() > updated.changeSeqSum());
+
+        tombstoneRepository.insertForStore(storeId, 1_000_000L, Instant.now());
+        storeRepository.deleteStoreById(storeId);
+        CollectionVersion deleted = storeRepository.findCollectionVersion();
+        assertEquals(initial.count() - 1, deleted.count());
+        assertEquals(1L, deleted.deletions());
+    }
+
+    /**
+     * Tests that an owner and their stores are deleted with bulk statements, without loading either.
+     */
+    @Test
+    void testDeleteOwnerWithStores_BulkStatements() {
+        int stores = storeRepository.deleteAllByOwnerId(firstOwnerId);
+        int owners = ownerRepository.deleteOwnerById(firstOwnerId);
+
+        assertEquals(STORES_PER_OWNER, stores);
+        assertEquals(1, owners);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals((OWNERS - 1) * STORES_PER_OWNER, storeRepository.count());
+        assertEquals(0, ownerRepository.deleteOwnerById(firstOwnerId));
+    }
+
+    /**
+     * Tests that the change feed is ordered by (changeSeq, id) and resumes after a position.
+     */
+    @Test
+    void testFindChangedAfter() {
+        List<StoreView> views = storeRepository.findViewsByOwnerId(firstOwnerId);
+        Long touched = views.get(1).id();
+        storeRepository.updateDetails(touched, "Renamed", "1 New Street", null, null,
+                true, null, null, null, Instant.now());
+        long changeSeq = storeRepository.findById(touched).orElseThrow().getChangeSeq();
+        statistics.clear();
+
+        List<StoreChange> all = storeRepository.findChangedAfter(0L, 0L, Limit.of(100));
+        List<StoreChange> after = storeRepository.findChangedAfter(changeSeq, 0L, Limit.of(100));
+
+        assertEquals(OWNERS * STORES_PER_OWNER, all.size());
+        assertEquals(touched, all.get(all.size() - 1).store().id());
+        assertEquals("Renamed", all.get(all.size() - 1).store().name());
+        assertEquals(List.of(touched), after.stream().map(change -> change.store().id()).toList());
+        assertEquals(changeSeq, after.get(0).changeSeq());
+        assertNotNull(after.get(0).updatedAt());
+        assertTrue(storeRepository.findChangedAfter(changeSeq, touched, Limit.of(100)).isEmpty());
+        all.forEach(change -> assertNotNull(change.store().ownerName()));
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    /**
+     * Tests that touching an owner's stores gives them the owner's change stamp and bumps their versions.
+     */
+    @Test
+    void testTouchByOwnerId() {
+        ownerRepository.updateDetails(firstOwnerId, "Renamed Owner", "renamed@example.com", null, null,
+                Instant.now());
+        Owner owner = ownerRepository.findById(firstOwnerId).orElseThrow();
+
+        int touched = storeRepository.touchByOwnerId(firstOwnerId);
+
+        assertEquals(STORES_PER_OWNER, touched);
+        List<StoreChange> changed = storeRepository.findChangedAfter(owner.getChangeSeq(), 0L, Limit.of(100));
+        assertEquals(STORES_PER_OWNER, changed.size());
+        changed.forEach(change -> {
+            assertEquals(owner.getChangeSeq(), change.changeSeq());
+            assertEquals(1L, change.store().version());
+            assertEquals("Renamed Owner", change.store().ownerName());
+        });
+    }
+
+    /**
+     * Tests that tombstones are written with a single insert-select before stores are deleted.
+     */
+    @Test
+    void testInsertTombstones_SingleStatement() {
+        Long storeId = storeRepository.findViewsByOwnerId(firstOwnerId).get(0).id();
+        Instant now = Instant.now();
+        statistics.clear();
+
+        assertEquals(1, tombstoneRepository.insertForStore(storeId, 3L, now));
+        storeRepository.deleteStoreById(storeId);
+        assertEquals(0, tombstoneRepository.insertForStore(storeId, 4L, now));
+        assertEquals(STORES_PER_OWNER - 1, tombstoneRepository.insertForOwner(firstOwnerId, 4L, now));
+        assertEquals(4, statistics.getPrepareStatementCount());
+
+        List<StoreDeletion> tombstones = tombstoneRepository.findChangedAfter(3L, storeId, Limit.of(100));
+        assertEquals(STORES_PER_OWNER - 1, tombstones.size());
+        tombstones.forEach(tombstone -> assertEquals(firstOwnerId, tombstone.ownerId()));
+        assertEquals(STORES_PER_OWNER, tombstoneRepository.findChangedAfter(0L, 0L, Limit.of(100)).size());
+    }
+}
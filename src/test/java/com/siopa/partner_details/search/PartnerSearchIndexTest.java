@@ -0,0 +1,82 @@
+package com.siopa.partner_details.search;
+
+import com.siopa.partner_details.dto.OwnerResponse;
+import com.siopa.partner_details.dto.StoreView;
+import com.siopa.partner_details.events.ChangeType;
+import com.siopa.partner_details.events.OwnerChangedEvent;
+import com.siopa.partner_details.events.StoreChangedEvent;
+import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.models.Store;
+import com.siopa.partner_details.repositories.OwnerRepository;
+import com.siopa.partner_details.repositories.StoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PartnerSearchIndexTest {
+
+    @Mock
+    private StoreRepository storeRepository;
+
+    @Mock
+    private OwnerRepository ownerRepository;
+
+    @InjectMocks
+    private PartnerSearchIndex searchIndex;
+
+    private Owner owner;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        owner = Owner.builder().id(1L).name("John Doe").email("john.doe@example.com").build();
+        when(ownerRepository.findAllResponses()).thenReturn(List.of(OwnerResponse.of(owner)));
+        when(storeRepository.findAllViews()).thenReturn(List.of(
+                new StoreView(10L, "Tech World", "123 Tech Street", true, null, null, 1L, "John Doe")));
+        searchIndex.loadFromDatabase();
+    }
+
+    @Test
+    void testLoadFromDatabase() {
+        assertEquals(1, searchIndex.searchStores("tech", 0, 10).total());
+        assertEquals(1, searchIndex.searchOwners("jo", 0, 10).total());
+    }
+
+    @Test
+    void testStoreChanges() {
+        Store store = Store.builder().id(11L).name("Gadget Hub").address("456 Market Street").owner(owner).build();
+
+        searchIndex.onStoreChanged(new StoreChangedEvent(ChangeType.CREATED, 11L, store));
+        assertEquals(2, searchIndex.searchStores("street", 0, 10).total());
+
+        searchIndex.onStoreChanged(new StoreChangedEvent(ChangeType.DELETED, 10L, null));
+        assertEquals(List.of(11L), searchIndex.searchStores("street", 0, 10).items().stream()
+                .map(StoreView::id).toList());
+    }
+
+    @Test
+    void testOwnerRenameUpdatesStores() {
+        Owner renamed = Owner.builder().id(1L).name("Jane Roe").email("jane@example.com").build();
+
+        searchIndex.onOwnerChanged(new OwnerChangedEvent(ChangeType.UPDATED, 1L, renamed));
+
+        assertEquals(0, searchIndex.searchOwners("john", 0, 10).total());
+        assertEquals(1, searchIndex.searchOwners("roe", 0, 10).total());
+        assertEquals("Jane Roe", searchIndex.searchStores("tech", 0, 10).items().get(0).ownerName());
+    }
+
+    @Test
+    void testOwnerDeleteRemovesStores() {
+        searchIndex.onOwnerChanged(new OwnerChangedEvent(ChangeType.DELETED, 1L, null));
+
+        assertEquals(0, searchIndex.searchOwners("john", 0, 10).total());
+        assertEquals(0, searchIndex.searchStores("tech", 0, 10).total());
+    }
+}
@@ -0,0 +1,101 @@
+package com.siopa.partner_details.search;
+
+import com.siopa.partner_details.dto.SearchPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextIndexTest {
+
+    private record Doc(long id, String name, String address) {
+    }
+
+    private TextIndex<Doc> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TextIndex<>(Doc::id, doc -> Arrays.asList(doc.name(), doc.address()));
+        index.replaceAll(List.of(
+                new Doc(1, "Corner Shop", "12 Main Street"),
+                new Doc(2, "Main Street Deli", "4 Quay Road"),
+                new Doc(3, "Café Dublin", "1 Mainguard Street"),
+                new Doc(4, "Shop", null),
+                new Doc(5, "Bakery", "Remain Lane")));
+    }
+
+    private List<Long> ids(SearchPage<Doc> page) {
+        return page.items().stream().map(Doc::id).toList();
+    }
+
+    @Test
+    void testSearch_SubstringMatchesLikeContains() {
+        assertEquals(List.of(2L, 1L, 3L, 5L), ids(index.search("MAIN", 0, 10)));
+    }
+
+    @Test
+    void testSearch_RanksWholeFieldThenPrefixThenWord() {
+        assertEquals(List.of(4L, 1L), ids(index.search("shop", 0, 10)));
+    }
+
+    @Test
+    void testSearch_IgnoresAccents() {
+        assertEquals(List.of(3L), ids(index.search("cafe", 0, 10)));
+        assertEquals(List.of(3L), ids(index.search("Café", 0, 10)));
+    }
+
+    @Test
+    void testSearch_ShortQueryMatchesWordStarts() {
+        assertEquals(List.of(2L, 1L, 3L), ids(index.search("ma", 0, 10)));
+        assertTrue(index.search("ai", 0, 10).items().isEmpty());
+    }
+
+    @Test
+    void testSearch_NoMatch() {
+        SearchPage<Doc> page = index.search("pharmacy", 0, 10);
+
+        assertTrue(page.items().isEmpty());
+        assertEquals(0, page.total());
+        assertTrue(index.search("   ", 0, 10).items().isEmpty());
+    }
+
+    @Test
+    void testSearch_Pages() {
+        SearchPage<Doc> first = index.search("main", 0, 3);
+        SearchPage<Doc> last = index.search("main", 3, 3);
+
+        assertEquals(4, first.total());
+        assertEquals(3, first.nextOffset());
+        assertEquals(List.of(5L), ids(last));
+        assertNull(last.nextOffset());
+    }
+
+    @Test
+    void testPut_ReplacesOldText() {
+        index.put(new Doc(4, "Pharmacy", null));
+
+        assertEquals(List.of(1L), ids(index.search("shop", 0, 10)));
+        assertEquals(List.of(4L), ids(index.search("pharm", 0, 10)));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void testRemove() {
+        index.remove(1);
+        index.removeIf(doc -> doc.id() == 2);
+
+        assertEquals(List.of(3L, 5L), ids(index.search("main", 0, 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testUpdateIf() {
+        index.updateIf(doc -> doc.id() == 5, doc -> new Doc(doc.id(), "Bakehouse", doc.address()));
+
+        assertEquals(List.of(5L), ids(index.search("bakeh", 0, 10)));
+        assertTrue(index.search("bakery", 0, 10).items().isEmpty());
+    }
+}
@@ -0,0 +1,124 @@
+package com.siopa.partner_details.service;
+
+import com.siopa.partner_details.dto.StoreChange;
+import com.siopa.partner_details.dto.StoreChanges;
+import com.siopa.partner_details.dto.StoreDeletion;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.models.Store;
+import com.siopa.partner_details.repositories.StoreRepository;
+import com.siopa.partner_details.repositories.StoreTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ChangeFeedServiceTest {
+
+    @Mock
+    private StoreRepository storeRepository;
+
+    @Mock
+    private StoreTombstoneRepository tombstoneRepository;
+
+    private ChangeFeedService changeFeedService;
+
+    private final Owner owner = Owner.builder().id(1L).name("John Doe").build();
+
+    private final Instant settled = Instant.now().minusSeconds(60);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        changeFeedService = new ChangeFeedService(storeRepository, tombstoneRepository, Duration.ofSeconds(1));
+    }
+
+    private StoreChange store(long id, long changeSeq, Instant updatedAt) {
+        Store store = Store.builder().id(id).name("Store " + id).owner(owner).build();
+        return new StoreChange(changeSeq, updatedAt, StoreResponse.of(store));
+    }
+
+    private StoreDeletion tombstone(long storeId, long changeSeq, Instant deletedAt) {
+        return new StoreDeletion(storeId, 1L, changeSeq, deletedAt);
+    }
+
+    @Test
+    void testGetStoreChanges_MergesInSequenceOrder() {
+        when(storeRepository.findChangedAfter(0L, 0L, Limit.of(11)))
+                .thenReturn(List.of(store(4L, 1L, settled), store(2L, 3L, settled)));
+        when(tombstoneRepository.findChangedAfter(0L, 0L, Limit.of(11)))
+                .thenReturn(List.of(tombstone(7L, 2L, settled)));
+
+        StoreChanges changes = changeFeedService.getStoreChanges(null, 10);
+
+        assertEquals(List.of(4L, 2L), changes.changed().stream().map(StoreResponse::id).toList());
+        assertEquals(7L, changes.deleted().get(0).storeId());
+        assertEquals("3:2", changes.next());
+        assertFalse(changes.hasMore());
+    }
+
+    @Test
+    void testGetStoreChanges_LimitSetsHasMore() {
+        when(storeRepository.findChangedAfter(5L, 9L, Limit.of(2)))
+                .thenReturn(List.of(store(10L, 5L, settled), store(1L, 6L, settled)));
+        when(tombstoneRepository.findChangedAfter(5L, 9L, Limit.of(2))).thenReturn(List.of());
+
+        StoreChanges changes = changeFeedService.getStoreChanges("5:9", 1);
+
+        assertEquals(1, changes.changed().size());
+        assertEquals("5:10", changes.next());
+        assertTrue(changes.hasMore());
+    }
+
+    @Test
+    void testGetStoreChanges_StopsAtUnsettledChange() {
+        when(storeRepository.findChangedAfter(0L, 0L, Limit.of(11)))
+                .thenReturn(List.of(store(1L, 1L, settled), store(2L, 2L, Instant.now()), store(3L, 3L, settled)));
+        when(tombstoneRepository.findChangedAfter(0L, 0L, Limit.of(11))).thenReturn(List.of());
+
+        StoreChanges changes = changeFeedService.getStoreChanges(null, 10);
+
+        assertEquals(1, changes.changed().size());
+        assertEquals("1:1", changes.next());
+        assertFalse(changes.hasMore());
+    }
+
+    @Test
+    void testGetStoreChanges_HoldsBackChangesWithinSettleTime() {
+        changeFeedService = new ChangeFeedService(storeRepository, tombstoneRepository, Duration.ofSeconds(30));
+        when(storeRepository.findChangedAfter(0L, 0L, Limit.of(11)))
+                .thenReturn(List.of(store(1L, 1L, settled), store(2L, 2L, Instant.now().minusSeconds(5))));
+        when(tombstoneRepository.findChangedAfter(0L, 0L, Limit.of(11))).thenReturn(List.of());
+
+        StoreChanges changes = changeFeedService.getStoreChanges(null, 10);
+
+        // A write from five seconds ago may still be followed by a commit with a lower sequence
+        assertEquals(1, changes.changed().size());
+        assertEquals("1:1", changes.next());
+    }
+
+    @Test
+    void testGetStoreChanges_NoChangesKeepsToken() {
+        when(storeRepository.findChangedAfter(8L, 3L, Limit.of(11))).thenReturn(List.of());
+        when(tombstoneRepository.findChangedAfter(8L, 3L, Limit.of(11))).thenReturn(List.of());
+
+        StoreChanges changes = changeFeedService.getStoreChanges("8:3", 10);
+
+        assertTrue(changes.changed().isEmpty());
+        assertEquals("8:3", changes.next());
+    }
+
+    @Test
+    void testGetStoreChanges_InvalidToken() {
+        assertThrows(IllegalArgumentException.class, () -> changeFeedService.getStoreChanges("abc", 10));
+        verifyNoInteractions(storeRepository, tombstoneRepository);
+    }
+}
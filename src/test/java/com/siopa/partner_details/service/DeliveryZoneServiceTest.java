@@ -0,0 +1,56 @@
+package com.siopa.partner_details.service;
+
+import com.siopa.partner_details.dto.NearbyStore;
+import com.siopa.partner_details.dto.ServingZone;
+import com.siopa.partner_details.geo.DeliveryZone;
+import com.siopa.partner_details.geo.DeliveryZoneIndex;
+import com.siopa.partner_details.geo.StoreLocation;
+import com.siopa.partner_details.geo.StoreLocationIndex;
+import com.vividsolutions.jts.io.WKTReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeliveryZoneServiceTest {
+
+    private DeliveryZoneService deliveryZoneService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DeliveryZoneIndex zoneIndex = new DeliveryZoneIndex(path -> List.of(), "");
+        zoneIndex.replaceAll(List.of(new DeliveryZone("dublin", "Dublin",
+                new WKTReader().read("POLYGON((-6.5 53.2, -6.0 53.2, -6.0 53.5, -6.5 53.5, -6.5 53.2))"))));
+
+        StoreLocationIndex storeIndex = new StoreLocationIndex(null);
+        storeIndex.replaceAll(List.of(
+                new StoreLocation(1L, 1L, "Inside", 53.35, -6.26, true),
+                new StoreLocation(2L, 1L, "Inside Closed", 53.36, -6.25, false),
+                new StoreLocation(3L, 2L, "Inside Far", 53.45, -6.10, true),
+                new StoreLocation(4L, 2L, "Outside", 53.60, -6.26, true)));
+
+        deliveryZoneService = new DeliveryZoneService(zoneIndex, storeIndex);
+    }
+
+    /**
+     * Tests that a point resolves to its zone and the active stores inside it.
+     */
+    @Test
+    void testFindServingZones() {
+        List<ServingZone> zones = deliveryZoneService.findServingZones(53.34, -6.27);
+
+        assertEquals(1, zones.size());
+        assertEquals("dublin", zones.get(0).zoneId());
+        assertEquals(List.of(1L, 3L), zones.get(0).stores().stream().map(NearbyStore::storeId).toList());
+    }
+
+    /**
+     * Tests that a point outside every zone is not served.
+     */
+    @Test
+    void testFindServingZones_NoZone() {
+        assertTrue(deliveryZoneService.findServingZones(51.9, -8.47).isEmpty());
+    }
+}
@@ -1,12 +1,34 @@
 package com.siopa.partner_details.service;
 
+import com.siopa.partner_details.config.CacheConfig;
+import com.siopa.partner_details.dto.BatchResult;
+import com.siopa.partner_details.dto.CursorPage;
+import com.siopa.partner_details.dto.OwnerResponse;
+import com.siopa.partner_details.dto.OwnerSummary;
+import com.siopa.partner_details.dto.OwnerWithStores;
+import com.siopa.partner_details.dto.StoreView;
+import com.siopa.partner_details.events.ChangeType;
+import com.siopa.partner_details.events.OwnerChangedEvent;
+import com.siopa.partner_details.exceptions.PreconditionFailedException;
+import com.siopa.partner_details.exceptions.ResourceNotFoundException;
 import com.siopa.partner_details.models.Owner;
 import com.siopa.partner_details.repositories.OwnerRepository;
+import com.siopa.partner_details.repositories.StoreRepository;
+import com.siopa.partner_details.repositories.StoreTombstoneRepository;
+import com.siopa.partner_details.search.PartnerSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.util.Arrays;
 import java.util.List;
@@ -20,6 +42,27 @@ class OwnerServiceTest {
     @Mock
     private OwnerRepository ownerRepository;
 
+    @Mock
+    private StoreRepository storeRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.OWNERS);
+
+    @Mock
+    private ChangeSequence changeSequence;
+
+    @Mock
+    private StoreTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private PartnerSearchIndex searchIndex;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private OwnerService ownerService;
 
@@ -29,6 +72,7 @@ class OwnerServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(changeSequence.next()).thenReturn(1L);
         owner1 = Owner.builder()
                 .id(1L)
                 .name("John Doe")
@@ -49,13 +93,84 @@ class OwnerServiceTest {
      */
     @Test
     void testGetAllOwners() {
-        List<Owner> owners = Arrays.asList(owner1, owner2);
-        when(ownerRepository.findAll()).thenReturn(owners);
+        List<OwnerResponse> owners = Arrays.asList(OwnerResponse.of(owner1), OwnerResponse.of(owner2));
+        when(ownerRepository.findAllResponses()).thenReturn(owners);
 
-        List<Owner> result = ownerService.getAllOwners();
+        List<OwnerResponse> result = ownerService.getAllOwners();
 
         assertEquals(2, result.size());
-        verify(ownerRepository, times(1)).findAll();
+        verify(ownerRepository, times(1)).findAllResponses();
+        verify(ownerRepository, never()).findAll();
+    }
+
+    /**
+     * Tests keyset pagination of owners.
+     */
+    @Test
+    void testGetOwnersPage() {
+        when(ownerRepository.findResponsesAfter(0L, Limit.of(2)))
+                .thenReturn(Arrays.asList(OwnerResponse.of(owner1), OwnerResponse.of(owner2)));
+
+        CursorPage<OwnerResponse> page = ownerService.getOwnersPage(null, 1);
+
+        assertEquals(List.of(OwnerResponse.of(owner1)), page.items());
+        assertEquals(owner1.getId(), page.nextCursor());
+    }
+
+    private OwnerSummary summary(long id, long active, long inactive) {
+        return new OwnerSummary(id, "Owner " + id, "owner" + id + "@example.com", null, 0L, active, inactive);
+    }
+
+    private StoreView storeView(long id, long ownerId) {
+        return new StoreView(id, "Store " + id, null, true, null, null, ownerId, "Owner " + ownerId);
+    }
+
+    /**
+     * Tests that an owner is returned with its counts and stores.
+     */
+    @Test
+    void testGetOwnerWithStores() {
+        when(ownerRepository.findSummaryById(1L)).thenReturn(Optional.of(summary(1L, 1L, 1L)));
+        when(storeRepository.findViewsByOwnerId(1L)).thenReturn(List.of(storeView(10L, 1L), storeView(11L, 1L)));
+
+        OwnerWithStores result = ownerService.getOwnerWithStores(1L).orElseThrow();
+
+        assertEquals(1L, result.owner().activeStores());
+        assertEquals(2, result.stores().size());
+    }
+
+    /**
+     * Tests that stores are not read for an owner with none or with too many to embed.
+     */
+    @Test
+    void testGetOwnerWithStores_CountsOnly() {
+        when(ownerRepository.findSummaryById(1L)).thenReturn(Optional.of(summary(1L, 0L, 0L)));
+        when(ownerRepository.findSummaryById(2L))
+                .thenReturn(Optional.of(summary(2L, OwnerService.MAX_EMBEDDED_STORES, 1L)));
+
+        assertEquals(List.of(), ownerService.getOwnerWithStores(1L).orElseThrow().stores());
+        assertNull(ownerService.getOwnerWithStores(2L).orElseThrow().stores());
+        assertTrue(ownerService.getOwnerWithStores(3L).isEmpty());
+        verifyNoInteractions(storeRepository);
+    }
+
+    /**
+     * Tests that the stores of a page of owners are read in one query.
+     */
+    @Test
+    void testGetOwnersWithStoresPage() {
+        when(ownerRepository.findSummariesAfter(0L, Limit.of(3))).thenReturn(List.of(
+                summary(1L, 2L, 0L), summary(2L, 0L, 0L), summary(3L, 1L, 0L)));
+        when(storeRepository.findViewsByOwnerIdIn(List.of(1L)))
+                .thenReturn(List.of(storeView(10L, 1L), storeView(11L, 1L)));
+
+        CursorPage<OwnerWithStores> page = ownerService.getOwnersWithStoresPage(null, 2);
+
+        assertEquals(2, page.items().size());
+        assertEquals(2, page.items().get(0).stores().size());
+        assertEquals(List.of(), page.items().get(1).stores());
+        assertEquals(2L, page.nextCursor());
+        verify(storeRepository, times(1)).findViewsByOwnerIdIn(any());
     }
 
     /**
@@ -63,13 +178,13 @@ class OwnerServiceTest {
      */
     @Test
     void testGetOwnerById_Found() {
-        when(ownerRepository.findById(1L)).thenReturn(Optional.of(owner1));
+        when(ownerRepository.findResponseById(1L)).thenReturn(Optional.of(OwnerResponse.of(owner1)));
 
-        Optional<Owner> result = ownerService.getOwnerById(1L);
+        Optional<OwnerResponse> result = ownerService.getOwnerById(1L);
 
         assertTrue(result.isPresent());
-        assertEquals(owner1.getName(), result.get().getName());
-        verify(ownerRepository, times(1)).findById(1L);
+        assertEquals(owner1.getName(), result.get().name());
+        verify(ownerRepository, times(1)).findResponseById(1L);
     }
 
     /**
@@ -77,12 +192,12 @@ class OwnerServiceTest {
      */
     @Test
     void testGetOwnerById_NotFound() {
-        when(ownerRepository.findById(3L)).thenReturn(Optional.empty());
+        when(ownerRepository.findResponseById(3L)).thenReturn(Optional.empty());
 
-        Optional<Owner> result = ownerService.getOwnerById(3L);
+        Optional<OwnerResponse> result = ownerService.getOwnerById(3L);
 
         assertFalse(result.isPresent());
-        verify(ownerRepository, times(1)).findById(3L);
+        verify(ownerRepository, times(1)).findResponseById(3L);
     }
 
     /**
@@ -92,10 +207,10 @@ class OwnerServiceTest {
     void testCreateOwner() {
         when(ownerRepository.save(owner1)).thenReturn(owner1);
 
-        Owner createdOwner = ownerService.createOwner(owner1);
+        OwnerResponse createdOwner = ownerService.createOwner(owner1);
 
-        assertEquals(owner1.getId(), createdOwner.getId());
-        assertEquals(owner1.getEmail(), createdOwner.getEmail());
+        assertEquals(owner1.getId(), createdOwner.id());
+        assertEquals(owner1.getEmail(), createdOwner.email());
         verify(ownerRepository, times(1)).save(owner1);
     }
 
@@ -110,16 +225,31 @@ class OwnerServiceTest {
                 .phoneNumber("1111111111")
                 .build();
 
-        when(ownerRepository.findById(1L)).thenReturn(Optional.of(owner1));
-        when(ownerRepository.save(any(Owner.class))).thenAnswer(i -> i.getArgument(0));
-
-        Owner updatedOwner = ownerService.updateOwner(1L, updatedData);
-
-        assertEquals("John Updated", updatedOwner.getName());
-        assertEquals("john.updated@example.com", updatedOwner.getEmail());
-        assertEquals("1111111111", updatedOwner.getPhoneNumber());
-        verify(ownerRepository, times(1)).findById(1L);
-        verify(ownerRepository, times(1)).save(owner1);
+        when(ownerRepository.updateDetails(eq(1L), eq("John Updated"), eq("john.updated@example.com"), eq("1111111111"),
+                isNull(), any()))
+                .thenReturn(1);
+        when(ownerRepository.findById(1L)).thenReturn(Optional.of(Owner.builder().id(1L).name("John Updated")
+                .email("john.updated@example.com").phoneNumber("1111111111").version(5L).changeSeq(8L).build()));
+
+        OwnerResponse updatedOwner = ownerService.updateOwner(1L, updatedData, null);
+
+        assertEquals(1L, updatedOwner.id());
+        assertEquals(5L, updatedOwner.version());
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof OwnerChangedEvent changed && changed.owner().getChangeSeq() == 8L));
+        verify(storeRepository, times(1)).touchByOwnerId(1L);
+        assertEquals("John Updated", updatedOwner.name());
+        assertEquals("john.updated@example.com", updatedOwner.email());
+        assertEquals("1111111111", updatedOwner.phoneNumber());
+        verify(ownerRepository, times(1)).updateDetails(eq(1L), eq("John Updated"), eq("john.updated@example.com"), eq("1111111111"),
+                isNull(), any());
+        verify(ownerRepository, never()).save(any(Owner.class));
+        // The update stamps the change itself; the stores copy the stamp, then the owner is read back
+        verify(changeSequence, never()).next();
+        InOrder order = inOrder(ownerRepository, storeRepository);
+        order.verify(ownerRepository).updateDetails(eq(1L), any(), any(), any(), isNull(), any());
+        order.verify(storeRepository).touchByOwnerId(1L);
+        order.verify(ownerRepository).findById(1L);
     }
 
     /**
@@ -133,14 +263,81 @@ class OwnerServiceTest {
                 .phoneNumber("1111111111")
                 .build();
 
-        when(ownerRepository.findById(1L)).thenReturn(Optional.empty());
+        when(ownerRepository.updateDetails(anyLong(), any(), any(), any(), any(), any())).thenReturn(0);
 
-        Exception exception = assertThrows(RuntimeException.class, () ->
-                ownerService.updateOwner(1L, updatedData));
+        Exception exception = assertThrows(ResourceNotFoundException.class, () ->
+                ownerService.updateOwner(1L, updatedData, null));
 
         assertEquals("Owner not found with ID: 1", exception.getMessage());
-        verify(ownerRepository, times(1)).findById(1L);
-        verify(ownerRepository, never()).save(any(Owner.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    /**
+     * Tests that a conditional update at the current version returns the next version.
+     */
+    @Test
+    void testUpdateOwner_IfMatch() {
+        when(ownerRepository.updateDetails(eq(1L), eq("John Doe"), eq("john.doe@example.com"), eq("1234567890"),
+                eq(2L), any())).thenReturn(1);
+        owner1.setVersion(3L);
+        when(ownerRepository.findById(1L)).thenReturn(Optional.of(owner1));
+
+        OwnerResponse updatedOwner = ownerService.updateOwner(1L, owner1, 2L);
+
+        assertEquals(3L, updatedOwner.version());
+        verify(ownerRepository, never()).existsById(anyLong());
+    }
+
+    /**
+     * Tests that a conditional update of a modified owner is rejected.
+     */
+    @Test
+    void testUpdateOwner_VersionMismatch() {
+        when(ownerRepository.updateDetails(anyLong(), any(), any(), any(), eq(2L), any())).thenReturn(0);
+        when(ownerRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class, () -> ownerService.updateOwner(1L, owner1, 2L));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    /**
+     * Tests that a batch lookup only queries cache misses, once each, and answers
+     * every requested position, including repeats and unknown IDs.
+     */
+    @Test
+    void testGetOwnersByIds_PartiallyCached() {
+        cacheManager.getCache(CacheConfig.OWNERS).put(1L, OwnerResponse.of(owner1));
+        when(ownerRepository.findResponsesByIdIn(List.of(9L, 2L))).thenReturn(List.of(OwnerResponse.of(owner2)));
+
+        BatchResult<OwnerResponse> result = ownerService.getOwnersByIds(List.of(9L, 2L, 1L, 2L, 9L));
+
+        assertEquals(Arrays.asList(null, OwnerResponse.of(owner2), OwnerResponse.of(owner1),
+                OwnerResponse.of(owner2), null), result.items());
+        assertEquals(List.of(9L), result.missing());
+        verify(ownerRepository, times(1)).findResponsesByIdIn(any());
+    }
+
+    /**
+     * Tests that an owner's version is answered from the cache when present.
+     */
+    @Test
+    void testGetOwnerVersion_Cached() {
+        owner1.setVersion(7L);
+        cacheManager.getCache(CacheConfig.OWNERS).put(1L, OwnerResponse.of(owner1));
+
+        assertEquals(Optional.of(7L), ownerService.getOwnerVersion(1L));
+        verify(ownerRepository, never()).findVersionById(anyLong());
+    }
+
+    /**
+     * Tests that an uncached owner's version is read with a version-only query.
+     */
+    @Test
+    void testGetOwnerVersion_NotCached() {
+        when(ownerRepository.findVersionById(2L)).thenReturn(Optional.of(1L));
+
+        assertEquals(Optional.of(1L), ownerService.getOwnerVersion(2L));
+        verify(ownerRepository, never()).findResponseById(anyLong());
     }
 
     /**
@@ -148,13 +345,17 @@ class OwnerServiceTest {
      */
     @Test
     void testDeleteOwner_Found() {
-        when(ownerRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(ownerRepository).deleteById(1L);
+        when(tombstoneRepository.insertForOwner(eq(1L), eq(1L), any())).thenReturn(2);
+        when(storeRepository.deleteAllByOwnerId(1L)).thenReturn(2);
+        when(ownerRepository.deleteOwnerById(1L)).thenReturn(1);
 
         ownerService.deleteOwner(1L);
 
-        verify(ownerRepository, times(1)).existsById(1L);
-        verify(ownerRepository, times(1)).deleteById(1L);
+        verify(tombstoneRepository, times(1)).insertForOwner(eq(1L), eq(1L), any());
+        verify(storeRepository, times(1)).deleteAllByOwnerId(1L);
+        verify(ownerRepository, times(1)).deleteOwnerById(1L);
+        verify(ownerRepository, never()).existsById(anyLong());
+        verify(eventPublisher, times(1)).publishEvent(new OwnerChangedEvent(ChangeType.DELETED, 1L, null));
     }
 
     /**
@@ -162,13 +363,13 @@ class OwnerServiceTest {
      */
     @Test
     void testDeleteOwner_NotFound() {
-        when(ownerRepository.existsById(3L)).thenReturn(false);
+        when(ownerRepository.deleteOwnerById(3L)).thenReturn(0);
 
-        Exception exception = assertThrows(RuntimeException.class, () ->
+        Exception exception = assertThrows(ResourceNotFoundException.class, () ->
                 ownerService.deleteOwner(3L));
 
         assertEquals("Owner not found with ID: 3", exception.getMessage());
-        verify(ownerRepository, times(1)).existsById(3L);
-        verify(ownerRepository, never()).deleteById(anyLong());
+        verify(ownerRepository, times(1)).deleteOwnerById(3L);
+        verify(eventPublisher, never()).publishEvent(any());
     }
 }
\ No newline at end of file
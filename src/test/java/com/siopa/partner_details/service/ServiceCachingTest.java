@@ -0,0 +1,157 @@
+package com.siopa.partner_details.service;
+
+import com.siopa.partner_details.dto.OwnerResponse;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.models.Store;
+import com.siopa.partner_details.repositories.OwnerRepository;
+import com.siopa.partner_details.repositories.StoreRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the read-through caches in front of the owner and store services.
+ */
+@SpringBootTest
+class ServiceCachingTest {
+
+    @MockitoBean
+    private OwnerRepository ownerRepository;
+
+    @MockitoBean
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private OwnerService ownerService;
+
+    @Autowired
+    private StoreService storeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Owner owner;
+    private Store store;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        owner = Owner.builder()
+                .id(1L)
+                .name("John Doe")
+                .email("john.doe@example.com")
+                .build();
+
+        store = Store.builder()
+                .id(10L)
+                .name("Store One")
+                .address("123 Main St")
+                .isActive(true)
+                .owner(owner)
+                .build();
+    }
+
+    /**
+     * Tests that repeated owner reads are served from the cache.
+     */
+    @Test
+    void testGetOwnerById_Cached() {
+        when(ownerRepository.findResponseById(1L)).thenReturn(Optional.of(OwnerResponse.of(owner)));
+
+        ownerService.getOwnerById(1L);
+        Optional<OwnerResponse> result = ownerService.getOwnerById(1L);
+
+        assertEquals("John Doe", result.orElseThrow().name());
+        verify(ownerRepository, times(1)).findResponseById(1L);
+    }
+
+    /**
+     * Tests that repeated store reads are served from the cache.
+     */
+    @Test
+    void testGetStoreById_Cached() {
+        when(storeRepository.findResponseById(10L)).thenReturn(Optional.of(StoreResponse.of(store)));
+
+        storeService.getStoreById(10L);
+        storeService.getStoreById(10L);
+
+        verify(storeRepository, times(1)).findResponseById(10L);
+    }
+
+    /**
+     * Tests that updating a store refreshes it and invalidates its owner's store list.
+     */
+    @Test
+    void testUpdateStore_EvictsOwnerStores() {
+        when(storeRepository.findResponsesByOwnerId(1L)).thenReturn(List.of(StoreResponse.of(store)));
+        when(storeRepository.updateDetails(eq(10L), any(), any(), any(), any(), anyBoolean(), any(), any(), any(), any()))
+                .thenReturn(1);
+        when(storeRepository.findById(10L)).thenAnswer(i -> {
+            store.setName("Store Renamed");
+            return Optional.of(store);
+        });
+
+        storeService.getStoresByOwnerId(1L);
+        storeService.updateStore(10L, Store.builder()
+                .name("Store Renamed")
+                .address("123 Main St")
+                .isActive(false)
+                .build(), null);
+        storeService.getStoresByOwnerId(1L);
+        Optional<StoreResponse> cached = storeService.getStoreById(10L);
+
+        verify(storeRepository, times(2)).findResponsesByOwnerId(1L);
+        // The update reads the store back and caches it, so the later read is a cache hit
+        verify(storeRepository, never()).findResponseById(10L);
+        assertEquals("Store Renamed", cached.orElseThrow().name());
+    }
+
+    /**
+     * Tests that deleting an owner evicts the owner and their stores.
+     */
+    @Test
+    void testDeleteOwner_Evicts() {
+        when(ownerRepository.findResponseById(1L)).thenReturn(Optional.of(OwnerResponse.of(owner)));
+        when(ownerRepository.deleteOwnerById(1L)).thenReturn(1);
+        when(storeRepository.findResponseById(10L)).thenReturn(Optional.of(StoreResponse.of(store)));
+
+        ownerService.getOwnerById(1L);
+        storeService.getStoreById(10L);
+        ownerService.deleteOwner(1L);
+        ownerService.getOwnerById(1L);
+        storeService.getStoreById(10L);
+
+        verify(ownerRepository, times(2)).findResponseById(1L);
+        verify(storeRepository, times(2)).findResponseById(10L);
+    }
+
+    /**
+     * Tests that cache statistics are exposed as metrics.
+     */
+    @Test
+    void testCacheMetricsExposed() {
+        when(storeRepository.findResponseById(10L)).thenReturn(Optional.of(StoreResponse.of(store)));
+
+        storeService.getStoreById(10L);
+        storeService.getStoreById(10L);
+
+        assertNotNull(meterRegistry.find("cache.gets").tags("cache", "stores", "result", "hit").functionCounter());
+        assertNotNull(meterRegistry.find("cache.gets").tags("cache", "stores", "result", "miss").functionCounter());
+        assertNotNull(meterRegistry.find("cache.evictions").tags("cache", "stores").functionCounter());
+    }
+}
@@ -0,0 +1,139 @@
+package com.siopa.partner_details.service;
+
+import com.siopa.partner_details.config.CacheConfig;
+import com.siopa.partner_details.dto.OwnerResponse;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.models.Store;
+import com.siopa.partner_details.repositories.StoreRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests that callers waiting on a shared load do not hold database connections.
+ */
+@SpringBootTest
+class SingleFlightConnectionTest {
+
+    private static final int CALLERS = 8;
+
+    @MockitoSpyBean
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private StoreService storeService;
+
+    @Autowired
+    private OwnerService ownerService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private StoreResponse store;
+
+    @BeforeEach
+    void setUp() {
+        OwnerResponse owner = ownerService.createOwner(Owner.builder().name("Hot Owner").email("hot@example.com").build());
+        store = storeService.createStore(
+                Store.builder().name("Hot Store " + System.nanoTime()).address("1 Busy Street").isActive(true).build(),
+                owner.id());
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    private long connectionsAcquired() {
+        return meterRegistry.find("hikaricp.connections.acquire").timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    private double followers(String name) {
+        Counter counter = meterRegistry.find("partner.singleflight.calls").tags("name", name, "role", "follower").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    /**
+     * Runs concurrent callers while the leader's query, inside its transaction, is held back
+     * until every other caller is waiting.
+     * @return The number of connections acquired.
+     */
+    private <T> long connectionsFor(String name, Supplier<T> call) throws Exception {
+        double followersBefore = followers(name);
+        long acquiredBefore = connectionsAcquired();
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<T>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(call::get));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (followers(name) - followersBefore < CALLERS - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<T> result : results) {
+                assertNotNull(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(CALLERS - 1, followers(name) - followersBefore);
+        return connectionsAcquired() - acquiredBefore;
+    }
+
+    /**
+     * Tests that concurrent misses for one store run one query on one connection.
+     */
+    @Test
+    void testGetStoreById_OneConnection() throws Exception {
+        doAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Optional.of(store);
+        }).when(storeRepository).findResponseById(anyLong());
+
+        long connections = connectionsFor(CacheConfig.STORES, () -> storeService.getStoreById(store.id()));
+
+        assertEquals(1, connections);
+        verify(storeRepository, times(1)).findResponseById(store.id());
+    }
+
+    /**
+     * Tests that concurrent misses for one owner's stores run one query on one connection.
+     */
+    @Test
+    void testGetStoresByOwnerId_OneConnection() throws Exception {
+        doAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return List.of(store);
+        }).when(storeRepository).findResponsesByOwnerId(anyLong());
+
+        long connections = connectionsFor(CacheConfig.STORES_BY_OWNER,
+                () -> storeService.getStoresByOwnerId(store.ownerId()));
+
+        assertEquals(1, connections);
+        verify(storeRepository, times(1)).findResponsesByOwnerId(store.ownerId());
+    }
+}
@@ -0,0 +1,106 @@
+package com.siopa.partner_details.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private double calls(String role) {
+        return meterRegistry.get("partner.singleflight.calls").tag("role", role).counter().count();
+    }
+
+    /**
+     * Blocks the leader's load until followers have joined it.
+     */
+    private Future<String> startLeader(CountDownLatch started, CountDownLatch release, AtomicInteger loads,
+                                       RuntimeException failure) {
+        return executor.submit(() -> singleFlight.load(1L, () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return "loaded";
+        }));
+    }
+
+    private void awaitFollowers(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (calls("follower") < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void testLoad_ConcurrentCallsShareOneLoad() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        Future<String> leader = startLeader(started, release, loads, null);
+        started.await(5, TimeUnit.SECONDS);
+        Future<String> first = executor.submit(() -> singleFlight.load(1L, () -> "duplicate"));
+        Future<String> second = executor.submit(() -> singleFlight.load(1L, () -> "duplicate"));
+        awaitFollowers(2);
+        release.countDown();
+
+        assertEquals("loaded", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("loaded", first.get(5, TimeUnit.SECONDS));
+        assertEquals("loaded", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(1.0, calls("leader"));
+        assertEquals(2.0, calls("follower"));
+    }
+
+    @Test
+    void testLoad_FollowersSeeLeaderFailure() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("database down");
+
+        startLeader(started, release, new AtomicInteger(), failure);
+        started.await(5, TimeUnit.SECONDS);
+        Future<String> follower = executor.submit(() -> singleFlight.load(1L, () -> "duplicate"));
+        awaitFollowers(1);
+        release.countDown();
+
+        Exception thrown = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertSame(failure, thrown.getCause());
+    }
+
+    @Test
+    void testLoad_SequentialCallsEachLoad() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.load(1L, () -> "a" + loads.incrementAndGet());
+        String second = singleFlight.load(1L, () -> "a" + loads.incrementAndGet());
+
+        assertEquals("a2", second);
+        assertEquals(0.0, calls("follower"));
+    }
+}
@@ -1,16 +1,46 @@
 package com.siopa.partner_details.service;
 
+import com.siopa.partner_details.config.CacheConfig;
+import com.siopa.partner_details.dto.BatchResult;
+import com.siopa.partner_details.dto.BulkImportResult;
+import com.siopa.partner_details.dto.CollectionVersion;
+import com.siopa.partner_details.dto.CursorPage;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.dto.StoreView;
+import com.siopa.partner_details.events.ChangeType;
+import com.siopa.partner_details.events.StoreChangedEvent;
+import com.siopa.partner_details.exceptions.PreconditionFailedException;
+import com.siopa.partner_details.exceptions.ResourceNotFoundException;
+import com.siopa.partner_details.geo.StoreLocationIndex;
 import com.siopa.partner_details.models.Owner;
 import com.siopa.partner_details.models.Store;
 import com.siopa.partner_details.repositories.OwnerRepository;
 import com.siopa.partner_details.repositories.StoreRepository;
+import com.siopa.partner_details.repositories.StoreTombstoneRepository;
+import com.siopa.partner_details.search.PartnerSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-
+import org.mockito.Spy;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,16 +55,43 @@ class StoreServiceTest {
     @Mock
     private OwnerRepository ownerRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private StoreLocationIndex storeLocationIndex;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.STORES);
+
+    @Mock
+    private ChangeSequence changeSequence;
+
+    @Mock
+    private StoreTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private PartnerSearchIndex searchIndex;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private StoreService storeService;
 
     private Owner owner;
     private Store store1;
     private Store store2;
+    private StoreResponse response1;
+    private StoreResponse response2;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(changeSequence.next()).thenReturn(1L);
 
         owner = Owner.builder()
                 .id(1L)
@@ -62,6 +119,9 @@ class StoreServiceTest {
                 .isActive(true)
                 .owner(owner)
                 .build();
+
+        response1 = StoreResponse.of(store1);
+        response2 = StoreResponse.of(store2);
     }
 
     /**
@@ -69,13 +129,56 @@ class StoreServiceTest {
      */
     @Test
     void testGetAllStores() {
-        List<Store> stores = Arrays.asList(store1, store2);
-        when(storeRepository.findAll()).thenReturn(stores);
+        when(storeRepository.findAllResponses()).thenReturn(Arrays.asList(response1, response2));
 
-        List<Store> result = storeService.getAllStores();
+        List<StoreResponse> result = storeService.getAllStores();
 
         assertEquals(2, result.size());
-        verify(storeRepository, times(1)).findAll();
+        verify(storeRepository, times(1)).findAllResponses();
+        verify(storeRepository, never()).findAll();
+    }
+
+    /**
+     * Tests keyset pagination when more stores remain after the page.
+     */
+    @Test
+    void testGetStoresPage_HasNext() {
+        when(storeRepository.findResponsesAfter(0L, Limit.of(2)))
+                .thenReturn(Arrays.asList(response1, response2));
+
+        CursorPage<StoreResponse> page = storeService.getStoresPage(null, 1);
+
+        assertEquals(List.of(response1), page.items());
+        assertEquals(store1.getId(), page.nextCursor());
+    }
+
+    /**
+     * Tests keyset pagination on the last page.
+     */
+    @Test
+    void testGetStoresPage_LastPage() {
+        when(storeRepository.findResponsesAfter(1L, Limit.of(11)))
+                .thenReturn(List.of(response2));
+
+        CursorPage<StoreResponse> page = storeService.getStoresPage(1L, 10);
+
+        assertEquals(List.of(response2), page.items());
+        assertNull(page.nextCursor());
+    }
+
+    /**
+     * Tests that active store views are paged after the cursor.
+     */
+    @Test
+    void testGetActiveStoreViewsPage() {
+        StoreView view = new StoreView(2L, "Store Two", "456 Side St", true,
+                null, null, owner.getId(), owner.getName());
+        when(storeRepository.findActiveViewsAfter(1L, Limit.of(11))).thenReturn(List.of(view));
+
+        CursorPage<StoreView> page = storeService.getActiveStoreViewsPage(1L, 10);
+
+        assertEquals(List.of(view), page.items());
+        assertNull(page.nextCursor());
     }
 
     /**
@@ -83,13 +186,15 @@ class StoreServiceTest {
      */
     @Test
     void testGetStoreById_Found() {
-        when(storeRepository.findById(1L)).thenReturn(Optional.of(store1));
+        when(storeRepository.findResponseById(1L)).thenReturn(Optional.of(response1));
 
-        Optional<Store> result = storeService.getStoreById(1L);
+        Optional<StoreResponse> result = storeService.getStoreById(1L);
 
         assertTrue(result.isPresent());
-        assertEquals(store1.getName(), result.get().getName());
-        verify(storeRepository, times(1)).findById(1L);
+        assertEquals(store1.getName(), result.get().name());
+        assertEquals("John Doe", result.get().ownerName());
+        verify(storeRepository, times(1)).findResponseById(1L);
+        verify(storeRepository, never()).findById(anyLong());
     }
 
     /**
@@ -97,12 +202,12 @@ class StoreServiceTest {
      */
     @Test
     void testGetStoreById_NotFound() {
-        when(storeRepository.findById(99L)).thenReturn(Optional.empty());
+        when(storeRepository.findResponseById(99L)).thenReturn(Optional.empty());
 
-        Optional<Store> result = storeService.getStoreById(99L);
+        Optional<StoreResponse> result = storeService.getStoreById(99L);
 
         assertFalse(result.isPresent());
-        verify(storeRepository, times(1)).findById(99L);
+        verify(storeRepository, times(1)).findResponseById(99L);
     }
 
     /**
@@ -110,13 +215,29 @@ class StoreServiceTest {
      */
     @Test
     void testGetStoresByOwnerId() {
-        List<Store> stores = Arrays.asList(store1, store2);
-        when(storeRepository.findByOwnerId(owner.getId())).thenReturn(stores);
+        when(storeRepository.findResponsesByOwnerId(owner.getId())).thenReturn(Arrays.asList(response1, response2));
 
-        List<Store> result = storeService.getStoresByOwnerId(owner.getId());
+        List<StoreResponse> result = storeService.getStoresByOwnerId(owner.getId());
 
         assertEquals(2, result.size());
-        verify(storeRepository, times(1)).findByOwnerId(owner.getId());
+        verify(storeRepository, times(1)).findResponsesByOwnerId(owner.getId());
+    }
+
+    /**
+     * Tests retrieving an owner's stores as lean views.
+     */
+    @Test
+    void testGetStoreViewsByOwnerId() {
+        StoreView view = new StoreView(1L, "Store One", "123 Main St", true,
+                "1111111111", "storeone@example.com", owner.getId(), owner.getName());
+        when(storeRepository.findViewsByOwnerId(owner.getId())).thenReturn(List.of(view));
+
+        List<StoreView> result = storeService.getStoreViewsByOwnerId(owner.getId());
+
+        assertEquals(1, result.size());
+        assertEquals("John Doe", result.get(0).ownerName());
+        verify(storeRepository, times(1)).findViewsByOwnerId(owner.getId());
+        verify(storeRepository, never()).findByOwnerId(anyLong());
     }
 
     /**
@@ -139,12 +260,14 @@ class StoreServiceTest {
             return s;
         });
 
-        Store createdStore = storeService.createStore(newStore, owner.getId());
+        StoreResponse createdStore = storeService.createStore(newStore, owner.getId());
 
-        assertNotNull(createdStore.getId());
-        assertEquals(owner, createdStore.getOwner());
+        assertEquals(3L, createdStore.id());
+        assertEquals(owner.getId(), createdStore.ownerId());
+        assertEquals(owner, newStore.getOwner());
         verify(ownerRepository, times(1)).findById(owner.getId());
         verify(storeRepository, times(1)).save(newStore);
+        verify(eventPublisher, times(1)).publishEvent(new StoreChangedEvent(ChangeType.CREATED, 3L, newStore));
     }
 
     /**
@@ -171,6 +294,119 @@ class StoreServiceTest {
         verify(storeRepository, never()).save(any(Store.class));
     }
 
+    /**
+     * Tests that a bulk import creates valid rows and reports the invalid ones.
+     */
+    @Test
+    void testCreateStores_ReportsInvalidRows() {
+        Store valid = Store.builder().name("Bulk One").address("1 Bulk Street").isActive(true).build();
+        Store blankName = Store.builder().name("").address("2 Bulk Street").isActive(true).build();
+        Store duplicate = Store.builder().name("Bulk One").address("3 Bulk Street").isActive(true).build();
+        Store taken = Store.builder().name("Store One").address("4 Bulk Street").isActive(true).build();
+        Store longPhone = Store.builder().name("Bulk Five").address("5 Bulk Street").isActive(true)
+                .phoneNumber("0871234567890123").build();
+        Store badEmail = Store.builder().name("Bulk Six").address("6 Bulk Street").isActive(true)
+                .email("not-an-email").build();
+
+        when(ownerRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(storeRepository.findExistingNames(anyCollection())).thenReturn(List.of("Store One"));
+        when(storeRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Store> batch = invocation.getArgument(0);
+            batch.forEach(s -> s.setId(100L));
+            return batch;
+        });
+
+        BulkImportResult result = storeService.createStores(
+                Arrays.asList(valid, blankName, duplicate, taken, longPhone, badEmail), owner.getId());
+
+        assertEquals(6, result.received());
+        assertEquals(1, result.created());
+        assertEquals(List.of(100L), result.createdIds());
+        assertEquals(owner, valid.getOwner());
+        assertEquals(List.of(2, 3, 4, 5, 6),
+                result.errors().stream().map(BulkImportResult.RowError::row).distinct().toList());
+        assertTrue(result.errors().stream().anyMatch(error -> error.row() == 5 && error.field().equals("phoneNumber")));
+        assertTrue(result.errors().stream().anyMatch(error -> error.row() == 6 && error.field().equals("email")));
+        verify(ownerRepository, times(1)).findById(owner.getId());
+        verify(storeRepository, times(1)).saveAllAndFlush(List.of(valid));
+    }
+
+    /**
+     * Tests that bulk inserts are flushed in batches.
+     */
+    @Test
+    void testCreateStores_InsertsInBatches() {
+        List<Store> rows = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            rows.add(Store.builder().name("Bulk " + i).address(i + " Bulk Street").isActive(true).build());
+        }
+        when(ownerRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(storeRepository.findExistingNames(anyCollection())).thenReturn(List.of());
+        when(storeRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(changeSequence.next()).thenReturn(1L, 2L, 3L);
+
+        BulkImportResult result = storeService.createStores(rows, owner.getId());
+
+        assertEquals(120, result.created());
+        assertTrue(result.errors().isEmpty());
+        verify(storeRepository, times(3)).saveAllAndFlush(anyList());
+        // Each batch is stamped with its own sequence value, taken just before it is written
+        assertEquals(1L, rows.get(0).getChangeSeq());
+        assertEquals(2L, rows.get(50).getChangeSeq());
+        assertEquals(3L, rows.get(119).getChangeSeq());
+        verify(storeRepository, times(1)).findExistingNames(argThat((Collection<String> names) -> names.size() == 120));
+    }
+
+    /**
+     * Tests a bulk import from CSV, including a malformed row.
+     */
+    @Test
+    void testCreateStoresFromCsv() throws IOException {
+        String csv = "name,address,phoneNumber,email,active,latitude,longitude\n"
+                + "\"Corner Shop, North\",12 High Street,123,corner@example.com,true,53.35,-6.26\n"
+                + "Night Owl,99 Late Road,,,maybe\n"
+                + "Day Shop,7 Early Lane,,,false\n";
+        when(ownerRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(storeRepository.findExistingNames(anyCollection())).thenReturn(List.of());
+        when(storeRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BulkImportResult result = storeService.createStoresFromCsv(new StringReader(csv), owner.getId());
+
+        assertEquals(3, result.received());
+        assertEquals(2, result.created());
+        assertEquals(1, result.errors().size());
+        assertEquals(2, result.errors().get(0).row());
+        verify(storeRepository).saveAllAndFlush(argThat((List<Store> batch) ->
+                batch.get(0).getName().equals("Corner Shop, North") && batch.get(0).getLatitude() == 53.35
+                        && batch.get(0).getLongitude() == -6.26 && !batch.get(1).isActive()));
+    }
+
+    /**
+     * Tests that a CSV header without the required columns is rejected as a bad request.
+     */
+    @Test
+    void testCreateStoresFromCsv_MissingColumns() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () ->
+                storeService.createStoresFromCsv(new StringReader("name,phoneNumber\nShop,123\n"), owner.getId()));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(storeRepository, never()).saveAllAndFlush(anyList());
+    }
+
+    /**
+     * Tests that a bulk import fails when the owner does not exist.
+     */
+    @Test
+    void testCreateStores_OwnerNotFound() {
+        when(ownerRepository.findById(99L)).thenReturn(Optional.empty());
+
+        Exception exception = assertThrows(RuntimeException.class, () ->
+                storeService.createStores(List.of(store1), 99L));
+
+        assertEquals("Owner not found with ID: 99", exception.getMessage());
+        verify(storeRepository, never()).saveAllAndFlush(anyList());
+    }
+
     /**
      * Tests updating an existing store.
      */
@@ -184,18 +420,38 @@ class StoreServiceTest {
                 .isActive(false)
                 .build();
 
-        when(storeRepository.findById(store1.getId())).thenReturn(Optional.of(store1));
-        when(storeRepository.save(any(Store.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Store persisted = Store.builder()
+                .id(store1.getId())
+                .name("Updated Store")
+                .address("Updated Address")
+                .phoneNumber("4444444444")
+                .email("updated@example.com")
+                .isActive(false)
+                .owner(owner)
+                .build();
+
+        when(storeRepository.updateDetails(eq(store1.getId()), eq("Updated Store"), eq("Updated Address"),
+                eq("4444444444"), eq("updated@example.com"), eq(false), isNull(), isNull(), isNull(), any())).thenReturn(1);
+        when(storeRepository.findById(store1.getId())).thenReturn(Optional.of(persisted));
 
-        Store updatedStore = storeService.updateStore(store1.getId(), updatedData);
+        StoreResponse updatedStore = storeService.updateStore(store1.getId(), updatedData, null);
 
-        assertEquals("Updated Store", updatedStore.getName());
-        assertEquals("Updated Address", updatedStore.getAddress());
-        assertEquals("4444444444", updatedStore.getPhoneNumber());
-        assertEquals("updated@example.com", updatedStore.getEmail());
-        assertFalse(updatedStore.isActive());
-        verify(storeRepository, times(1)).findById(store1.getId());
-        verify(storeRepository, times(1)).save(store1);
+        assertEquals("Updated Store", updatedStore.name());
+        assertEquals("Updated Address", updatedStore.address());
+        assertEquals("4444444444", updatedStore.phoneNumber());
+        assertEquals("updated@example.com", updatedStore.email());
+        assertFalse(updatedStore.active());
+        assertEquals(owner.getId(), updatedStore.ownerId());
+        verify(storeRepository, times(1)).updateDetails(eq(store1.getId()), eq("Updated Store"), eq("Updated Address"),
+                eq("4444444444"), eq("updated@example.com"), eq(false), isNull(), isNull(), isNull(), any());
+        verify(storeRepository, never()).save(any(Store.class));
+        verify(eventPublisher, times(1)).publishEvent(new StoreChangedEvent(ChangeType.UPDATED, store1.getId(), persisted));
+        // The update stamps the change itself, so the store is read back straight after it
+        verify(changeSequence, never()).next();
+        InOrder order = inOrder(storeRepository);
+        order.verify(storeRepository).updateDetails(eq(store1.getId()), any(), any(), any(), any(), anyBoolean(),
+                any(), any(), any(), any());
+        order.verify(storeRepository).findById(store1.getId());
     }
 
     /**
@@ -211,15 +467,107 @@ class StoreServiceTest {
                 .isActive(false)
                 .build();
 
-        when(storeRepository.findById(99L)).thenReturn(Optional.empty());
+        when(storeRepository.updateDetails(eq(99L), any(), any(), any(), any(), anyBoolean(), any(), any(), any(), any()))
+                .thenReturn(0);
 
-        Exception exception = assertThrows(RuntimeException.class, () ->
-                storeService.updateStore(99L, updatedData)
+        Exception exception = assertThrows(ResourceNotFoundException.class, () ->
+                storeService.updateStore(99L, updatedData, null)
         );
 
         assertEquals("Store not found with ID: 99", exception.getMessage());
-        verify(storeRepository, times(1)).findById(99L);
-        verify(storeRepository, never()).save(any(Store.class));
+        verify(storeRepository, never()).findById(anyLong());
+        verify(changeSequence, never()).next();
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    /**
+     * Tests that a conditional update of a modified store is rejected.
+     */
+    @Test
+    void testUpdateStore_VersionMismatch() {
+        when(storeRepository.updateDetails(eq(1L), any(), any(), any(), any(), anyBoolean(), any(), any(), eq(2L), any()))
+                .thenReturn(0);
+        when(storeRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class, () -> storeService.updateStore(1L, store1, 2L));
+        verify(storeRepository, never()).findById(anyLong());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    /**
+     * Tests that a batch lookup only queries cache misses, once, and keeps request order.
+     */
+    @Test
+    void testGetStoresByIds_PartiallyCached() {
+        cacheManager.getCache(CacheConfig.STORES).put(store2.getId(), response2);
+        when(storeRepository.findResponsesByIdIn(List.of(3L, 1L))).thenReturn(List.of(response1));
+
+        BatchResult<StoreResponse> result = storeService.getStoresByIds(List.of(2L, 3L, 1L, 2L));
+
+        assertEquals(Arrays.asList(response2, null, response1, response2), result.items());
+        assertEquals(List.of(3L), result.missing());
+        verify(storeRepository, times(1)).findResponsesByIdIn(any());
+        assertSame(response1, cacheManager.getCache(CacheConfig.STORES).get(1L).get());
+    }
+
+    /**
+     * Tests that a fully cached batch lookup does not query the database.
+     */
+    @Test
+    void testGetStoresByIds_AllCached() {
+        cacheManager.getCache(CacheConfig.STORES).put(store1.getId(), response1);
+        cacheManager.getCache(CacheConfig.STORES).put(store2.getId(), response2);
+
+        BatchResult<StoreResponse> result = storeService.getStoresByIds(List.of(1L, 2L));
+
+        assertEquals(List.of(response1, response2), result.items());
+        assertTrue(result.missing().isEmpty());
+        verify(storeRepository, never()).findResponsesByIdIn(any());
+    }
+
+    /**
+     * Tests that a store's version is answered from the cache when present.
+     */
+    @Test
+    void testGetStoreVersion_Cached() {
+        store1.setVersion(4L);
+        cacheManager.getCache(CacheConfig.STORES).put(store1.getId(), StoreResponse.of(store1));
+
+        assertEquals(Optional.of(4L), storeService.getStoreVersion(store1.getId()));
+        verify(storeRepository, never()).findVersionById(anyLong());
+    }
+
+    /**
+     * Tests that the store listing version comes from the stores table alone.
+     */
+    @Test
+    void testGetStoresVersion() {
+        CollectionVersion stores = new CollectionVersion(2L, 5L, 1L);
+        when(storeRepository.findCollectionVersion()).thenReturn(stores);
+
+        assertEquals(stores, storeService.getStoresVersion());
+        verify(ownerRepository, never()).findCollectionVersion();
+    }
+
+    /**
+     * Tests that nearby searches without a radius use k-nearest lookup.
+     */
+    @Test
+    void testFindNearbyStores_Nearest() {
+        storeService.findNearbyStores(53.3, -6.2, null, 5);
+
+        verify(storeLocationIndex, times(1)).nearest(53.3, -6.2, 5, true);
+        verify(storeLocationIndex, never()).withinRadius(anyDouble(), anyDouble(), anyDouble(), anyInt(), anyBoolean());
+    }
+
+    /**
+     * Tests that nearby searches with a radius use a radius lookup.
+     */
+    @Test
+    void testFindNearbyStores_WithinRadius() {
+        storeService.findNearbyStores(53.3, -6.2, 2.5, 5);
+
+        verify(storeLocationIndex, times(1)).withinRadius(53.3, -6.2, 2.5, 5, true);
     }
 
     /**
@@ -227,13 +575,15 @@ class StoreServiceTest {
      */
     @Test
     void testDeleteStore_Found() {
-        when(storeRepository.existsById(store1.getId())).thenReturn(true);
-        doNothing().when(storeRepository).deleteById(store1.getId());
+        when(tombstoneRepository.insertForStore(eq(store1.getId()), eq(1L), any())).thenReturn(1);
+        when(storeRepository.deleteStoreById(store1.getId())).thenReturn(1);
 
         storeService.deleteStore(store1.getId());
 
-        verify(storeRepository, times(1)).existsById(store1.getId());
-        verify(storeRepository, times(1)).deleteById(store1.getId());
+        verify(tombstoneRepository, times(1)).insertForStore(eq(store1.getId()), eq(1L), any());
+        verify(storeRepository, times(1)).deleteStoreById(store1.getId());
+        verify(storeRepository, never()).existsById(anyLong());
+        verify(eventPublisher, times(1)).publishEvent(new StoreChangedEvent(ChangeType.DELETED, store1.getId(), null));
     }
 
     /**
@@ -241,14 +591,14 @@ class StoreServiceTest {
      */
     @Test
     void testDeleteStore_NotFound() {
-        when(storeRepository.existsById(99L)).thenReturn(false);
+        when(tombstoneRepository.insertForStore(eq(99L), anyLong(), any())).thenReturn(0);
 
-        Exception exception = assertThrows(RuntimeException.class, () ->
+        Exception exception = assertThrows(ResourceNotFoundException.class, () ->
                 storeService.deleteStore(99L)
         );
 
         assertEquals("Store not found with ID: 99", exception.getMessage());
-        verify(storeRepository, times(1)).existsById(99L);
-        verify(storeRepository, never()).deleteById(anyLong());
+        verify(storeRepository, never()).deleteStoreById(anyLong());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,233 @@
+package com.siopa.partner_details.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siopa.partner_details.dto.StoreChange;
+import com.siopa.partner_details.dto.StoreDeletion;
+import com.siopa.partner_details.dto.StoreResponse;
+import com.siopa.partner_details.events.ChangeType;
+import com.siopa.partner_details.events.OwnerChangedEvent;
+import com.siopa.partner_details.events.StoreChangedEvent;
+import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.models.Store;
+import com.siopa.partner_details.repositories.StoreRepository;
+import com.siopa.partner_details.repositories.StoreTombstoneRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StoreSnapshotTest {
+
+    private static final Limit PAGE = Limit.of(StoreSnapshot.LOAD_PAGE_SIZE);
+
+    @Mock
+    private StoreRepository storeRepository;
+
+    @Mock
+    private StoreTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private StoreSnapshot storeSnapshot;
+
+    private final Owner owner = Owner.builder().id(1L).name("John Doe").build();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        storeSnapshot = snapshot(true);
+    }
+
+    private StoreSnapshot snapshot(boolean enabled) {
+        return new StoreSnapshot(enabled, Duration.ofSeconds(10), storeRepository, tombstoneRepository,
+                transactionManager, objectMapper, new SimpleMeterRegistry());
+    }
+
+    private StoreResponse response(long id, long ownerId, String name) {
+        return new StoreResponse(id, name, id + " Main Street", true, null, null, null, null, 2L, ownerId, "Owner");
+    }
+
+    private StoreChange change(long changeSeq, StoreResponse store) {
+        return new StoreChange(changeSeq, Instant.EPOCH, store);
+    }
+
+    private Store store(long id, String name, long changeSeq) {
+        return Store.builder().id(id).name(name).owner(owner).version(changeSeq).changeSeq(changeSeq).build();
+    }
+
+    private void load(StoreChange... changes) {
+        when(storeRepository.findChangedAfter(0L, 0L, PAGE)).thenReturn(List.of(changes));
+        storeSnapshot.loadFromDatabase();
+    }
+
+    private String json(long id) {
+        return new String(storeSnapshot.find(id).orElseThrow().json());
+    }
+
+    @Test
+    void testLoadFromDatabase_PagesThroughStores() throws Exception {
+        List<StoreChange> first = LongStream.rangeClosed(1, StoreSnapshot.LOAD_PAGE_SIZE)
+                .mapToObj(id -> change(id, response(id, 1L, "Store " + id))).toList();
+        long last = StoreSnapshot.LOAD_PAGE_SIZE;
+        when(storeRepository.findChangedAfter(0L, 0L, PAGE)).thenReturn(first);
+        when(storeRepository.findChangedAfter(last, last, PAGE))
+                .thenReturn(List.of(change(last + 1, response(5000L, 2L, "Last Store"))));
+        when(tombstoneRepository.findChangedAfter(0L, 0L, PAGE)).thenReturn(List.of(
+                new StoreDeletion(4L, 1L, last + 2, Instant.EPOCH)));
+
+        storeSnapshot.loadFromDatabase();
+
+        assertEquals(StoreSnapshot.LOAD_PAGE_SIZE, storeSnapshot.size());
+        StoreSnapshot.Entry entry = storeSnapshot.find(5000L).orElseThrow();
+        assertEquals(2L, entry.version());
+        assertEquals(last + 1, entry.changeSeq());
+        assertEquals(objectMapper.writeValueAsString(response(5000L, 2L, "Last Store")), new String(entry.json()));
+        assertTrue(storeSnapshot.find(4999L).isEmpty());
+        assertTrue(storeSnapshot.find(4L).isEmpty());
+    }
+
+    @Test
+    void testOnStoreChanged_AppliesChanges() {
+        load(change(1L, response(1L, 1L, "Tech World")), change(2L, response(2L, 1L, "Gadget Hub")));
+
+        storeSnapshot.onStoreChanged(new StoreChangedEvent(ChangeType.UPDATED, 1L, store(1L, "Renamed", 3L)));
+        storeSnapshot.onStoreChanged(new StoreChangedEvent(ChangeType.CREATED, 3L, store(3L, "New Store", 4L)));
+        storeSnapshot.onStoreChanged(new StoreChangedEvent(ChangeType.DELETED, 2L, null));
+
+        assertTrue(json(1L).contains("\"name\":\"Renamed\""));
+        assertEquals(3L, storeSnapshot.find(1L).orElseThrow().version());
+        assertTrue(json(3L).contains("\"name\":\"New Store\""));
+        assertTrue(storeSnapshot.find(2L).isEmpty());
+        assertEquals(2, storeSnapshot.size());
+    }
+
+    /**
+     * Tests that a change delivered after a newer one for the same store is ignored.
+     */
+    @Test
+    void testOnStoreChanged_IgnoresOlderChange() {
+        load(change(5L, response(1L, 1L, "Tech World")));
+
+        storeSnapshot.onStoreChanged(new StoreChangedEvent(ChangeType.UPDATED, 1L, store(1L, "Stale", 4L)));
+        assertTrue(json(1L).contains("Tech World"));
+
+        storeSnapshot.onStoreChanged(new StoreChangedEvent(ChangeType.UPDATED, 1L, store(1L, "Newest", 7L)));
+        storeSnapshot.onStoreChanged(new StoreChangedEvent(ChangeType.UPDATED, 1L, store(1L, "Older", 6L)));
+        assertTrue(json(1L).contains("Newest"));
+    }
+
+    /**
+     * Tests that a change delivered after a store's deletion does not bring it back,
+     * before or after the overlay is merged into the base arrays.
+     */
+    @Test
+    void testOnStoreChanged_DeletedStoreStaysDeleted() {
+        load(change(1L, response(1L, 1L, "Tech World")));
+
+        storeSnapshot.onStoreChanged(new StoreChangedEvent(ChangeType.DELETED, 1L, null));
+        storeSnapshot.onStoreChanged(new StoreChangedEvent(ChangeType.UPDATED, 1L, store(1L, "Late Update", 9L)));
+        assertTrue(storeSnapshot.find(1L).isEmpty());
+
+        storeSnapshot.rebuild();
+        storeSnapshot.onStoreChanged(new StoreChangedEvent(ChangeType.UPDATED, 1L, store(1L, "Late Update", 9L)));
+        assertTrue(storeSnapshot.find(1L).isEmpty());
+        assertEquals(0, storeSnapshot.size());
+    }
+
+    /**
+     * Tests that a refresh applies changes made by other instances and reads on from the last one.
+     */
+    @Test
+    void testRefresh_AppliesChangesFromFeed() {
+        load(change(1L, response(1L, 1L, "Tech World")), change(2L, response(2L, 1L, "Gadget Hub")));
+        when(storeRepository.findChangedAfter(2L, 2L, PAGE)).thenReturn(List.of(
+                change(3L, response(1L, 1L, "Renamed Elsewhere")), change(4L, response(3L, 1L, "New Elsewhere"))));
+        when(tombstoneRepository.findChangedAfter(0L, 0L, PAGE)).thenReturn(List.of(
+                new StoreDeletion(2L, 1L, 5L, Instant.EPOCH)));
+
+        storeSnapshot.refresh();
+
+        assertTrue(json(1L).contains("Renamed Elsewhere"));
+        assertTrue(json(3L).contains("New Elsewhere"));
+        assertTrue(storeSnapshot.find(2L).isEmpty());
+
+        storeSnapshot.refresh();
+        verify(storeRepository).findChangedAfter(4L, 3L, PAGE);
+        verify(tombstoneRepository).findChangedAfter(5L, 2L, PAGE);
+    }
+
+    /**
+     * Tests that a refresh reads again from before a change younger than the settle time,
+     * since changes with lower sequences may still commit behind it.
+     */
+    @Test
+    void testRefresh_RereadsUnsettledChanges() {
+        when(storeRepository.findChangedAfter(0L, 0L, PAGE)).thenReturn(List.of(
+                change(1L, response(1L, 1L, "Tech World")),
+                new StoreChange(3L, Instant.now(), response(3L, 1L, "Recent")),
+                change(4L, response(4L, 1L, "Old Behind Recent"))));
+        storeSnapshot.loadFromDatabase();
+
+        storeSnapshot.refresh();
+
+        verify(storeRepository).findChangedAfter(1L, 1L, PAGE);
+        assertTrue(json(3L).contains("Recent"));
+        assertTrue(json(4L).contains("Old Behind Recent"));
+    }
+
+    @Test
+    void testRebuild_MergesOverlay() {
+        load(change(1L, response(1L, 1L, "Tech World")), change(2L, response(5L, 1L, "Gadget Hub")));
+        storeSnapshot.onStoreChanged(new StoreChangedEvent(ChangeType.CREATED, 3L, store(3L, "New Store", 3L)));
+        storeSnapshot.onStoreChanged(new StoreChangedEvent(ChangeType.DELETED, 5L, null));
+
+        storeSnapshot.rebuild();
+
+        assertEquals(2, storeSnapshot.size());
+        assertTrue(json(1L).contains("Tech World"));
+        assertTrue(json(3L).contains("New Store"));
+        assertTrue(storeSnapshot.find(5L).isEmpty());
+    }
+
+    @Test
+    void testOnOwnerChanged() {
+        load(change(1L, response(1L, 1L, "Tech World")), change(2L, response(2L, 2L, "Gadget Hub")));
+        storeSnapshot.onStoreChanged(new StoreChangedEvent(ChangeType.CREATED, 3L, store(3L, "New Store", 3L)));
+        when(storeRepository.findChangesByOwnerId(2L)).thenReturn(List.of(change(4L,
+                new StoreResponse(2L, "Gadget Hub", null, true, null, null, null, null, 4L, 2L, "Jane Doe"))));
+
+        storeSnapshot.onOwnerChanged(new OwnerChangedEvent(ChangeType.DELETED, 1L, null));
+        storeSnapshot.onOwnerChanged(new OwnerChangedEvent(ChangeType.UPDATED, 2L, null));
+
+        assertTrue(storeSnapshot.find(1L).isEmpty());
+        assertTrue(storeSnapshot.find(3L).isEmpty());
+        assertTrue(json(2L).contains("\"ownerName\":\"Jane Doe\""));
+        assertEquals(1, storeSnapshot.size());
+    }
+
+    @Test
+    void testDisabled() {
+        storeSnapshot = snapshot(false);
+
+        storeSnapshot.loadFromDatabase();
+        storeSnapshot.refresh();
+        storeSnapshot.onStoreChanged(new StoreChangedEvent(ChangeType.CREATED, 3L, store(3L, "New Store", 1L)));
+
+        assertTrue(storeSnapshot.find(3L).isEmpty());
+        verifyNoInteractions(storeRepository, tombstoneRepository);
+    }
+}
@@ -0,0 +1,171 @@
+package com.siopa.partner_details.stats;
+
+import com.siopa.partner_details.dto.OwnerStoreCounts;
+import com.siopa.partner_details.dto.PartnerStats;
+import com.siopa.partner_details.events.ChangeType;
+import com.siopa.partner_details.events.OwnerChangedEvent;
+import com.siopa.partner_details.events.StoreChangedEvent;
+import com.siopa.partner_details.models.Owner;
+import com.siopa.partner_details.models.Store;
+import com.siopa.partner_details.repositories.OwnerRepository;
+import com.siopa.partner_details.repositories.StoreRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PartnerStatisticsTest {
+
+    @Mock
+    private OwnerRepository ownerRepository;
+
+    @Mock
+    private StoreRepository storeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PartnerStatistics partnerStatistics;
+
+    private final Owner owner = Owner.builder().id(1L).name("John Doe").build();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(ownerRepository.findStoreCounts()).thenReturn(List.of(
+                new OwnerStoreCounts(1L, 1L, 1L), new OwnerStoreCounts(2L, 0L, 0L)));
+        when(storeRepository.findAllStates()).thenReturn(List.of(
+                new StoreState(10L, 1L, true), new StoreState(11L, 1L, false)));
+        partnerStatistics = new PartnerStatistics(ownerRepository, storeRepository, transactionManager,
+                meterRegistry);
+        partnerStatistics.loadFromDatabase();
+    }
+
+    private StoreChangedEvent stored(ChangeType type, long id, boolean active) {
+        return new StoreChangedEvent(type, id, Store.builder().id(id).owner(owner).isActive(active).build());
+    }
+
+    @Test
+    void testLoadFromDatabase() {
+        PartnerStats stats = partnerStatistics.getStats();
+
+        assertEquals(2, stats.owners());
+        assertEquals(2, stats.stores());
+        assertEquals(1, stats.activeStores());
+        assertNotNull(stats.reconciledAt());
+        assertEquals(new OwnerStoreCounts(2L, 0L, 0L), partnerStatistics.getOwnerStats(2L).orElseThrow());
+        assertTrue(partnerStatistics.getOwnerStats(3L).isEmpty());
+    }
+
+    @Test
+    void testOnStoreChanged_AppliesDeltas() {
+        partnerStatistics.onStoreChanged(stored(ChangeType.CREATED, 12L, true));
+        partnerStatistics.onStoreChanged(stored(ChangeType.UPDATED, 11L, true));
+        partnerStatistics.onStoreChanged(new StoreChangedEvent(ChangeType.DELETED, 10L, null));
+        partnerStatistics.onStoreChanged(new StoreChangedEvent(ChangeType.DELETED, 10L, null));
+
+        PartnerStats stats = partnerStatistics.getStats();
+        assertEquals(2, stats.stores());
+        assertEquals(2, stats.activeStores());
+        assertEquals(0, stats.inactiveStores());
+        assertEquals(new OwnerStoreCounts(1L, 2L, 0L), partnerStatistics.getOwnerStats(1L).orElseThrow());
+    }
+
+    @Test
+    void testOnOwnerChanged() {
+        partnerStatistics.onOwnerChanged(new OwnerChangedEvent(ChangeType.CREATED, 3L, null));
+        partnerStatistics.onOwnerChanged(new OwnerChangedEvent(ChangeType.DELETED, 1L, null));
+
+        PartnerStats stats = partnerStatistics.getStats();
+        assertEquals(2, stats.owners());
+        assertEquals(0, stats.stores());
+        assertTrue(partnerStatistics.getOwnerStats(1L).isEmpty());
+        assertTrue(partnerStatistics.getOwnerStats(3L).isPresent());
+    }
+
+    @Test
+    void testOnOwnerChanged_KeepsOtherOwnersStores() {
+        Owner other = Owner.builder().id(2L).name("Jane Doe").build();
+        partnerStatistics.onStoreChanged(new StoreChangedEvent(ChangeType.CREATED, 20L,
+                Store.builder().id(20L).owner(other).isActive(true).build()));
+        partnerStatistics.onStoreChanged(new StoreChangedEvent(ChangeType.UPDATED, 11L,
+                Store.builder().id(11L).owner(other).isActive(false).build()));
+
+        partnerStatistics.onOwnerChanged(new OwnerChangedEvent(ChangeType.DELETED, 1L, null));
+
+        PartnerStats stats = partnerStatistics.getStats();
+        assertEquals(1, stats.owners());
+        assertEquals(2, stats.stores());
+        assertEquals(new OwnerStoreCounts(2L, 1L, 1L), partnerStatistics.getOwnerStats(2L).orElseThrow());
+    }
+
+    @Test
+    void testLoadFromDatabase_OneTransactionOnPrimary() {
+        InOrder inOrder = inOrder(transactionManager, ownerRepository, storeRepository);
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+
+        inOrder.verify(transactionManager).getTransaction(definition.capture());
+        inOrder.verify(ownerRepository).findStoreCounts();
+        inOrder.verify(storeRepository).findAllStates();
+        inOrder.verify(transactionManager).commit(any());
+        assertFalse(definition.getValue().isReadOnly());
+    }
+
+    @Test
+    void testReconcile_Matches() {
+        assertTrue(partnerStatistics.reconcile());
+
+        verify(storeRepository, times(1)).findAllStates();
+        assertEquals(0, meterRegistry.counter("partner.stats.drift").count());
+    }
+
+    @Test
+    void testReconcile_ReloadsOnDrift() {
+        when(ownerRepository.findStoreCounts()).thenReturn(List.of(new OwnerStoreCounts(1L, 2L, 1L)));
+        when(storeRepository.findAllStates()).thenReturn(List.of(
+                new StoreState(10L, 1L, true), new StoreState(11L, 1L, false), new StoreState(12L, 1L, true)));
+
+        assertFalse(partnerStatistics.reconcile());
+
+        PartnerStats stats = partnerStatistics.getStats();
+        assertEquals(1, stats.owners());
+        assertEquals(3, stats.stores());
+        assertEquals(1, meterRegistry.counter("partner.stats.drift").count());
+    }
+
+    @Test
+    void testConcurrentChanges() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (long id = 100; id < 1100; id++) {
+            long storeId = id;
+            executor.execute(() -> {
+                partnerStatistics.onStoreChanged(stored(ChangeType.CREATED, storeId, true));
+                partnerStatistics.onStoreChanged(stored(ChangeType.UPDATED, storeId, storeId % 2 == 0));
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        PartnerStats stats = partnerStatistics.getStats();
+        assertEquals(1002, stats.stores());
+        assertEquals(501, stats.activeStores());
+        assertEquals(new OwnerStoreCounts(1L, 501L, 501L), partnerStatistics.getOwnerStats(1L).orElseThrow());
+    }
+}
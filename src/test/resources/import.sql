@@ -0,0 +1,2 @@
+-- Not mapped to an entity ID, so Hibernate's schema generation does not create it
+create sequence if not exists partner_change_seq start with 1 increment by 1;